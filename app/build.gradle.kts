@@ -30,6 +30,7 @@ android {
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
+        isCoreLibraryDesugaringEnabled = true // java.time below API 26
     }
     kotlinOptions {
         jvmTarget = "11"
@@ -37,10 +38,22 @@ android {
     buildFeatures {
         compose = true
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true // Robolectric loads layouts/themes
+            all { test ->
+                // UiPerfTest writes one JSON report per screen here
+                test.systemProperty("uiPerf.reportDir",
+                    layout.buildDirectory.dir("reports/ui-perf").get().asFile.path)
+            }
+        }
+    }
 }
 
 dependencies {
 
+    coreLibraryDesugaring(libs.desugar.jdk.libs)
+    implementation(project(":core"))
     implementation(libs.androidx.core.ktx)
     implementation(libs.androidx.lifecycle.runtime.ktx)
     implementation(libs.androidx.activity.compose)
@@ -50,6 +63,7 @@ dependencies {
     implementation(libs.androidx.compose.ui.tooling.preview)
     implementation(libs.androidx.compose.material3)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
     androidTestImplementation(platform(libs.androidx.compose.bom))
@@ -83,7 +83,7 @@ public class AddPollDialogFragment extends DialogFragment {
             p.description = etDescription.getText().toString().trim();
             String link = etLink.getText().toString().trim();
             p.link = TextUtils.isEmpty(link) ? null : link;
-            for (String s : opts) p.options.add(new PollOption(s));
+            for (String s : opts) p.addOption(s);
 
             if (callback != null) callback.onCreated(p);
             dismiss();
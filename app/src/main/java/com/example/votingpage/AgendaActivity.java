@@ -1,45 +1,73 @@
 package com.example.votingpage;
 
 import android.app.DatePickerDialog;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.os.Bundle;
+import android.text.format.DateFormat;
 import android.view.Gravity;
 import android.view.View;
 import android.widget.ImageButton;
-import android.widget.TableLayout;
-import android.widget.TableRow;
+import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Arrays;
 import java.util.Locale;
 
 /**
  * Agenda view: weekly headers + hourly slots. In-memory demo data.
+ * Dates are epoch days (AgendaTime); labels come from a per-locale AgendaLabels cache.
  * Reuses colors, theme, bottom nav, and icons from Voting page.
  */
 public class AgendaActivity extends AppCompatActivity {
 
     // UI
     private TextView tvMonthYear;
-    private TableLayout tableGrid;
-
-    // Calendar state (selected anchor date; we show its week)
-    private final Calendar anchor = Calendar.getInstance(); // today as default
+    private final TextView[] headerCells = new TextView[COLS + 1]; // TIME + days, created once
+    private AgendaGridAdapter gridAdapter;
+
+    // Selected anchor date as an epoch day; we show its week
+    private long anchorDay;
+
+    // Formatted labels for the current locale/zone; replaced when either changes
+    private AgendaLabels labels;
+    private final BroadcastReceiver localeOrZoneChanged = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (ensureLabels()) buildScreen();
+        }
+    };
 
-    // Demo events
+    // Demo events + interval index over them (rebuilt when the list changes)
     private final ArrayList<EventItem> events = new ArrayList<>();
+    private EventIndex eventIndex = EventIndex.EMPTY;
 
-    // Time bounds (change if you want more/less hours)
+    // Events overlapping the shown week, bucketed per day column (ids into events)
+    private final EventIndex.Hits weekHits = new EventIndex.Hits();
+    private final int[][] dayHits = new int[COLS][8];
+    private final int[] dayHitCount = new int[COLS];
+    private long weekStartDay; // epoch day of the first column
+
+    // Default time bounds; the grid takes any range via setRange()
     private static final int START_HOUR = 6;   // 06:00
     private static final int END_HOUR = 21;    // 21:00 inclusive -> last row
+    private static final int SLOT_MINUTES = 60;
     private static final int COLS = 7;         // Sun..Sat
 
+    private static final Metrics.Section BUILD_SCREEN = Metrics.section("agenda.buildScreen");
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -56,7 +84,8 @@ public class AgendaActivity extends AppCompatActivity {
         TextView btnNextWeek = findViewById(R.id.btnNextWeek);
 
         tvMonthYear = findViewById(R.id.tvMonthYear);
-        tableGrid   = findViewById(R.id.tableGrid);
+        LinearLayout weekHeader = findViewById(R.id.weekHeader);
+        RecyclerView rvAgenda = findViewById(R.id.rvAgenda);
 
         // Bottom nav
         BottomNavigationView bottom = findViewById(R.id.bottomNavigation);
@@ -64,6 +93,7 @@ public class AgendaActivity extends AppCompatActivity {
         bottom.setOnItemSelectedListener(item -> true);
 
         btnBack.setOnClickListener(v -> finish());
+        MetricsOverlay.install(this, tvMonthYear); // debug builds: long-press the month
 
         // Calendar picker
         btnCalDrop.setOnClickListener(v -> showDatePicker());
@@ -74,12 +104,62 @@ public class AgendaActivity extends AppCompatActivity {
         btnNextDay.setOnClickListener(v  -> { shiftDays(1); });
         btnNextWeek.setOnClickListener(v -> { shiftDays(7); });
 
+        // Header cells are created once; buildScreen() only changes their text
+        headerCells[0] = makeHeaderCell("TIME", true);
+        weekHeader.addView(headerCells[0]);
+        for (int c = 1; c <= COLS; c++) {
+            headerCells[c] = makeHeaderCell("", false);
+            weekHeader.addView(headerCells[c]);
+        }
+
+        gridAdapter = new AgendaGridAdapter(this, COLS, new AgendaGridAdapter.Cells() {
+            @Override
+            public CharSequence timeLabel(int minuteOfDay) {
+                return toTimeLabel(minuteOfDay);
+            }
+
+            @Override
+            public CharSequence eventAt(int day, int startMinute, int endMinute) {
+                return slotLabel(day, startMinute, endMinute);
+            }
+        }, START_HOUR * 60, (END_HOUR + 1) * 60, SLOT_MINUTES);
+        rvAgenda.setLayoutManager(new LinearLayoutManager(this));
+        rvAgenda.setAdapter(gridAdapter);
+
+        ensureLabels();
+        anchorDay = labels.today();
         seedDemoEvents();
         buildScreen();
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        IntentFilter filter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        ContextCompat.registerReceiver(this, localeOrZoneChanged, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
+        // Settings (e.g. 24-hour clock) may have changed while we were hidden
+        if (ensureLabels()) buildScreen();
+    }
+
+    @Override
+    protected void onStop() {
+        unregisterReceiver(localeOrZoneChanged);
+        super.onStop();
+    }
+
+    /** Replaces the label cache if locale, zone or 12/24h changed. Returns true if it did. */
+    private boolean ensureLabels() {
+        Locale locale = Locale.getDefault();
+        ZoneId zone = ZoneId.systemDefault();
+        boolean use24Hour = DateFormat.is24HourFormat(this);
+        if (labels != null && labels.matches(locale, zone, use24Hour)) return false;
+        labels = new AgendaLabels(locale, zone, use24Hour);
+        return true;
+    }
+
     private void shiftDays(int delta) {
-        anchor.add(Calendar.DAY_OF_MONTH, delta);
+        anchorDay += delta;
         buildScreen();
     }
 
@@ -87,104 +167,82 @@ public class AgendaActivity extends AppCompatActivity {
         new DatePickerDialog(
                 this,
                 (view, y, m, d) -> {
-                    anchor.set(Calendar.YEAR, y);
-                    anchor.set(Calendar.MONTH, m);
-                    anchor.set(Calendar.DAY_OF_MONTH, d);
+                    anchorDay = AgendaTime.epochDay(y, m + 1, d);
                     buildScreen();
                 },
-                anchor.get(Calendar.YEAR),
-                anchor.get(Calendar.MONTH),
-                anchor.get(Calendar.DAY_OF_MONTH)
+                AgendaTime.year(anchorDay),
+                AgendaTime.month(anchorDay) - 1,
+                AgendaTime.dayOfMonth(anchorDay)
         ).show();
     }
 
-    /** Build the header and the table every time the anchor changes. */
+    /** Update the header and rebind the grid every time the anchor changes. */
     private void buildScreen() {
-        // Month | Year label (center)
-        SimpleDateFormat monthFmt = new SimpleDateFormat("MMMM | yyyy", Locale.getDefault());
-        tvMonthYear.setText(monthFmt.format(anchor.getTime()));
-
-        // Build week header labels (Sun..Sat) dated from Sunday of that week
-        Calendar weekStart = (Calendar) anchor.clone();
-        // Normalize to beginning of week (Sunday)
-        weekStart.set(Calendar.DAY_OF_WEEK, weekStart.getFirstDayOfWeek()); // often Sunday on many devices
-        // Some locales start on Monday; if you want to force Sunday:
-        // weekStart.set(Calendar.DAY_OF_WEEK, Calendar.SUNDAY);
-
-        // Clear old grid
-        tableGrid.removeAllViews();
-
-        // Header row: TIME | SUN 01 | MON 02 ... SAT 07
-        TableRow header = new TableRow(this);
-        header.setLayoutParams(new TableLayout.LayoutParams(
-                TableLayout.LayoutParams.MATCH_PARENT, TableLayout.LayoutParams.WRAP_CONTENT));
-        header.setBackgroundColor(getColor(R.color.outline));
-
-        // TIME cell
-        TextView timeHdr = makeHeaderCell("TIME", true);
-        header.addView(timeHdr);
-
-        SimpleDateFormat dayName = new SimpleDateFormat("EEE", Locale.getDefault()); // SUN, MON
-        SimpleDateFormat dayNum  = new SimpleDateFormat("dd", Locale.getDefault());  // 01, 02, ...
-
-        Calendar colCal = (Calendar) weekStart.clone();
-        for (int c = 0; c < COLS; c++) {
-            String label = dayName.format(colCal.getTime()) + " " + dayNum.format(colCal.getTime());
-            header.addView(makeHeaderCell(label, false));
-            colCal.add(Calendar.DAY_OF_MONTH, 1);
+        long t = BUILD_SCREEN.begin();
+        try {
+            updateScreen();
+        } finally {
+            BUILD_SCREEN.end(t);
         }
-        tableGrid.addView(header);
-
-        // Rows for each hour
-        Calendar rowCal = (Calendar) weekStart.clone();
-        for (int h = START_HOUR; h <= END_HOUR; h++) {
-            TableRow row = new TableRow(this);
-            row.setLayoutParams(new TableLayout.LayoutParams(
-                    TableLayout.LayoutParams.MATCH_PARENT, TableLayout.LayoutParams.WRAP_CONTENT));
-
-            // Time label (e.g., 6:00)
-            String label = toHourLabel(h);
-            TextView timeCell = makeTimeCell(label);
-            row.addView(timeCell);
-
-            // Day cells (Sun..Sat)
-            Calendar dayIter = (Calendar) rowCal.clone();
-            for (int c = 0; c < COLS; c++) {
-                TextView cell = makeSlotCell();
-
-                // If an event matches this day+hour, render it in the cell
-                EventItem match = findEvent(dayIter, h);
-                if (match != null) {
-                    cell.setText("• " + match.title);
-                    cell.setBackground(getDrawable(R.drawable.bg_cell_event)); // light accent
-                }
+    }
 
-                row.addView(cell);
-                dayIter.add(Calendar.DAY_OF_MONTH, 1);
-            }
-            tableGrid.addView(row);
+    private void updateScreen() {
+        // Month | Year label (center)
+        tvMonthYear.setText(labels.monthHeader(anchorDay));
+
+        // Week starts on the locale's first day (Sunday in many locales, Monday in others)
+        weekStartDay = AgendaTime.weekStart(anchorDay, labels.firstDayOfWeek());
+        for (int c = 1; c <= COLS; c++) {
+            headerCells[c].setText(labels.dayHeader(weekStartDay + c - 1));
         }
+
+        // One index query for the whole week, then bucket per day
+        bucketWeek();
+
+        // Visible rows rebind in place; no views are created
+        gridAdapter.refresh();
     }
 
-    private EventItem findEvent(Calendar day, int hour) {
-        for (EventItem e : events) {
-            if (sameYMD(day, e.when) && e.hour24 == hour) return e;
+    private void bucketWeek() {
+        Arrays.fill(dayHitCount, 0);
+        long from = AgendaTime.epochMinute(weekStartDay, 0);
+        long to = AgendaTime.epochMinute(weekStartDay + COLS, 0);
+        eventIndex.query(from, to, weekHits);
+        for (int h = 0; h < weekHits.size(); h++) {
+            int id = weekHits.get(h);
+            EventItem e = events.get(id);
+            // Multi-day events land in every column they touch
+            int first = (int) Math.max(0, Math.floorDiv(e.startMinute, AgendaTime.MINUTES_PER_DAY) - weekStartDay);
+            int last = (int) Math.min(COLS - 1, Math.floorDiv(e.endMinute - 1, AgendaTime.MINUTES_PER_DAY) - weekStartDay);
+            for (int d = first; d <= last; d++) {
+                if (dayHitCount[d] == dayHits[d].length) {
+                    dayHits[d] = Arrays.copyOf(dayHits[d], dayHits[d].length * 2);
+                }
+                dayHits[d][dayHitCount[d]++] = id;
+            }
         }
-        return null;
     }
 
-    private boolean sameYMD(Calendar a, Calendar b) {
-        return a.get(Calendar.YEAR)  == b.get(Calendar.YEAR) &&
-                a.get(Calendar.MONTH) == b.get(Calendar.MONTH) &&
-                a.get(Calendar.DAY_OF_MONTH) == b.get(Calendar.DAY_OF_MONTH);
+    /** Label for one grid cell: first overlapping event, plus "+n" if others overlap too. */
+    private CharSequence slotLabel(int day, int startMinute, int endMinute) {
+        long from = AgendaTime.epochMinute(weekStartDay + day, startMinute);
+        long to = AgendaTime.epochMinute(weekStartDay + day, endMinute);
+        EventItem first = null;
+        int more = 0;
+        for (int i = 0; i < dayHitCount[day]; i++) {
+            EventItem e = events.get(dayHits[day][i]);
+            if (e.startMinute < to && e.endMinute > from) {
+                if (first == null) first = e;
+                else more++;
+            }
+        }
+        if (first == null) return null;
+        return first.label(more);
     }
 
-    private String toHourLabel(int h24) {
-        // 6 → 6:00, 13 → 1:00 PM (optional: keep 24h)
-        Calendar c = Calendar.getInstance();
-        c.set(Calendar.HOUR_OF_DAY, h24);
-        c.set(Calendar.MINUTE, 0);
-        return new SimpleDateFormat("h:mm a", Locale.getDefault()).format(c.getTime());
+    private String toTimeLabel(int minuteOfDay) {
+        // 6:00 AM, 1:30 PM, or 06:00 with the 24-hour setting
+        return labels.time(minuteOfDay);
     }
 
     // ---------- cell factories ----------
@@ -196,41 +254,14 @@ public class AgendaActivity extends AppCompatActivity {
         tv.setGravity(Gravity.CENTER);
         tv.setBackgroundColor(getColor(R.color.surface));
         tv.setTextColor(getColor(R.color.dark_gray));
-        TableRow.LayoutParams lp = new TableRow.LayoutParams(
-                sticky ? dp(64) : 0, TableRow.LayoutParams.WRAP_CONTENT, sticky ? 0 : 1f);
+        LinearLayout.LayoutParams lp = new LinearLayout.LayoutParams(
+                sticky ? dp(64) : 0, LinearLayout.LayoutParams.WRAP_CONTENT, sticky ? 0 : 1f);
         lp.setMargins(dp(1), dp(1), dp(1), dp(1));
         tv.setLayoutParams(lp);
         tv.setBackground(getDrawable(R.drawable.bg_cell_header));
         return tv;
     }
 
-    private TextView makeTimeCell(String text) {
-        TextView tv = new TextView(this);
-        tv.setText(text);
-        tv.setPadding(dp(6), dp(10), dp(6), dp(10));
-        tv.setTextSize(12);
-        tv.setTextColor(getColor(R.color.gray_text));
-        tv.setGravity(Gravity.CENTER_VERTICAL);
-        TableRow.LayoutParams lp = new TableRow.LayoutParams(dp(64), TableRow.LayoutParams.WRAP_CONTENT);
-        lp.setMargins(dp(1), dp(1), dp(1), dp(1));
-        tv.setLayoutParams(lp);
-        tv.setBackground(getDrawable(R.drawable.bg_cell_time));
-        return tv;
-    }
-
-    private TextView makeSlotCell() {
-        TextView tv = new TextView(this);
-        tv.setPadding(dp(6), dp(14), dp(6), dp(14));
-        tv.setTextSize(12);
-        tv.setTextColor(getColor(R.color.dark_gray));
-        tv.setGravity(Gravity.CENTER_VERTICAL);
-        TableRow.LayoutParams lp = new TableRow.LayoutParams(0, TableRow.LayoutParams.WRAP_CONTENT, 1f);
-        lp.setMargins(dp(1), dp(1), dp(1), dp(1));
-        tv.setLayoutParams(lp);
-        tv.setBackground(getDrawable(R.drawable.bg_cell_empty)); // thin border
-        return tv;
-    }
-
     private int dp(int px) {
         float d = getResources().getDisplayMetrics().density;
         return Math.round(px * d);
@@ -240,23 +271,47 @@ public class AgendaActivity extends AppCompatActivity {
     private void seedDemoEvents() {
         events.clear();
         // Example events near 'anchor' day
-        Calendar d1 = (Calendar) anchor.clone();
-        d1.set(Calendar.HOUR_OF_DAY, 9);
-        events.add(new EventItem("Stand-up", d1, 9));
-
-        Calendar d2 = (Calendar) anchor.clone();
-        d2.add(Calendar.DAY_OF_MONTH, 2);
-        d2.set(Calendar.HOUR_OF_DAY, 14);
-        events.add(new EventItem("Client Call", d2, 14));
+        long today = anchorDay;
+        events.add(new EventItem("Stand-up", today, 9 * 60, 9 * 60 + 30));
+        events.add(new EventItem("Workshop", today + 1, 10 * 60, 13 * 60));   // multi-hour
+        events.add(new EventItem("Lunch", today + 1, 12 * 60, 13 * 60));      // overlaps Workshop
+        events.add(new EventItem("Client Call", today + 2, 14 * 60, 15 * 60));
+        rebuildIndex();
     }
 
-    // Simple event record
+    private void rebuildIndex() {
+        int n = events.size();
+        long[] starts = new long[n], ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = events.get(i).startMinute;
+            ends[i] = events.get(i).endMinute;
+        }
+        eventIndex = EventIndex.build(starts, ends, n);
+    }
+
+    // Simple event record: [startMinute, endMinute) in local epoch minutes
     static class EventItem {
+        private static final String[] NO_LABELS = new String[0];
+
         String title;
-        Calendar when;
-        int hour24;
-        EventItem(String title, Calendar when, int hour24) {
-            this.title = title; this.when = (Calendar) when.clone(); this.hour24 = hour24;
+        String label;      // "• title", built once for the grid
+        long startMinute;
+        long endMinute;
+        private String[] withMore = NO_LABELS; // "• title +n" at [n], built on first bind
+        EventItem(String title, long epochDay, int startOfDay, int endOfDay) {
+            this.title = title;
+            this.label = "• " + title;
+            this.startMinute = AgendaTime.epochMinute(epochDay, startOfDay);
+            this.endMinute = AgendaTime.epochMinute(epochDay, endOfDay);
+        }
+
+        /** Grid label with {@code more} other overlapping events; cached, so binds don't allocate. */
+        String label(int more) {
+            if (more == 0) return label;
+            if (more >= withMore.length) withMore = Arrays.copyOf(withMore, Math.max(4, more + 1));
+            String s = withMore[more];
+            if (s == null) withMore[more] = s = label + " +" + more;
+            return s;
         }
     }
 }
@@ -0,0 +1,156 @@
+package com.example.votingpage;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Week grid for AgendaActivity: one RecyclerView row per time slot, each a
+ * time cell + one cell per day. Only visible rows exist; changing week or
+ * range rebinds texts/backgrounds in place and creates no views.
+ *
+ * Rows cover [startMinute, endMinute) of the day in slotMinutes steps, so
+ * the range and granularity are independent of the number of views.
+ */
+public class AgendaGridAdapter extends RecyclerView.Adapter<AgendaGridAdapter.RowVH> {
+
+    /** Supplies what the grid shows; called on the main thread during bind. */
+    public interface Cells {
+        CharSequence timeLabel(int minuteOfDay);
+
+        /** Title of an event overlapping [startMinute, endMinute) on day column {@code day}, or null. */
+        CharSequence eventAt(int day, int startMinute, int endMinute);
+    }
+
+    private static final Object PAYLOAD_CONTENT = new Object();
+
+    private final Context ctx;
+    private final int days;
+    private final Cells cells;
+    private int startMinute, endMinute, slotMinutes;
+
+    public AgendaGridAdapter(Context ctx, int days, Cells cells,
+                             int startMinute, int endMinute, int slotMinutes) {
+        this.ctx = ctx;
+        this.days = days;
+        this.cells = cells;
+        setRange(startMinute, endMinute, slotMinutes);
+    }
+
+    /** Changes the visible time range, e.g. 0..24h in 15 minute steps. */
+    public void setRange(int startMinute, int endMinute, int slotMinutes) {
+        if (slotMinutes <= 0 || endMinute <= startMinute) {
+            throw new IllegalArgumentException("Bad agenda range");
+        }
+        int before = getItemCount();
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+        this.slotMinutes = slotMinutes;
+        int after = getItemCount();
+        if (after > before) notifyItemRangeInserted(before, after - before);
+        else if (after < before) notifyItemRangeRemoved(after, before - after);
+        notifyItemRangeChanged(0, Math.min(before, after), PAYLOAD_CONTENT);
+    }
+
+    /** Week or events changed: rebind visible rows in place. */
+    public void refresh() {
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_CONTENT);
+    }
+
+    @Override
+    public int getItemCount() {
+        if (slotMinutes == 0) return 0; // setRange() from the constructor hasn't assigned a range yet
+        return (endMinute - startMinute + slotMinutes - 1) / slotMinutes;
+    }
+
+    @NonNull
+    @Override
+    public RowVH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return new RowVH(ctx, days);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RowVH holder, int position) {
+        int start = startMinute + position * slotMinutes;
+        int end = Math.min(endMinute, start + slotMinutes);
+        holder.time.setText(cells.timeLabel(start));
+        for (int d = 0; d < days; d++) {
+            holder.bindSlot(d, cells.eventAt(d, start, end));
+        }
+    }
+
+    // ---------------- ROW ----------------
+    static class RowVH extends RecyclerView.ViewHolder {
+        final TextView time;
+        final TextView[] slots;
+        private final boolean[] hasEvent;
+
+        RowVH(Context ctx, int days) {
+            super(new LinearLayout(ctx));
+            LinearLayout row = (LinearLayout) itemView;
+            row.setOrientation(LinearLayout.HORIZONTAL);
+            row.setLayoutParams(new RecyclerView.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+
+            time = makeTimeCell(ctx);
+            row.addView(time);
+            slots = new TextView[days];
+            hasEvent = new boolean[days];
+            for (int d = 0; d < days; d++) {
+                slots[d] = makeSlotCell(ctx);
+                row.addView(slots[d]);
+            }
+        }
+
+        void bindSlot(int day, CharSequence event) {
+            TextView cell = slots[day];
+            boolean has = event != null;
+            cell.setText(has ? event : null);
+            if (has != hasEvent[day]) {
+                // Only swap drawables when the state flips
+                cell.setBackgroundResource(has ? R.drawable.bg_cell_event : R.drawable.bg_cell_empty);
+                hasEvent[day] = has;
+            }
+        }
+
+        // ---------- cell factories (run once per row holder) ----------
+        private static TextView makeTimeCell(Context ctx) {
+            TextView tv = new TextView(ctx);
+            tv.setPadding(dp(ctx, 6), dp(ctx, 10), dp(ctx, 6), dp(ctx, 10));
+            tv.setTextSize(12);
+            tv.setTextColor(ContextCompat.getColor(ctx, R.color.gray_text));
+            tv.setGravity(Gravity.CENTER_VERTICAL);
+            LinearLayout.LayoutParams lp = new LinearLayout.LayoutParams(
+                    dp(ctx, 64), ViewGroup.LayoutParams.MATCH_PARENT);
+            lp.setMargins(dp(ctx, 1), dp(ctx, 1), dp(ctx, 1), dp(ctx, 1));
+            tv.setLayoutParams(lp);
+            tv.setBackgroundResource(R.drawable.bg_cell_time);
+            return tv;
+        }
+
+        private static TextView makeSlotCell(Context ctx) {
+            TextView tv = new TextView(ctx);
+            tv.setPadding(dp(ctx, 6), dp(ctx, 14), dp(ctx, 6), dp(ctx, 14));
+            tv.setTextSize(12);
+            tv.setTextColor(ContextCompat.getColor(ctx, R.color.dark_gray));
+            tv.setGravity(Gravity.CENTER_VERTICAL);
+            LinearLayout.LayoutParams lp = new LinearLayout.LayoutParams(
+                    0, ViewGroup.LayoutParams.MATCH_PARENT, 1f);
+            lp.setMargins(dp(ctx, 1), dp(ctx, 1), dp(ctx, 1), dp(ctx, 1));
+            tv.setLayoutParams(lp);
+            tv.setBackgroundResource(R.drawable.bg_cell_empty); // thin border
+            return tv;
+        }
+
+        private static int dp(Context ctx, int px) {
+            float d = ctx.getResources().getDisplayMetrics().density;
+            return Math.round(px * d);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.votingpage;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.WeekFields;
+import java.util.Locale;
+
+/**
+ * Locale-aware agenda labels, formatted once and then served from arrays:
+ * time labels by minute of day, day headers by (day of week, day of month),
+ * and month headers in a small direct-mapped cache. After warm-up, moving
+ * between weeks formats and allocates nothing.
+ *
+ * An instance is bound to one locale, zone and 12/24h setting; build a new
+ * one when any of those change ({@link #matches}).
+ */
+final class AgendaLabels {
+
+    private static final int MONTH_SLOTS = 16; // > one year of back-and-forth navigation
+
+    private final Locale locale;
+    private final ZoneId zone;
+    private final boolean use24Hour;
+    private final int firstDayOfWeek; // ISO, 1 = Monday
+
+    private final DateTimeFormatter timeFmt;
+    private final DateTimeFormatter dayFmt;
+    private final DateTimeFormatter monthFmt;
+
+    private final String[] times = new String[AgendaTime.MINUTES_PER_DAY];
+    private final String[] days = new String[7 * 31];
+    private final int[] monthKeys = new int[MONTH_SLOTS];
+    private final String[] months = new String[MONTH_SLOTS];
+
+    AgendaLabels(Locale locale, ZoneId zone, boolean use24Hour) {
+        this.locale = locale;
+        this.zone = zone;
+        this.use24Hour = use24Hour;
+        this.firstDayOfWeek = WeekFields.of(locale).getFirstDayOfWeek().getValue();
+        timeFmt = DateTimeFormatter.ofPattern(use24Hour ? "H:mm" : "h:mm a", locale);
+        dayFmt = DateTimeFormatter.ofPattern("EEE dd", locale);
+        monthFmt = DateTimeFormatter.ofPattern("MMMM | yyyy", locale);
+    }
+
+    boolean matches(Locale locale, ZoneId zone, boolean use24Hour) {
+        return this.locale.equals(locale) && this.zone.equals(zone) && this.use24Hour == use24Hour;
+    }
+
+    /** ISO first day of week for this locale (1 = Monday .. 7 = Sunday). */
+    int firstDayOfWeek() {
+        return firstDayOfWeek;
+    }
+
+    long today() {
+        return LocalDate.now(zone).toEpochDay();
+    }
+
+    /** "6:00 AM" / "06:00" style label for a minute of the day. */
+    String time(int minuteOfDay) {
+        String s = times[minuteOfDay];
+        if (s == null) {
+            s = times[minuteOfDay] = timeFmt.format(LocalTime.of(minuteOfDay / 60, minuteOfDay % 60));
+        }
+        return s;
+    }
+
+    /** "Sun 05" style column header. */
+    String dayHeader(long epochDay) {
+        int key = (AgendaTime.dayOfWeek(epochDay) - 1) * 31 + AgendaTime.dayOfMonth(epochDay) - 1;
+        String s = days[key];
+        if (s == null) s = days[key] = dayFmt.format(LocalDate.ofEpochDay(epochDay));
+        return s;
+    }
+
+    /** "October | 2026" style header for the month containing {@code epochDay}. */
+    String monthHeader(long epochDay) {
+        int key = AgendaTime.year(epochDay) * 12 + AgendaTime.month(epochDay) - 1;
+        int slot = Math.floorMod(key, MONTH_SLOTS);
+        if (months[slot] == null || monthKeys[slot] != key) {
+            monthKeys[slot] = key;
+            months[slot] = monthFmt.format(LocalDate.ofEpochDay(epochDay));
+        }
+        return months[slot];
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.votingpage;
+
+/**
+ * Agenda time model: days are local epoch days (days since 1970-01-01 in
+ * the device's calendar), instants are local epoch minutes
+ * (epochDay * 1440 + minuteOfDay). Plain longs, so range math and lookups
+ * allocate nothing.
+ */
+public final class AgendaTime {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private AgendaTime() {
+    }
+
+    /** Proleptic Gregorian date -> epoch day; month is 1-based. */
+    public static long epochDay(int year, int month, int day) {
+        // Howard Hinnant's days_from_civil
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    public static long epochMinute(long epochDay, int minuteOfDay) {
+        return epochDay * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    public static int year(long epochDay) {
+        return civil(epochDay) >> 9;
+    }
+
+    /** 1..12 */
+    public static int month(long epochDay) {
+        return (civil(epochDay) >> 5) & 0xF;
+    }
+
+    /** 1..31 */
+    public static int dayOfMonth(long epochDay) {
+        return civil(epochDay) & 0x1F;
+    }
+
+    /** ISO day of week, 1 = Monday .. 7 = Sunday. */
+    public static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L) + 1; // 1970-01-01 was a Thursday
+    }
+
+    /** The day on or before {@code epochDay} that falls on {@code firstDayOfWeek} (ISO). */
+    public static long weekStart(long epochDay, int firstDayOfWeek) {
+        return epochDay - Math.floorMod(dayOfWeek(epochDay) - firstDayOfWeek, 7);
+    }
+
+    // Hinnant's civil_from_days, packed as year << 9 | month << 5 | day
+    private static int civil(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int d = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int m = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int y = (int) (yoe + era * 400 + (m <= 2 ? 1 : 0));
+        return (y << 9) | (m << 5) | d;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.votingpage;
+
+import java.util.Arrays;
+
+/**
+ * Static interval index over agenda events, times in local epoch minutes
+ * (epochDay * 1440 + minuteOfDay), negative before 1970. Answers "which events overlap
+ * [from, to)" without scanning every event.
+ *
+ * Intervals are sorted by start into primitive arrays; a max-end tree
+ * over that order lets a query skip whole ranges whose events all end
+ * before {@code from}, and binary search cuts off everything starting at
+ * or after {@code to}. A query visits O(log n) nodes plus the ancestors of
+ * the k hits. Rebuild (O(n log n)) when the event list changes.
+ */
+public final class EventIndex {
+
+    public static final EventIndex EMPTY = new EventIndex(new long[0], new long[0], new int[0]);
+
+    private final long[] starts;  // sorted
+    private final long[] ends;    // same order as starts
+    private final int[] ids;      // caller's index for each interval
+    private final long[] maxEnd;  // tree over sorted positions, 1-based, leaves at [size, 2 * size)
+    private final int size;
+
+    private EventIndex(long[] starts, long[] ends, int[] ids) {
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+        int s = 1;
+        while (s < starts.length) s <<= 1;
+        size = s;
+        maxEnd = new long[2 * s];
+        Arrays.fill(maxEnd, Long.MIN_VALUE);
+        for (int i = 0; i < ends.length; i++) maxEnd[s + i] = ends[i];
+        for (int node = s - 1; node >= 1; node--) {
+            maxEnd[node] = Math.max(maxEnd[2 * node], maxEnd[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Builds an index over {@code n} intervals [start[i], end[i]); query hits
+     * report {@code i}. Empty or inverted intervals are kept but never match.
+     */
+    public static EventIndex build(long[] start, long[] end, int n) {
+        if (n == 0) return EMPTY;
+        long[] keyed = new long[n];
+        for (int i = 0; i < n; i++) {
+            if (start[i] < Integer.MIN_VALUE || start[i] > Integer.MAX_VALUE) { // about 4000 years either side of 1970
+                throw new IllegalArgumentException("Start out of range: " + start[i]);
+            }
+            keyed[i] = (start[i] << 32) | i; // sort by signed start, keep the id in the low bits
+        }
+        Arrays.sort(keyed);
+        long[] s = new long[n], e = new long[n];
+        int[] ids = new int[n];
+        for (int k = 0; k < n; k++) {
+            int i = (int) keyed[k];
+            ids[k] = i;
+            s[k] = start[i];
+            e[k] = end[i];
+        }
+        return new EventIndex(s, e, ids);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Collects every interval overlapping [from, to) into {@code out},
+     * ordered by start. Returns the number of hits.
+     */
+    public int query(long from, long to, Hits out) {
+        out.size = 0;
+        if (from >= to || starts.length == 0) return 0;
+        int limit = lowerBound(to); // positions >= limit start too late
+        if (limit > 0) collect(1, 0, size, limit, from, out);
+        return out.size;
+    }
+
+    private void collect(int node, int lo, int hi, int limit, long from, Hits out) {
+        if (lo >= limit || maxEnd[node] <= from) return;
+        if (hi - lo == 1) {
+            if (ends[lo] > from && ends[lo] > starts[lo]) out.add(ids[lo]);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        collect(2 * node, lo, mid, limit, from, out);
+        collect(2 * node + 1, mid, hi, limit, from, out);
+    }
+
+    /** First sorted position whose start is >= key. */
+    private int lowerBound(long key) {
+        int lo = 0, hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Reusable, growable result buffer of caller ids. */
+    public static final class Hits {
+        private int[] ids = new int[16];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int get(int i) {
+            return ids[i];
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.votingpage;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.graphics.Typeface;
+import android.os.Debug;
+import android.os.Trace;
+import android.text.TextUtils;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Debug-build window onto {@link Metrics}. In a debuggable app, install()
+ * turns metrics on, mirrors sections into android.os.Trace (visible in
+ * Perfetto/systrace) and counts allocations per thread; a long-press on
+ * {@code toggle} shows a live summary over the activity, and tapping the
+ * summary writes Metrics.toJson() to files/metrics/. Release builds
+ * leave metrics off and install() does nothing.
+ */
+final class MetricsOverlay implements Runnable {
+
+    private static final long REFRESH_MS = 500;
+    private static boolean initialized; // main thread only
+
+    private final Activity activity;
+    private final TextView view;
+
+    private MetricsOverlay(Activity activity) {
+        this.activity = activity;
+        view = new TextView(activity);
+        view.setTypeface(Typeface.MONOSPACE);
+        view.setTextSize(10);
+        view.setTextColor(0xFFFFFFFF);
+        view.setBackgroundColor(0xCC000000);
+        int pad = Math.round(6 * activity.getResources().getDisplayMetrics().density);
+        view.setPadding(pad, pad, pad, pad);
+        view.setVisibility(View.GONE);
+        view.setOnClickListener(v -> export());
+        activity.addContentView(view, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.WRAP_CONTENT, Gravity.TOP));
+    }
+
+    static void install(Activity activity, View toggle) {
+        if ((activity.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) return;
+        init();
+        MetricsOverlay overlay = new MetricsOverlay(activity);
+        toggle.setOnLongClickListener(v -> {
+            overlay.toggle();
+            return true;
+        });
+    }
+
+    @SuppressWarnings("deprecation") // still the only per-thread allocation count on device
+    private static void init() {
+        if (initialized) return;
+        initialized = true;
+        Metrics.setTracer(new Metrics.Tracer() {
+            @Override
+            public void begin(String name) {
+                Trace.beginSection(name);
+            }
+
+            @Override
+            public void end() {
+                Trace.endSection();
+            }
+        });
+        Debug.startAllocCounting();
+        Metrics.setAllocationCounter(Debug::getThreadAllocCount);
+        Metrics.setEnabled(true);
+    }
+
+    private void toggle() {
+        boolean show = view.getVisibility() != View.VISIBLE;
+        view.setVisibility(show ? View.VISIBLE : View.GONE);
+        view.removeCallbacks(this);
+        if (show) run();
+    }
+
+    /** Refreshes the summary while it is shown. */
+    @Override
+    public void run() {
+        if (view.getVisibility() != View.VISIBLE) return;
+        view.setText(TextUtils.join("\n", Metrics.summaryLines()));
+        view.postDelayed(this, REFRESH_MS);
+    }
+
+    private void export() {
+        String json = Metrics.toJson();
+        Context app = activity.getApplicationContext();
+        new Thread(() -> {
+            File dir = new File(app.getFilesDir(), "metrics");
+            File f = new File(dir, "metrics-" + System.currentTimeMillis() + ".json");
+            String msg;
+            try {
+                if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+                try (Writer w = new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8)) {
+                    w.write(json);
+                }
+                msg = "Metrics saved to " + f.getPath();
+            } catch (IOException e) {
+                msg = "Could not save metrics";
+            }
+            String text = msg;
+            view.post(() -> Toast.makeText(app, text, Toast.LENGTH_LONG).show());
+        }, "MetricsExport").start();
+    }
+}
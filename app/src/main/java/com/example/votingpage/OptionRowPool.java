@@ -0,0 +1,63 @@
+package com.example.votingpage;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayDeque;
+
+/**
+ * Option chip rows (view_option_chip) shared by every open card of one
+ * PollAdapter. A card keeps its rows between binds and only trades the
+ * difference with the pool, so rebinding after warm-up inflates nothing.
+ * Closed cards draw their rows in a single {@link PollResultsView}.
+ */
+final class OptionRowPool {
+
+    private static final int MAX_IDLE = 64;
+
+    private final Context ctx;
+    private final ArrayDeque<View> idleChips = new ArrayDeque<>();
+    private ViewWarmPool warmPool; // chips inflated ahead of the first bind; may be null
+    private static String[] optionNumbers = new String[0]; // main thread only
+
+    OptionRowPool(Context ctx) {
+        this.ctx = ctx;
+    }
+
+    void setWarmPool(ViewWarmPool pool) {
+        this.warmPool = pool;
+    }
+
+    /** Makes {@code container} hold exactly {@code n} chip rows. */
+    void fitChips(ViewGroup container, int n, View.OnClickListener onClick) {
+        while (container.getChildCount() > n) release(container);
+        while (container.getChildCount() < n) {
+            View row = idleChips.poll();
+            if (row == null && warmPool != null) row = warmPool.take(R.layout.view_option_chip);
+            if (row == null) row = LayoutInflater.from(ctx).inflate(R.layout.view_option_chip, container, false);
+            row.setOnClickListener(onClick); // idle rows may come from another card
+            container.addView(row);
+        }
+    }
+
+    /** "Option #n" for 1-based n, built once per number. */
+    static String optionNumber(int index) {
+        if (index >= optionNumbers.length) {
+            String[] grown = new String[Math.max(index + 1, optionNumbers.length * 2)];
+            System.arraycopy(optionNumbers, 0, grown, 0, optionNumbers.length);
+            optionNumbers = grown;
+        }
+        String s = optionNumbers[index];
+        if (s == null) s = optionNumbers[index] = "Option #" + (index + 1);
+        return s;
+    }
+
+    private void release(ViewGroup container) {
+        int last = container.getChildCount() - 1;
+        View row = container.getChildAt(last);
+        container.removeViewAt(last);
+        if (idleChips.size() < MAX_IDLE) idleChips.push(row);
+    }
+}
@@ -1,7 +1,8 @@
 package com.example.votingpage;
 
 import android.content.Context;
-import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -9,72 +10,380 @@ import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.ImageButton;
 import android.widget.LinearLayout;
-import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * RecyclerView adapter with two view types:
  *  - Open poll (select option -> details panel -> Vote button)
  *  - Closed poll (result bars + winner + total)
+ *
+ * Rows are immutable {@link PollCard}s. After any model change call
+ * {@link #refresh()}: it snapshots the poll list and AsyncListDiffer works
+ * out the minimal updates on a background thread. A vote or a new
+ * selection is sent as a payload, so only the affected bars/chips change.
+ *
+ * Live polls come first; rows of an optional {@link PollArchive} follow. An
+ * {@link ArchivePager} decodes them a page at a time ahead of the scroll;
+ * a row it hasn't loaded yet is read from the mapped file through a
+ * per-holder flyweight.
+ *
+ * {@link #setFilter} narrows the live rows to a search result by skipping
+ * non-matches while snapshotting; the archive is hidden while filtering.
+ *
+ * Open cards show running results read straight from their Poll, so their
+ * cards are not re-snapshotted for votes. {@link #applyVotes} updates the
+ * open cards on screen in place, at most once per frame; only closed polls
+ * go through the differ.
+ *
+ * Votes and deletes are journaled on the store's executor, never on the
+ * main thread; a vote shows once its record is written.
  */
 public class PollAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
     private static final int TYPE_OPEN = 0;
     private static final int TYPE_CLOSED = 1;
+    private static final int SUMMARY_CACHE_SIZE = 512; // a few screens of closed cards plus scrollback
+
+    private static final Metrics.Section BIND = Metrics.section("poll.bind");
+    private static final Metrics.Section BIND_PAYLOAD = Metrics.section("poll.bindPayload");
+    private static final Metrics.Section VOTE = Metrics.section("poll.vote");
+    private static final Metrics.Section LIVE = Metrics.section("poll.liveResults");
+    private static final Metrics.Counter VOTES = Metrics.counter("poll.votes");
+
+    private static final DiffUtil.ItemCallback<PollCard> DIFF = new DiffUtil.ItemCallback<PollCard>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PollCard a, @NonNull PollCard b) {
+            return a.id == b.id;
+        }
 
-    private final Context ctx;
-    private final List<Poll> data;
-    private final Runnable onChanged; // callback to request list refresh if needed
+        @Override
+        public boolean areContentsTheSame(@NonNull PollCard a, @NonNull PollCard b) {
+            return a.sameText(b) && a.sameResults(b) && a.selectedIndex == b.selectedIndex;
+        }
 
-    public PollAdapter(Context ctx, List<Poll> polls, Runnable onChanged) {
+        @Override
+        public Object getChangePayload(@NonNull PollCard a, @NonNull PollCard b) {
+            return a.changeFrom(b);
+        }
+    };
+
+    private final Context ctx;
+    private final List<Poll> data;    // mutable model, owned by the activity
+    private final PollStore store;    // journals votes/deletes; null = in-memory only
+    private final Executor storeIo;   // runs every store write, in order
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final AsyncListDiffer<PollCard> differ =
+            new AsyncListDiffer<>(new AdapterListUpdateCallback(this),
+                    new AsyncDifferConfig.Builder<>(DIFF).build());
+    private List<PollCard> submitted = new ArrayList<>(); // newest list handed to the differ
+    private PollArchive archive;      // read-only closed polls shown after the live ones
+    private ArchivePager pager;       // bounded read-ahead over the archive
+    private PollArchive.Row archivedIdRow; // flyweight for getItemId on archived rows
+    private final OptionRowPool rowPool;   // chip rows shared by all open holders
+    private ViewWarmPool warmPool;         // cards inflated ahead of the first layout; may be null
+    private final ResultSummaryCache summaries = new ResultSummaryCache(SUMMARY_CACHE_SIZE);
+    private PollSearchIndex searchIndex;   // kept in step with deletes; may be null
+    private Executor indexer;              // runs index updates behind the initial build
+    private PollSearchIndex.Result filter; // null = show everything
+    private final List<OpenVH> attachedOpen = new ArrayList<>(); // open cards on screen
+    private final Set<Poll> closedChanged = new HashSet<>();     // applyVotes scratch
+    private final RunoffWinners winners = new RunoffWinners(p -> refresh(Collections.singleton(p)));
+
+    public PollAdapter(Context ctx, List<Poll> polls, PollStore store, Executor storeIo) {
         this.ctx = ctx;
         this.data = polls;
-        this.onChanged = onChanged;
+        this.store = store;
+        this.storeIo = storeIo;
+        this.rowPool = new OptionRowPool(ctx);
+        setHasStableIds(true);
+        refresh();
+    }
+
+    /** Re-snapshots the model and dispatches the diff; main thread only. */
+    public void refresh() {
+        List<PollCard> cards = new ArrayList<>(data.size());
+        for (Poll p : data) {
+            if (filter == null || filter.contains(p)) cards.add(PollCard.of(p, winners));
+        }
+        submit(cards);
+    }
+
+    /**
+     * Like {@link #refresh()}, but only re-snapshots {@code changed}; other
+     * rows keep their last card, so the diff skips them cheaply. Used for
+     * votes on closed polls, where the poll list itself does not change.
+     */
+    public void refresh(Set<Poll> changed) {
+        List<PollCard> cards = new ArrayList<>(data.size());
+        for (Poll p : data) {
+            if (filter != null && !filter.contains(p)) continue;
+            int i = cards.size();
+            PollCard last = i < submitted.size() ? submitted.get(i) : null;
+            cards.add(last != null && last.source == p && !changed.contains(p) ? last : PollCard.of(p, winners));
+        }
+        submit(cards);
+    }
+
+    /**
+     * Votes landed on {@code changed}; called once per frame by
+     * VoteFrameBatcher. Open cards on screen animate their results to the
+     * new counts without a diff or rebind; closed polls are rediffed.
+     * Main thread only.
+     */
+    void applyVotes(Set<Poll> changed) {
+        long t = LIVE.begin();
+        try {
+            for (int i = 0; i < attachedOpen.size(); i++) {
+                OpenVH h = attachedOpen.get(i);
+                if (h.card != null && changed.contains(h.card.source)) h.showResults(true);
+            }
+            for (Poll p : changed) if (p.closed) closedChanged.add(p);
+            if (!closedChanged.isEmpty()) refresh(closedChanged);
+            closedChanged.clear();
+        } finally {
+            LIVE.end(t);
+        }
+    }
+
+    private void submit(List<PollCard> cards) {
+        submitted = cards;
+        differ.submitList(cards);
+    }
+
+    public void setArchive(ArchivePager pager) {
+        int live = liveCount();
+        if (archiveCount() > 0) notifyItemRangeRemoved(live, archiveCount());
+        this.pager = pager;
+        this.archive = pager == null ? null : pager.archive();
+        if (archiveCount() > 0) notifyItemRangeInserted(live, archiveCount());
+    }
+
+    /** Takes cards and chip rows from {@code pool} before inflating them here. */
+    void setWarmPool(ViewWarmPool pool) {
+        this.warmPool = pool;
+        rowPool.setWarmPool(pool);
+    }
+
+    /**
+     * Deletes are removed from {@code index} on {@code indexer}, the
+     * executor building it, so a build still in flight cannot re-add them.
+     */
+    public void setSearchIndex(PollSearchIndex index, Executor indexer) {
+        this.searchIndex = index;
+        this.indexer = indexer;
+    }
+
+    /** Shows only live polls in {@code result}; null shows everything again. Main thread only. */
+    public void setFilter(PollSearchIndex.Result result) {
+        boolean archiveToggled = archive != null && (filter == null) != (result == null);
+        filter = result;
+        if (archiveToggled) {
+            if (result == null) notifyItemRangeInserted(liveCount(), archive.size());
+            else notifyItemRangeRemoved(liveCount(), archive.size());
+        }
+        refresh();
+    }
+
+    /** Closed-card summaries; exposes hit/miss counters and is trimmed by the activity. */
+    ResultSummaryCache summaryCache() {
+        return summaries;
+    }
+
+    /** The poll on row {@code position}, or null past the live polls (archived rows). */
+    @Nullable
+    Poll pollAt(int position) {
+        return position < liveCount() ? differ.getCurrentList().get(position).source : null;
+    }
+
+    private int liveCount() {
+        return differ.getCurrentList().size();
+    }
+
+    private int archiveCount() {
+        return archive == null || filter != null ? 0 : archive.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        int live = liveCount();
+        if (position < live) return differ.getCurrentList().get(position).id;
+        if (archivedIdRow == null) archivedIdRow = archive.newRow();
+        return archivedIdRow.moveTo(position - live).id();
     }
 
     @Override
     public int getItemViewType(int position) {
-        return data.get(position).closed ? TYPE_CLOSED : TYPE_OPEN;
+        if (position >= liveCount()) return TYPE_CLOSED; // archived
+        return differ.getCurrentList().get(position).closed ? TYPE_CLOSED : TYPE_OPEN;
     }
 
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        LayoutInflater inf = LayoutInflater.from(parent.getContext());
-        if (viewType == TYPE_OPEN) {
-            View v = inf.inflate(R.layout.item_poll, parent, false);
-            return new OpenVH(v);
-        } else {
-            View v = inf.inflate(R.layout.item_poll_closed, parent, false);
-            return new ClosedVH(v);
-        }
+        int layout = viewType == TYPE_OPEN ? R.layout.item_poll : R.layout.item_poll_closed;
+        View v = warmPool == null ? null : warmPool.take(layout);
+        if (v == null) v = LayoutInflater.from(parent.getContext()).inflate(layout, parent, false);
+        return viewType == TYPE_OPEN ? new OpenVH(v) : new ClosedVH(v);
     }
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        Poll p = data.get(position);
-        if (holder instanceof OpenVH) ((OpenVH) holder).bind(p, position);
-        else ((ClosedVH) holder).bind(p, position);
+        long t = BIND.begin();
+        try {
+            bind(holder, position);
+        } finally {
+            BIND.end(t);
+        }
+    }
+
+    private void bind(RecyclerView.ViewHolder holder, int position) {
+        int live = liveCount();
+        if (position >= live) {
+            ((ClosedVH) holder).bindArchived(position - live);
+            return;
+        }
+        PollCard card = differ.getCurrentList().get(position);
+        if (holder instanceof OpenVH) ((OpenVH) holder).bind(card);
+        else ((ClosedVH) holder).bind(card);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty() || position >= liveCount()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        long t = BIND_PAYLOAD.begin();
+        try {
+            bindPayloads(holder, position, payloads);
+        } finally {
+            BIND_PAYLOAD.end(t);
+        }
+    }
+
+    private void bindPayloads(RecyclerView.ViewHolder holder, int position, List<Object> payloads) {
+        PollCard card = differ.getCurrentList().get(position);
+        boolean handled = true;
+        for (Object payload : payloads) {
+            if (holder instanceof ClosedVH) {
+                if (payload == PollCard.PAYLOAD_RESULTS) ((ClosedVH) holder).updateResults(card);
+                else handled = false;
+            } else if (payload == PollCard.PAYLOAD_SELECTION) {
+                ((OpenVH) holder).updateSelection(card);
+            }
+            // Open cards never get PAYLOAD_RESULTS; applyVotes keeps their results live
+        }
+        if (!handled) bind(holder, position);
+    }
+
+    @Override
+    public void onViewAttachedToWindow(@NonNull RecyclerView.ViewHolder holder) {
+        if (!(holder instanceof OpenVH)) return;
+        OpenVH h = (OpenVH) holder;
+        attachedOpen.add(h);
+        if (h.card != null) h.showResults(true); // votes may have landed since a prefetch bind
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(@NonNull RecyclerView.ViewHolder holder) {
+        if (holder instanceof OpenVH) attachedOpen.remove(holder);
     }
 
     @Override
     public int getItemCount() {
-        return data.size();
+        return liveCount() + archiveCount();
+    }
+
+    private void vote(Poll poll) {
+        long t = VOTE.begin();
+        try {
+            castVote(poll);
+        } finally {
+            VOTE.end(t);
+        }
+    }
+
+    private void castVote(Poll poll) {
+        if (poll.selectedIndex == Poll.NO_SELECTION) {
+            Toast.makeText(ctx, "Select an option first", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        int choice = poll.selectedIndex;
+        poll.selectedIndex = Poll.NO_SELECTION;
+        VOTES.increment();
+        if (store == null) {
+            poll.vote(choice);
+            poll.closed = true;         // close after vote (sample behavior)
+            refresh();
+            return;
+        }
+        storeIo.execute(() -> {
+            boolean saved = true;
+            try {
+                store.vote(poll, choice);
+                store.setClosed(poll, true);
+            } catch (IOException e) {
+                saved = false;
+            }
+            boolean ok = saved;
+            main.post(() -> {
+                if (!ok) Toast.makeText(ctx, "Could not save vote", Toast.LENGTH_SHORT).show();
+                refresh();
+            });
+        });
+    }
+
+    private void remove(Poll poll) {
+        data.remove(poll);
+        if (searchIndex != null) {
+            PollSearchIndex index = searchIndex;
+            indexer.execute(() -> index.remove(poll));
+        }
+        if (store != null) {
+            storeIo.execute(() -> {
+                try {
+                    store.delete(poll);
+                } catch (IOException e) {
+                    main.post(() -> Toast.makeText(ctx, "Could not save delete", Toast.LENGTH_SHORT).show());
+                }
+            });
+        }
+        refresh();
     }
 
     // ---------------- OPEN POLL ----------------
     class OpenVH extends RecyclerView.ViewHolder {
         TextView tvTitle, tvDesc, tvLink, tvSelected;
         LinearLayout optionsContainer, detailsPanel;
+        PollResultsView liveResults; // running results; hidden until the first vote
         ImageButton btnDelete;
         Button btnVote;
+        PollCard card; // what this holder currently shows
+
+        // One listener for all chip rows; the row's index in the container is the option
+        private final View.OnClickListener onChip = row -> {
+            if (card == null) return;
+            card.source.selectedIndex = optionsContainer.indexOfChild(row);
+            refresh();
+        };
 
         OpenVH(@NonNull View v) {
             super(v);
@@ -84,150 +393,135 @@ public class PollAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
             optionsContainer = v.findViewById(R.id.containerOptions);
             detailsPanel = v.findViewById(R.id.panelDetails);
             tvSelected = v.findViewById(R.id.tvSelected);
+            liveResults = v.findViewById(R.id.resultsLive);
             btnVote = v.findViewById(R.id.btnVote);
             btnDelete = v.findViewById(R.id.btnDelete);
+
+            btnVote.setOnClickListener(view -> {
+                if (card != null) vote(card.source);
+            });
+            btnDelete.setOnClickListener(view -> {
+                if (card != null) remove(card.source);
+            });
         }
 
-        void bind(Poll poll, int pos) {
-            tvTitle.setText(poll.question);
+        void bind(PollCard card) {
+            this.card = card;
+            tvTitle.setText(card.question);
 
-            if (TextUtils.isEmpty(poll.description)) {
+            if (TextUtils.isEmpty(card.description)) {
                 tvDesc.setVisibility(View.GONE);
             } else {
                 tvDesc.setVisibility(View.VISIBLE);
-                tvDesc.setText(poll.description);
+                tvDesc.setText(card.description);
             }
 
-            if (TextUtils.isEmpty(poll.link)) {
+            if (TextUtils.isEmpty(card.link)) {
                 tvLink.setVisibility(View.GONE);
             } else {
                 tvLink.setVisibility(View.VISIBLE);
-                tvLink.setText(poll.link); // autoLink is set in XML
+                tvLink.setText(card.link); // autoLink is set in XML
             }
 
-            // Build option chips
-            optionsContainer.removeAllViews();
-            LayoutInflater inf = LayoutInflater.from(optionsContainer.getContext());
-            for (int i = 0; i < poll.options.size(); i++) {
-                final int idx = i;
-                PollOption opt = poll.options.get(i);
-
-                View row = inf.inflate(R.layout.view_option_chip, optionsContainer, false);
+            // Option chips: reuse this card's rows, trade the difference with the pool
+            rowPool.fitChips(optionsContainer, card.optionCount(), onChip);
+            for (int i = 0; i < card.optionCount(); i++) {
+                View row = optionsContainer.getChildAt(i);
                 TextView tvLabel = row.findViewById(R.id.tvLabel);
                 TextView tvChip = row.findViewById(R.id.tvChip);
 
-                tvLabel.setText("Option #" + (i + 1));
-                tvChip.setText(opt.label);
-                tvChip.setBackgroundResource(
-                        (poll.selectedIndex != null && poll.selectedIndex == idx)
-                                ? R.drawable.bg_chip_active
-                                : R.drawable.bg_chip
-                );
+                tvLabel.setText(OptionRowPool.optionNumber(i));
+                tvChip.setText(card.optionLabel(i));
+            }
+            updateSelection(card);
+            showResults(false);
+        }
 
-                row.setOnClickListener(v -> {
-                    poll.selectedIndex = idx;
-                    notifyItemChanged(getBindingAdapterPosition());
-                });
+        /**
+         * Running results of the poll itself, not of the card snapshot;
+         * {@code animate} eases from what is shown. Ranked polls get no
+         * leader: first preferences don't decide the runoff.
+         */
+        void showResults(boolean animate) {
+            Poll p = card.source;
+            boolean leader = !(p.method() instanceof RankedChoiceVoting);
+            int total = animate ? liveResults.updateLive(p, leader) : liveResults.bindLive(p, leader);
+            liveResults.setVisibility(total > 0 ? View.VISIBLE : View.GONE);
+        }
 
-                optionsContainer.addView(row);
+        /** Chip highlight + details panel; the chips themselves are reused. */
+        void updateSelection(PollCard card) {
+            this.card = card;
+            for (int i = 0; i < optionsContainer.getChildCount(); i++) {
+                TextView tvChip = optionsContainer.getChildAt(i).findViewById(R.id.tvChip);
+                tvChip.setBackgroundResource(card.selectedIndex == i
+                        ? R.drawable.bg_chip_active
+                        : R.drawable.bg_chip);
             }
 
             // Details + Vote panel
-            if (poll.selectedIndex != null) {
-                tvSelected.setText("Selected: " + poll.options.get(poll.selectedIndex).label);
+            if (card.selectedIndex >= 0) {
+                tvSelected.setText("Selected: " + card.optionLabel(card.selectedIndex));
                 detailsPanel.setVisibility(View.VISIBLE);
             } else {
                 detailsPanel.setVisibility(View.GONE);
             }
-
-            btnVote.setOnClickListener(v -> {
-                if (poll.selectedIndex == null) {
-                    Toast.makeText(ctx, "Select an option first", Toast.LENGTH_SHORT).show();
-                    return;
-                }
-                poll.options.get(poll.selectedIndex).votes += 1;
-                poll.closed = true;             // close after vote (sample behavior)
-                poll.selectedIndex = null;
-                notifyItemChanged(pos);
-                if (onChanged != null) onChanged.run();
-            });
-
-            btnDelete.setOnClickListener(v -> {
-                int adapterPos = getBindingAdapterPosition();
-                if (adapterPos != RecyclerView.NO_POSITION) {
-                    data.remove(adapterPos);
-                    notifyItemRemoved(adapterPos);
-                    if (onChanged != null) onChanged.run();
-                }
-            });
         }
     }
 
     // ---------------- CLOSED POLL ----------------
     class ClosedVH extends RecyclerView.ViewHolder {
         TextView tvTitle, tvFinal, tvTotal;
-        LinearLayout resultsContainer;
+        PollResultsView resultsView;  // all option rows, drawn in one view
         ImageButton btnDelete;
+        PollArchive.Row archiveRow; // flyweight for rows the pager hasn't loaded yet
+        PollCard card;              // null while showing an archived row
 
         ClosedVH(@NonNull View v) {
             super(v);
             tvTitle = v.findViewById(R.id.tvTitle);
             tvFinal = v.findViewById(R.id.tvFinalVote);
             tvTotal = v.findViewById(R.id.tvTotalVotes);
-            resultsContainer = v.findViewById(R.id.containerResults);
+            resultsView = v.findViewById(R.id.resultsView);
             btnDelete = v.findViewById(R.id.btnDelete);
-        }
 
-        void bind(Poll poll, int pos) {
-            tvTitle.setText(poll.question);
-
-            resultsContainer.removeAllViews();
-            int total = Math.max(1, poll.totalVotes());
-            int win = poll.winningIndex();
-
-            for (int i = 0; i < poll.options.size(); i++) {
-                PollOption opt = poll.options.get(i);
-
-                // Row container
-                LinearLayout wrap = new LinearLayout(ctx);
-                wrap.setOrientation(LinearLayout.VERTICAL);
-                wrap.setPadding(0, dp(6), 0, dp(6));
-
-                // Label
-                TextView label = new TextView(ctx);
-                int pct = (int) Math.round(100.0 * opt.votes / total);
-                label.setText("Option #" + (i + 1) + ": " + opt.label + "  (" + pct + "%)");
-                label.setTextColor(i == win
-                        ? Color.parseColor("#FF7A1A")
-                        : Color.parseColor("#6B7280"));
-
-                // Progress bar
-                ProgressBar bar = new ProgressBar(ctx, null, android.R.attr.progressBarStyleHorizontal);
-                bar.setMax(100);
-                bar.setProgress(pct);
-                bar.setProgressDrawable(ContextCompat.getDrawable(ctx, R.drawable.progress_orange));
+            btnDelete.setOnClickListener(view -> {
+                if (card != null) remove(card.source);
+            });
+        }
 
-                wrap.addView(label);
-                wrap.addView(bar);
-                resultsContainer.addView(wrap);
+        void bindArchived(int row) {
+            card = null;
+            PollResults loaded = pager.get(row);
+            if (loaded != null) {
+                bind(loaded);
+                return;
             }
+            if (archiveRow == null) archiveRow = archive.newRow();
+            bind(archiveRow.moveTo(row));
+        }
+
+        void bind(PollCard card) {
+            this.card = card;
+            bind((PollResults) card);
+        }
 
-            tvFinal.setText("Final Vote: " + poll.options.get(win).label);
-            tvTotal.setText(poll.totalVotes() + " Votes");
+        private void bind(PollResults poll) {
+            tvTitle.setText(poll.title());
+            updateResults(poll);
 
-            btnDelete.setOnClickListener(v -> {
-                int adapterPos = getBindingAdapterPosition();
-                if (adapterPos != RecyclerView.NO_POSITION) {
-                    data.remove(adapterPos);
-                    notifyItemRemoved(adapterPos);
-                    if (onChanged != null) onChanged.run();
-                }
-            });
+            // Archived polls are read-only
+            btnDelete.setVisibility(card != null ? View.VISIBLE : View.GONE);
         }
 
-        private int dp(int px) {
-            float d = ctx.getResources().getDisplayMetrics().density;
-            return Math.round(px * d);
+        /** Rewrites percentages, bars, winner and total without touching the hierarchy. */
+        void updateResults(PollResults poll) {
+            if (poll instanceof PollCard) card = (PollCard) poll;
+            long version = poll instanceof PollCard ? ((PollCard) poll).version : ResultSummary.IMMUTABLE;
+            ResultSummary summary = summaries.get(poll, version);
+            resultsView.setResults(summary);
+            tvFinal.setText(summary.finalVote);
+            tvTotal.setText(summary.totalVotes);
         }
     }
 }
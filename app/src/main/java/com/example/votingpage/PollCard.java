@@ -0,0 +1,130 @@
+package com.example.votingpage;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable picture of a {@link Poll} as one list row, taken on the main
+ * thread so PollAdapter can diff old and new lists on a background thread.
+ * {@link #source} is kept only as the target for click actions.
+ */
+public final class PollCard implements PollResults {
+
+    /** Only vote counts changed: refresh bars, percentages and totals. */
+    static final Object PAYLOAD_RESULTS = new Object();
+    /** Only the open poll's selected option changed. */
+    static final Object PAYLOAD_SELECTION = new Object();
+
+    public final Poll source;
+    public final long id;
+    public final String question, description, link;
+    public final boolean closed;
+    public final int selectedIndex;   // -1 = nothing selected
+    public final long version;        // fingerprint of the results, never ResultSummary.IMMUTABLE
+    private final String[] labels;
+    private final int[] counts;
+    private final int total, winner;
+
+    private PollCard(Poll p, RunoffWinners winners) {
+        source = p;
+        id = p.id;
+        question = p.question;
+        description = p.description;
+        link = p.link;
+        closed = p.closed;
+        selectedIndex = p.selectedIndex;
+        labels = new String[p.optionCount()];
+        for (int i = 0; i < labels.length; i++) labels[i] = p.optionLabel(i);
+        VoteTally.Snapshot snap = p.tally.snapshot();
+        counts = snap.counts;
+        total = snap.total;
+        VotingMethod m = p.method();
+        // Ranked: the runoff decides, counted off the main thread; every ballot is one first preference
+        winner = m instanceof RankedChoiceVoting && winners != null
+                ? winners.winner(p, (RankedChoiceVoting) m, snap.total, snap.winner)
+                : snap.winner;
+        version = fingerprint(counts, winner);
+    }
+
+    /** 64-bit mix of the counts and winner; equal results give equal versions. Labels never change after creation. */
+    private static long fingerprint(int[] counts, int winner) {
+        long h = counts.length ^ (long) winner << 32;
+        for (int c : counts) {
+            h = (h ^ c) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 32;
+        }
+        return h == ResultSummary.IMMUTABLE ? 1 : h;
+    }
+
+    /** Ranked polls show their first-preference leader; see {@link #of(Poll, RunoffWinners)}. */
+    public static PollCard of(Poll p) {
+        return new PollCard(p, null);
+    }
+
+    /** Ranked polls show the runoff winner from {@code winners}, once it has been counted. */
+    static PollCard of(Poll p, RunoffWinners winners) {
+        return new PollCard(p, winners);
+    }
+
+    @Override
+    public long id() {
+        return id;
+    }
+
+    @Override
+    public String title() {
+        return question;
+    }
+
+    @Override
+    public int optionCount() {
+        return labels.length;
+    }
+
+    @Override
+    public String optionLabel(int index) {
+        return labels[index];
+    }
+
+    @Override
+    public int votesFor(int index) {
+        return counts[index];
+    }
+
+    @Override
+    public int totalVotes() {
+        return total;
+    }
+
+    @Override
+    public int winningIndex() {
+        return winner;
+    }
+
+    boolean sameText(PollCard o) {
+        return closed == o.closed
+                && Objects.equals(question, o.question)
+                && Objects.equals(description, o.description)
+                && Objects.equals(link, o.link)
+                && Arrays.equals(labels, o.labels);
+    }
+
+    /** Open cards show their Poll's live results (PollAdapter#applyVotes), so only closed ones compare counts. */
+    boolean sameResults(PollCard o) {
+        return !closed || (winner == o.winner && Arrays.equals(counts, o.counts));
+    }
+
+    /**
+     * Payload describing how {@code newer} differs from this card, or null
+     * when the whole row has to be rebound.
+     */
+    Object changeFrom(PollCard newer) {
+        if (!sameText(newer)) return null;
+        boolean results = !sameResults(newer);
+        boolean selection = selectedIndex != newer.selectedIndex;
+        if (results && selection) return null;
+        if (results) return PAYLOAD_RESULTS;
+        if (selection) return PAYLOAD_SELECTION;
+        return null;
+    }
+}
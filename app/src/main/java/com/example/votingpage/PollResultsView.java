@@ -0,0 +1,296 @@
+package com.example.votingpage;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+import android.view.animation.AnimationUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import java.util.Arrays;
+
+/**
+ * Draws every result row of a closed poll (label + percentage + bar, winner
+ * in accent color) in one view, replacing a LinearLayout/TextView/ProgressBar
+ * per option. Percentages and row texts come precomputed in a
+ * {@link ResultSummary}; label StaticLayouts are cached and only rebuilt
+ * when their text or the view width changes. All rows share one paint
+ * whose color is set per row as it is drawn, so a new winner or leader
+ * rebuilds nothing.
+ *
+ * Open polls use it in live mode ({@link #bindLive}/{@link #updateLive}):
+ * labels carry no percentage, which is drawn beside them from a fixed
+ * table instead, so a vote rebuilds no text; a bind builds a label string
+ * only when the poll's label object changed. Bars and percentages ease to
+ * new counts over {@link #ANIMATION_MS}, one step per Choreographer frame
+ * through postInvalidateOnAnimation; rows whose count did not move stay put.
+ */
+public class PollResultsView extends View {
+
+    static final long ANIMATION_MS = 250;
+    private static final String[] PERCENT_TEXT = new String[101]; // "0%" .. "100%"
+
+    static {
+        for (int i = 0; i < PERCENT_TEXT.length; i++) PERCENT_TEXT[i] = i + "%";
+    }
+
+    private final TextPaint labelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG); // layouts read its color at draw time
+    private final Paint percentPaint = new Paint(Paint.ANTI_ALIAS_FLAG); // right-aligned; StaticLayout needs LEFT
+    private final int winnerColor, otherColor;
+    private final Paint trackPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint barPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF rect = new RectF();
+
+    private final float rowPadding, labelGap, barHeight, barRadius;
+    private final float percentColumn; // live mode: room right of the labels for "100%"
+
+    private int count;
+    private int winner = -1;
+    private String[] texts = new String[0];
+    private String[] sources = new String[0]; // live mode: the option label each text was built from
+    private int[] percents = new int[0];
+    private StaticLayout[] layouts = new StaticLayout[0];
+    private int layoutWidth = -1;
+
+    // Live mode: each row eases from `from` to `to` (fractions of the votes) since animStart
+    private boolean live;
+    private float[] from = new float[0], to = new float[0];
+    private int[] votes = new int[0]; // scratch for one read of the counts
+    private long animStart;
+
+    public PollResultsView(Context context) {
+        this(context, null);
+    }
+
+    public PollResultsView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float dp = getResources().getDisplayMetrics().density;
+        rowPadding = 6 * dp;
+        labelGap = 4 * dp;
+        barHeight = 8 * dp;
+        barRadius = 10 * dp;
+
+        float textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14,
+                getResources().getDisplayMetrics());
+        winnerColor = ContextCompat.getColor(context, R.color.accent);
+        otherColor = ContextCompat.getColor(context, R.color.gray_text);
+        labelPaint.setTextSize(textSize);
+        trackPaint.setColor(0xFFEEEEEE); // matches progress_orange background
+        barPaint.setColor(winnerColor);
+        percentPaint.set(labelPaint);
+        percentPaint.setTextAlign(Paint.Align.RIGHT);
+        percentColumn = percentPaint.measureText(PERCENT_TEXT[100]) + labelGap;
+    }
+
+    /**
+     * Shows {@code summary}. Only rows whose text changed lose their cached
+     * layout; if nothing that affects height changed, the view is just
+     * redrawn.
+     */
+    void setResults(ResultSummary summary) {
+        int n = summary.optionCount();
+        boolean relayout = n != count || live;
+        if (live) {
+            live = false;
+            Arrays.fill(layouts, null); // the labels get their full width back
+        }
+        grow(n);
+
+        int win = summary.winner;
+        for (int i = 0; i < n; i++) {
+            int pct = summary.percent(i);
+            String text = summary.rowText(i); // cached summaries hand back the same String
+            sources[i] = null;
+            if (text != texts[i] && !text.equals(texts[i])) {
+                texts[i] = text;
+                StaticLayout old = layouts[i];
+                layouts[i] = layoutWidth > 0 ? buildLayout(i, layoutWidth) : null;
+                // A new percentage rarely changes the line count; only then re-measure
+                if (old == null || layouts[i] == null || old.getHeight() != layouts[i].getHeight()) {
+                    relayout = true;
+                }
+            }
+            percents[i] = pct;
+        }
+        count = n;
+        winner = win;
+
+        if (relayout) requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Live mode: shows {@code p}'s labels and current counts without
+     * animating, as on a bind. {@code leader} highlights the option with
+     * the most votes. Returns the vote total.
+     */
+    int bindLive(PollResults p, boolean leader) {
+        int n = p.optionCount();
+        boolean relayout = n != count || !live;
+        if (!live) {
+            live = true;
+            Arrays.fill(layouts, null); // narrower, to leave room for the percentages
+        }
+        grow(n);
+        for (int i = 0; i < n; i++) {
+            String label = p.optionLabel(i);
+            if (label == sources[i]) continue; // same label object, same text
+            sources[i] = label;
+            String text = OptionRowPool.optionNumber(i) + ": " + label;
+            if (!text.equals(texts[i])) {
+                texts[i] = text;
+                layouts[i] = null;
+                relayout = true;
+            }
+        }
+        count = n;
+        int total = readVotes(p, leader, 0);
+        if (relayout) requestLayout();
+        invalidate();
+        return total;
+    }
+
+    /**
+     * Live mode: eases the bars and percentages from where they are to
+     * {@code p}'s current counts. Labels stay; nothing is re-measured.
+     * Returns the vote total.
+     */
+    int updateLive(PollResults p, boolean leader) {
+        if (!live || p.optionCount() != count) return bindLive(p, leader);
+        return readVotes(p, leader, AnimationUtils.currentAnimationTimeMillis());
+    }
+
+    /** Reads the counts once and retargets the rows; {@code now} 0 jumps there. Invalidates only on a change. */
+    private int readVotes(PollResults p, boolean leader, long now) {
+        int total = 0, top = -1;
+        for (int i = 0; i < count; i++) {
+            int v = votes[i] = p.votesFor(i); // summed here, so the shares add up even mid-burst
+            total += v;
+            if (v > 0 && (top < 0 || v > votes[top])) top = i;
+        }
+        int win = leader ? top : -1;
+        boolean changed = now == 0 || win != winner;
+        for (int i = 0; i < count && !changed; i++) changed = share(i, total) != to[i];
+        if (!changed) return total;
+
+        for (int i = 0; i < count; i++) {
+            from[i] = now == 0 ? share(i, total) : shown(i, now); // in-flight rows carry on from where they are
+            to[i] = share(i, total);
+        }
+        animStart = now;
+        winner = win;
+        invalidate();
+        return total;
+    }
+
+    private float share(int i, int total) {
+        return total == 0 ? 0f : votes[i] / (float) total;
+    }
+
+    /** Row i's animated share at {@code now}, decelerating towards its target. */
+    private float shown(int i, long now) {
+        float t = Math.min(1f, (now - animStart) / (float) ANIMATION_MS);
+        float eased = 1f - (1f - t) * (1f - t);
+        return from[i] + (to[i] - from[i]) * eased;
+    }
+
+    private void grow(int n) {
+        if (texts.length < n) {
+            texts = Arrays.copyOf(texts, n);
+            sources = Arrays.copyOf(sources, n);
+            percents = Arrays.copyOf(percents, n);
+            layouts = Arrays.copyOf(layouts, n);
+            from = Arrays.copyOf(from, n);
+            to = Arrays.copyOf(to, n);
+            votes = Arrays.copyOf(votes, n);
+        }
+        for (int i = n; i < count; i++) {
+            texts[i] = null;
+            sources[i] = null;
+            layouts[i] = null;
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int inner = Math.max(0, width - getPaddingLeft() - getPaddingRight());
+        ensureLayouts(labelWidth(inner));
+
+        float h = getPaddingTop() + getPaddingBottom();
+        for (int i = 0; i < count; i++) h += rowHeight(i);
+        setMeasuredDimension(width, resolveSize((int) Math.ceil(h), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        int inner = getWidth() - getPaddingLeft() - getPaddingRight();
+        ensureLayouts(labelWidth(inner));
+
+        long now = live ? AnimationUtils.currentAnimationTimeMillis() : 0;
+        float y = getPaddingTop();
+        float left = getPaddingLeft();
+        for (int i = 0; i < count; i++) {
+            StaticLayout layout = layouts[i];
+            int color = i == winner ? winnerColor : otherColor;
+            labelPaint.setColor(color);
+            canvas.save();
+            canvas.translate(left, y + rowPadding);
+            layout.draw(canvas);
+            canvas.restore();
+
+            float fraction = live ? shown(i, now) : Math.min(100, percents[i]) / 100f;
+            if (live) {
+                percentPaint.setColor(color);
+                canvas.drawText(PERCENT_TEXT[Math.min(100, Math.round(fraction * 100))],
+                        left + inner, y + rowPadding + layout.getLineBaseline(0), percentPaint);
+            }
+
+            float top = y + rowPadding + layout.getHeight() + labelGap;
+            rect.set(left, top, left + inner, top + barHeight);
+            canvas.drawRoundRect(rect, barRadius, barRadius, trackPaint);
+            if (fraction > 0) {
+                rect.right = left + inner * fraction;
+                canvas.drawRoundRect(rect, barRadius, barRadius, barPaint);
+            }
+            y += rowHeight(i);
+        }
+        if (live && now - animStart < ANIMATION_MS) postInvalidateOnAnimation(); // next step on the next frame
+    }
+
+    private int labelWidth(int inner) {
+        return live ? Math.max(1, inner - (int) percentColumn) : inner;
+    }
+
+    private float rowHeight(int i) {
+        return rowPadding + layouts[i].getHeight() + labelGap + barHeight + rowPadding;
+    }
+
+    private void ensureLayouts(int width) {
+        if (width != layoutWidth) {
+            Arrays.fill(layouts, null);
+            layoutWidth = width;
+        }
+        for (int i = 0; i < count; i++) {
+            if (layouts[i] == null) layouts[i] = buildLayout(i, width);
+        }
+    }
+
+    private StaticLayout buildLayout(int i, int width) {
+        String text = texts[i];
+        return StaticLayout.Builder
+                .obtain(text, 0, text.length(), labelPaint, Math.max(1, width))
+                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                .setIncludePad(true)
+                .build();
+    }
+}
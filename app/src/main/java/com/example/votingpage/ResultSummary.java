@@ -0,0 +1,51 @@
+package com.example.votingpage;
+
+/**
+ * Display-ready results of one closed poll: percentages, winner and every
+ * text the closed card shows. Immutable, so one instance serves every bind
+ * until the poll's {@link #version} changes; see {@link ResultSummaryCache}.
+ */
+final class ResultSummary {
+
+    /** Version of rows whose results never change (archived polls). */
+    static final long IMMUTABLE = 0;
+
+    final long id, version;
+    final int winner;
+    final String finalVote, totalVotes;
+    private final int[] percents;
+    private final String[] rowTexts;
+
+    private ResultSummary(PollResults p, long version) {
+        this.id = p.id();
+        this.version = version;
+        int n = p.optionCount();
+        int total = Math.max(1, p.totalVotes());
+        winner = p.winningIndex();
+        percents = new int[n];
+        rowTexts = new String[n];
+        for (int i = 0; i < n; i++) {
+            percents[i] = (int) Math.round(100.0 * p.votesFor(i) / total);
+            rowTexts[i] = OptionRowPool.optionNumber(i) + ": " + p.optionLabel(i) + "  (" + percents[i] + "%)";
+        }
+        finalVote = "Final Vote: " + p.optionLabel(winner);
+        totalVotes = p.totalVotes() + " Votes";
+    }
+
+    static ResultSummary of(PollResults p, long version) {
+        return new ResultSummary(p, version);
+    }
+
+    int optionCount() {
+        return percents.length;
+    }
+
+    int percent(int option) {
+        return percents[option];
+    }
+
+    /** "Option #n: label  (pct%)" */
+    String rowText(int option) {
+        return rowTexts[option];
+    }
+}
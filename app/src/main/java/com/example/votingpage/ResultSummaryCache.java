@@ -0,0 +1,79 @@
+package com.example.votingpage;
+
+import android.content.ComponentCallbacks2;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU of {@link ResultSummary}s, one per poll id. An entry is
+ * reused while the caller's version matches and rebuilt when it doesn't,
+ * so rebinding a closed card (scroll, payload refresh) builds no strings.
+ * Main thread only.
+ */
+final class ResultSummaryCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Long, ResultSummary> entries;
+    private long hits, misses, evictions;
+
+    ResultSummaryCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Long, ResultSummary>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ResultSummary> eldest) {
+                if (size() <= ResultSummaryCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /** The summary of {@code p} at {@code version}, built on a miss. */
+    ResultSummary get(PollResults p, long version) {
+        ResultSummary s = entries.get(p.id());
+        if (s != null && s.version == version) {
+            hits++;
+            return s;
+        }
+        misses++;
+        s = ResultSummary.of(p, version);
+        entries.put(s.id, s);
+        return s;
+    }
+
+    /** Drops entries under memory pressure; summaries are cheap to rebuild. */
+    void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) { // includes UI_HIDDEN and up
+            trimTo(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimTo(maxEntries / 2);
+        }
+    }
+
+    private void trimTo(int size) {
+        Iterator<ResultSummary> it = entries.values().iterator();
+        while (entries.size() > size && it.hasNext()) {
+            it.next();
+            it.remove(); // eldest (least recently used) first
+            evictions++;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+
+    long evictions() {
+        return evictions;
+    }
+}
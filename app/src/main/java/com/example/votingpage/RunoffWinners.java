@@ -0,0 +1,65 @@
+package com.example.votingpage;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Instant-runoff winners for list rows, counted on a background thread:
+ * {@link RankedChoiceVoting#winningIndex()} can recount every ballot, which
+ * must not happen while a card is snapshotted. Entries are keyed on the
+ * ballot count a card saw. A card that sees a newer count gets the last
+ * known winner for now and a count is queued; when it lands the listener
+ * re-snapshots that poll. Main thread only, except the counting.
+ */
+final class RunoffWinners {
+
+    interface Listener {
+        /** A count for {@code poll} landed; main thread. */
+        void onCounted(Poll poll);
+    }
+
+    private static final ExecutorService COUNTER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "RunoffWinners");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final Listener listener;
+    // Per poll: {ballots counted, winner}; weak, so deleted polls drop out
+    private final Map<Poll, int[]> counted = new WeakHashMap<>();
+    private final Map<Poll, Boolean> queued = new WeakHashMap<>();
+
+    RunoffWinners(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * The winner of {@code poll} after {@code ballots} ballots if it has been
+     * counted, else the last one known (or {@code fallback}) while a count runs.
+     */
+    int winner(Poll poll, RankedChoiceVoting irv, int ballots, int fallback) {
+        int[] c = counted.get(poll);
+        if (c != null && c[0] == ballots) return c[1];
+        if (queued.put(poll, Boolean.TRUE) == null) {
+            COUNTER.execute(() -> {
+                int n, w;
+                synchronized (irv) { // the ballots the count covered
+                    w = irv.winningIndex();
+                    n = irv.ballots();
+                }
+                main.post(() -> {
+                    queued.remove(poll);
+                    counted.put(poll, new int[] {n, w});
+                    listener.onCounted(poll);
+                });
+            });
+        }
+        return c != null ? c[1] : fallback;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.votingpage;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+
+/**
+ * Views inflated before the list asks for them, while the main thread has
+ * nothing else to do. The activity queues a predicted number of cards and
+ * chip rows; while the polls load on a background thread, the main looper
+ * inflates one view per idle pass, so input and frames always go first.
+ * PollAdapter and OptionRowPool {@link #take} from here and inflate
+ * synchronously only when nothing is ready yet.
+ *
+ * Inflation stays on the main thread with the activity's own inflater:
+ * views, themes and AppCompat's factory are not thread-safe, and a
+ * background clone of the inflater would share them. Main thread only.
+ */
+final class ViewWarmPool implements MessageQueue.IdleHandler {
+
+    private static final Metrics.Counter HITS = Metrics.counter("poll.warmPool.hits");
+    private static final Metrics.Counter MISSES = Metrics.counter("poll.warmPool.misses");
+
+    private static final class Request {
+        final int layout;
+        final ViewGroup parent;
+        int remaining;
+
+        Request(int layout, ViewGroup parent, int count) {
+            this.layout = layout;
+            this.parent = parent;
+            this.remaining = count;
+        }
+    }
+
+    private final LayoutInflater inflater;
+    private final SparseArray<ArrayDeque<View>> ready = new SparseArray<>();
+    private final ArrayDeque<Request> pending = new ArrayDeque<>();
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final Runnable wake = () -> { }; // a message, so the queue goes idle again after it
+    private boolean installed;
+
+    ViewWarmPool(Activity activity) {
+        this.inflater = LayoutInflater.from(activity);
+    }
+
+    /**
+     * Queues {@code count} inflations of {@code layout}. {@code parent} only
+     * supplies layout params and is never attached to.
+     */
+    void prefetch(@LayoutRes int layout, ViewGroup parent, int count) {
+        if (count <= 0) return;
+        pending.add(new Request(layout, parent, count));
+        if (!installed) {
+            Looper.myQueue().addIdleHandler(this);
+            installed = true;
+        }
+    }
+
+    /** Inflates one queued view; called by the main looper when it has no messages due. */
+    @Override
+    public boolean queueIdle() {
+        Request r = pending.peek();
+        if (r != null) {
+            queue(r.layout).add(inflater.inflate(r.layout, r.parent, false));
+            if (--r.remaining == 0) pending.poll();
+        }
+        if (pending.isEmpty()) {
+            installed = false;
+            return false;
+        }
+        main.post(wake); // idle handlers run once per idle spell; this starts the next one
+        return true;
+    }
+
+    /** A pre-inflated {@code layout}, or null if none is ready. */
+    @Nullable
+    View take(@LayoutRes int layout) {
+        ArrayDeque<View> queue = ready.get(layout);
+        View v = queue == null ? null : queue.poll();
+        if (v == null) MISSES.increment();
+        else HITS.increment();
+        return v;
+    }
+
+    /** Drops queued inflations and anything not yet taken. */
+    void shutdown() {
+        pending.clear();
+        if (installed) Looper.myQueue().removeIdleHandler(this);
+        installed = false;
+        main.removeCallbacks(wake);
+        for (int i = 0; i < ready.size(); i++) ready.valueAt(i).clear();
+    }
+
+    private ArrayDeque<View> queue(int layout) {
+        ArrayDeque<View> q = ready.get(layout);
+        if (q == null) ready.put(layout, q = new ArrayDeque<>());
+        return q;
+    }
+}
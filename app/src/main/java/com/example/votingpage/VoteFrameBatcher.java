@@ -0,0 +1,64 @@
+package com.example.votingpage;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.widget.Toast;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bridges VoteIngestor batches to the list: polls changed by any number of
+ * batches are collected and handed to {@link PollAdapter#applyVotes(Set)}
+ * once, on the next frame. However fast votes arrive, each poll's results
+ * are redrawn (open) or rediffed (closed) at most once per frame.
+ */
+final class VoteFrameBatcher implements VoteIngestor.Listener, Choreographer.FrameCallback {
+
+    private final Context ctx;
+    private final PollAdapter adapter;
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    private final Object lock = new Object();
+    private final Set<Poll> pending = new HashSet<>(); // guarded by lock
+    private boolean scheduled;                          // guarded by lock
+    private final Set<Poll> frameSet = new HashSet<>(); // main thread only
+
+    private final Runnable schedule = () -> Choreographer.getInstance().postFrameCallback(this);
+
+    VoteFrameBatcher(Context ctx, PollAdapter adapter) {
+        this.ctx = ctx;
+        this.adapter = adapter;
+    }
+
+    @Override
+    public void onApplied(List<Poll> changed) {
+        synchronized (lock) {
+            pending.addAll(changed);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        main.post(schedule); // Choreographer is per-looper; post it from the main thread
+    }
+
+    @Override
+    public void onFailed(IOException e, int dropped) {
+        String message = "Could not save " + dropped + (dropped == 1 ? " vote" : " votes");
+        main.post(() -> Toast.makeText(ctx, message, Toast.LENGTH_SHORT).show());
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        synchronized (lock) {
+            frameSet.addAll(pending);
+            pending.clear();
+            scheduled = false;
+        }
+        adapter.applyVotes(frameSet);
+        frameSet.clear();
+    }
+}
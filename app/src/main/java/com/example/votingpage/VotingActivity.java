@@ -1,7 +1,15 @@
 package com.example.votingpage;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.DisplayMetrics;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.EditText;
 import android.widget.ImageButton;
+import android.widget.LinearLayout;
+import android.widget.Toast;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
@@ -10,17 +18,51 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
 
 public class VotingActivity extends AppCompatActivity {
 
     private RecyclerView rvPolls;
     private PollAdapter adapter;
     private final List<Poll> polls = new ArrayList<>();
+    private PollStore store; // null if storage could not be opened
+    private PollArchive archive; // mapped closed-poll history, if present
+    private final ExecutorService archiveLoader = Executors.newSingleThreadExecutor();
+    private VoteIngestor ingestor; // batched votes from kiosk queues / sync replays
+    private final PollSearchIndex searchIndex = new PollSearchIndex();
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private EditText etSearch;
+    private volatile int searchSeq; // bumped on the main thread; newer queries supersede older ones
+    private ViewWarmPool warmPool;
+    private LongSupplier cacheHits, cacheMisses; // this instance's gauges; a recreated activity registers its own
+
+    private static final int INGEST_CAPACITY = 16 * 1024;
+    // Archive window: 16 pages of 64 rows resident, 4 prefetched ahead of the scroll
+    private static final int ARCHIVE_PAGE_ROWS = 64;
+    private static final int ARCHIVE_MAX_PAGES = 16;
+    private static final int ARCHIVE_PREFETCH_PAGES = 4;
+    // First-screen guess for pre-inflation: a short open card is ~160dp with 3 chips
+    private static final int MIN_CARD_DP = 160;
+    private static final int CHIPS_PER_CARD = 3;
+    private static final LatencyHistogram FIRST_FRAME = Metrics.histogram("voting.firstFrame");
+    static boolean prewarm = true; // UiPerfTest turns it off for the before/after launch numbers
+    // Store opens, writes, flushes and closes run here in order, so the main thread never touches the disk
+    // and a recreated activity never opens the store before the old one closed it
+    private static final ExecutorService STORE_IO = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "VotingActivity-store");
+        t.setDaemon(true);
+        return t;
+    });
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
+        long created = System.nanoTime();
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_voting);
 
@@ -28,23 +70,51 @@ public class VotingActivity extends AppCompatActivity {
         rvPolls = findViewById(R.id.rvPolls);
         ImageButton btnAddPoll = findViewById(R.id.btnAddPoll);
         ImageButton btnBack = findViewById(R.id.btnBack);
+        ImageButton btnFilter = findViewById(R.id.btnFilter);
+        etSearch = findViewById(R.id.etSearch);
         BottomNavigationView bottomNav = findViewById(R.id.bottomNavigation);
 
         // --- RecyclerView setup ---
         rvPolls.setLayoutManager(new LinearLayoutManager(this));
-        seedData();
-        adapter = new PollAdapter(this, polls, () -> rvPolls.post(() -> adapter.notifyDataSetChanged()));
-        rvPolls.setAdapter(adapter);
+        prewarmCards(); // inflates on the idle main thread while polls load
+        reportFirstFrame(created);
+        loadPolls(); // the adapter and everything that needs the store follow in onPollsLoaded
+        MetricsOverlay.install(this, findViewById(R.id.tvSection)); // debug builds: long-press "Polls"
 
         // --- Add Poll (+) ---
-        btnAddPoll.setOnClickListener(v ->
-                new AddPollDialogFragment(poll -> {
-                    // Insert new poll at top
-                    polls.add(0, poll);
-                    adapter.notifyItemInserted(0);
-                    rvPolls.scrollToPosition(0);
-                }).show(getSupportFragmentManager(), "addPollDialog")
-        );
+        btnAddPoll.setOnClickListener(v -> {
+            if (adapter == null) return; // still loading
+            new AddPollDialogFragment(poll -> {
+                // Insert new poll at top
+                polls.add(0, poll);
+                persist(poll);
+                searchExecutor.execute(() -> searchIndex.add(poll)); // behind the build, ahead of the query
+                search(); // refreshes; the new poll shows only if it matches the query
+                rvPolls.scrollToPosition(0);
+            }).show(getSupportFragmentManager(), "addPollDialog");
+        });
+
+        // --- Search ---
+        btnFilter.setOnClickListener(v -> {
+            boolean show = etSearch.getVisibility() != View.VISIBLE;
+            etSearch.setVisibility(show ? View.VISIBLE : View.GONE);
+            if (show) etSearch.requestFocus();
+            else etSearch.setText(""); // clears the filter
+        });
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                search();
+            }
+        });
 
         // --- Back ---
         btnBack.setOnClickListener(v -> finish());
@@ -58,29 +128,229 @@ public class VotingActivity extends AppCompatActivity {
         });
     }
 
-    private void seedData() {
-        polls.clear();
+    @Override
+    protected void onStop() {
+        super.onStop();
+        PollStore s = store;
+        if (s == null) return;
+        STORE_IO.execute(() -> { // behind any write still queued
+            try {
+                s.flush();
+            } catch (IOException ignored) {
+                // The periodic sync will retry
+            }
+        });
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (adapter != null) adapter.summaryCache().onTrimMemory(level);
+    }
+
+    /** Entry point for bulk vote producers; safe from any thread, null until the polls have loaded. */
+    VoteIngestor voteIngestor() {
+        return ingestor;
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (adapter != null) {
+            Metrics.removeGauge("poll.summaryCache.hits", cacheHits);
+            Metrics.removeGauge("poll.summaryCache.misses", cacheMisses);
+        }
+        searchExecutor.shutdownNow();
+        archiveLoader.shutdownNow();
+        warmPool.shutdown();
+        if (archive != null) {
+            try {
+                archive.close();
+            } catch (IOException ignored) {
+                // Read-only mapping, nothing to lose
+            }
+        }
+        closeStore(ingestor, store);
+    }
+
+    /**
+     * Closes off the main thread, behind any load still in flight. The
+     * ingestor drains and its worker exits before the store closes under it.
+     */
+    private static void closeStore(@Nullable VoteIngestor in, @Nullable PollStore s) {
+        if (in == null && s == null) return;
+        STORE_IO.execute(() -> {
+            if (in != null) in.close();
+            if (s == null) return;
+            try {
+                s.close();
+            } catch (IOException ignored) {
+                // Nothing left to do; the journal tail is recovered on next open
+            }
+        });
+    }
+
+    /** Queues enough cards and chip rows to fill the first screen. */
+    private void prewarmCards() {
+        warmPool = new ViewWarmPool(this);
+        if (!prewarm) return;
+        DisplayMetrics dm = getResources().getDisplayMetrics();
+        int cards = (int) Math.ceil(dm.heightPixels / (MIN_CARD_DP * dm.density)) + 1;
+        warmPool.prefetch(R.layout.item_poll, rvPolls, cards);
+        warmPool.prefetch(R.layout.view_option_chip, new LinearLayout(this), cards * CHIPS_PER_CARD);
+        warmPool.prefetch(R.layout.item_poll_closed, rvPolls, cards / 2); // open/closed mix unknown until loaded
+    }
+
+    /** onCreate to the first frame that draws cards, in voting.firstFrame; also tells the system. */
+    private void reportFirstFrame(long created) {
+        ViewTreeObserver.OnPreDrawListener listener = new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (adapter == null) return true; // still loading
+                if (rvPolls.getChildCount() == 0 && adapter.getItemCount() > 0) return true; // not laid out yet
+                rvPolls.getViewTreeObserver().removeOnPreDrawListener(this);
+                if (Metrics.enabled()) FIRST_FRAME.record(System.nanoTime() - created);
+                reportFullyDrawn();
+                return true;
+            }
+        };
+        rvPolls.getViewTreeObserver().addOnPreDrawListener(listener);
+    }
+
+    /**
+     * Indexes the loaded polls off the main thread; queries see them as they
+     * land. Later adds and deletes queue behind the build on the same thread,
+     * so a poll deleted mid-build is not indexed again after its removal.
+     */
+    private void buildSearchIndex() {
+        adapter.setSearchIndex(searchIndex, searchExecutor);
+        List<Poll> snapshot = new ArrayList<>(polls);
+        searchExecutor.execute(() -> {
+            for (Poll p : snapshot) searchIndex.add(p);
+        });
+    }
+
+    /** Runs the current query on the search thread; only the newest result is applied. */
+    private void search() {
+        if (adapter == null) return; // onPollsLoaded runs the query typed so far
+        String query = etSearch.getText().toString();
+        int seq = ++searchSeq;
+        if (query.trim().isEmpty()) {
+            adapter.setFilter(null);
+            return;
+        }
+        searchExecutor.execute(() -> {
+            if (seq != searchSeq) return; // superseded while queued
+            PollSearchIndex.Result result = searchIndex.search(query);
+            runOnUiThread(() -> {
+                if (seq == searchSeq) adapter.setFilter(result);
+            });
+        });
+    }
+
+    /**
+     * Opens the store and replays its journal on STORE_IO (hundreds of ms for a
+     * large store); seeds the demo polls only on first launch.
+     */
+    private void loadPolls() {
+        File dir = new File(getFilesDir(), "polls");
+        STORE_IO.execute(() -> {
+            PollStore opened = null;
+            String error = null;
+            try {
+                opened = PollStore.open(dir);
+            } catch (IOException e) {
+                error = "Polls will not be saved";
+            }
+            List<Poll> loaded;
+            if (opened != null && opened.size() > 0) {
+                loaded = opened.polls();
+            } else {
+                loaded = seedData();
+                try {
+                    // Oldest first, so the store hands them back in display order
+                    for (int i = loaded.size() - 1; opened != null && i >= 0; i--) opened.addPoll(loaded.get(i));
+                } catch (IOException e) {
+                    error = "Could not save poll";
+                }
+            }
+            PollStore s = opened;
+            String message = error;
+            runOnUiThread(() -> onPollsLoaded(s, loaded, message));
+        });
+    }
+
+    /** Main thread: shows the loaded polls and starts what needs the store. */
+    private void onPollsLoaded(@Nullable PollStore loadedStore, List<Poll> loaded, @Nullable String error) {
+        if (isDestroyed()) {
+            closeStore(null, loadedStore);
+            return;
+        }
+        if (error != null) Toast.makeText(this, error, Toast.LENGTH_SHORT).show();
+        store = loadedStore;
+        polls.addAll(loaded);
+        adapter = new PollAdapter(this, polls, store, STORE_IO);
+        adapter.setWarmPool(warmPool);
+        rvPolls.setAdapter(adapter);
+        openArchive();
+        ingestor = VoteIngestor.start(store, INGEST_CAPACITY, new VoteFrameBatcher(this, adapter));
+        buildSearchIndex();
+        ResultSummaryCache summaries = adapter.summaryCache();
+        Metrics.gauge("poll.summaryCache.hits", cacheHits = summaries::hits);
+        Metrics.gauge("poll.summaryCache.misses", cacheMisses = summaries::misses);
+        if (etSearch.length() > 0) search(); // typed while loading
+    }
+
+    /** Maps the closed-poll archive, if one exists; only the header is read. */
+    private void openArchive() {
+        File f = new File(getFilesDir(), "archive.polls");
+        if (!f.exists()) return;
+        try {
+            archive = PollArchive.open(f);
+            adapter.setArchive(new ArchivePager(archive, ARCHIVE_PAGE_ROWS, ARCHIVE_MAX_PAGES,
+                    ARCHIVE_PREFETCH_PAGES, archiveLoader));
+        } catch (IOException e) {
+            Toast.makeText(this, "Could not open poll archive", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /** Journals a new poll on STORE_IO; it is already in the list. */
+    private void persist(Poll poll) {
+        PollStore s = store;
+        if (s == null) return;
+        STORE_IO.execute(() -> {
+            try {
+                s.addPoll(poll);
+            } catch (IOException e) {
+                runOnUiThread(() -> Toast.makeText(this, "Could not save poll", Toast.LENGTH_SHORT).show());
+            }
+        });
+    }
+
+    private static List<Poll> seedData() {
+        List<Poll> polls = new ArrayList<>();
 
         // Open poll (no votes yet)
         Poll p1 = new Poll("Poll : Favorite Anime?");
         p1.description = "Pick your favorite.";
-        p1.options.add(new PollOption("Naruto"));
-        p1.options.add(new PollOption("Dragonball"));
-        p1.options.add(new PollOption("One Piece"));
+        p1.addOption("Naruto");
+        p1.addOption("Dragonball");
+        p1.addOption("One Piece");
         polls.add(p1);
 
         // Closed poll (pre-populated votes)
         Poll p2 = new Poll("Poll : Favorite Food?");
         p2.description = "Team lunch choice.";
         p2.link = "https://example.com/menu";
-        p2.options.add(new PollOption("Burger"));
-        p2.options.add(new PollOption("Hotdog"));
-        p2.options.add(new PollOption("Sandwich"));
-        p2.options.get(0).votes = 30;
-        p2.options.get(1).votes = 15;
-        p2.options.get(2).votes = 5;
+        p2.addOption("Burger");
+        p2.addOption("Hotdog");
+        p2.addOption("Sandwich");
+        p2.tally.set(0, 30);
+        p2.tally.set(1, 15);
+        p2.tally.set(2, 5);
         p2.closed = true;
         polls.add(p2);
+        return polls;
     }
 }
 
@@ -0,0 +1,68 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+/**
+ * Row count and range changes of the agenda week grid, including the
+ * first setRange() that runs from the constructor.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class AgendaGridAdapterTest {
+
+    private static final AgendaGridAdapter.Cells EMPTY = new AgendaGridAdapter.Cells() {
+        @Override
+        public CharSequence timeLabel(int minuteOfDay) {
+            return "";
+        }
+
+        @Override
+        public CharSequence eventAt(int day, int startMinute, int endMinute) {
+            return null;
+        }
+    };
+
+    @Test
+    public void constructsAndChangesRange() {
+        Context ctx = new ContextThemeWrapper(RuntimeEnvironment.getApplication(), R.style.Theme_VotingPage);
+        AgendaGridAdapter adapter = new AgendaGridAdapter(ctx, 7, EMPTY, 6 * 60, 22 * 60, 60);
+        assertEquals(16, adapter.getItemCount());
+
+        final int[] inserted = new int[1], removed = new int[1];
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                inserted[0] += itemCount;
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                removed[0] += itemCount;
+            }
+        });
+
+        adapter.setRange(0, 24 * 60, 15);
+        assertEquals(96, adapter.getItemCount());
+        assertEquals(80, inserted[0]);
+
+        adapter.setRange(9 * 60, 17 * 60 + 30, 60); // partial last slot still gets a row
+        assertEquals(9, adapter.getItemCount());
+        assertEquals(87, removed[0]);
+
+        AgendaGridAdapter.RowVH row = adapter.onCreateViewHolder(new FrameLayout(ctx), 0);
+        adapter.onBindViewHolder(row, 8);
+        assertEquals(7, row.slots.length);
+    }
+}
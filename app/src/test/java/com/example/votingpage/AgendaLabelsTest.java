@@ -0,0 +1,143 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.WeekFields;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * AgendaTime calendar math against java.time, AgendaLabels and slot label
+ * caching, and bytes allocated by the date work of one
+ * AgendaActivity.buildScreen() (month header, 7 day headers, 16 hour rows)
+ * before and after.
+ */
+public class AgendaLabelsTest {
+
+    private static final int HOURS = 16; // 06:00..21:00, as in AgendaActivity
+    private static final int RUNS = 10_000;
+
+    @Test
+    public void civilDateMathMatchesJavaTime() {
+        for (long day = -200_000; day <= 200_000; day += 13) {
+            LocalDate d = LocalDate.ofEpochDay(day);
+            assertEquals(d.getYear(), AgendaTime.year(day));
+            assertEquals(d.getMonthValue(), AgendaTime.month(day));
+            assertEquals(d.getDayOfMonth(), AgendaTime.dayOfMonth(day));
+            assertEquals(d.getDayOfWeek().getValue(), AgendaTime.dayOfWeek(day));
+            assertEquals(day, AgendaTime.epochDay(d.getYear(), d.getMonthValue(), d.getDayOfMonth()));
+        }
+    }
+
+    @Test
+    public void weekStartFollowsLocale() {
+        long day = AgendaTime.epochDay(2026, 10, 15); // Thursday
+        for (Locale locale : new Locale[] {Locale.US, Locale.GERMANY, new Locale("ar", "EG")}) {
+            AgendaLabels labels = new AgendaLabels(locale, ZoneId.of("UTC"), false);
+            LocalDate expected = LocalDate.ofEpochDay(day)
+                    .with(WeekFields.of(locale).dayOfWeek(), 1);
+            assertEquals(locale.toString(), expected.toEpochDay(),
+                    AgendaTime.weekStart(day, labels.firstDayOfWeek()));
+        }
+    }
+
+    @Test
+    public void labelsAreFormattedOnceAndReused() {
+        AgendaLabels labels = new AgendaLabels(Locale.US, ZoneId.of("UTC"), false);
+        long day = AgendaTime.epochDay(2026, 10, 18);
+        assertEquals("6:00 AM", labels.time(6 * 60));
+        assertEquals("1:30 PM", labels.time(13 * 60 + 30));
+        assertEquals("Sun 18", labels.dayHeader(day));
+        assertEquals("October | 2026", labels.monthHeader(day));
+        assertSame(labels.time(6 * 60), labels.time(6 * 60));
+        assertSame(labels.dayHeader(day), labels.dayHeader(AgendaTime.epochDay(2026, 1, 18))); // also Sun 18
+        assertSame(labels.monthHeader(day), labels.monthHeader(day + 5));
+
+        AgendaLabels h24 = new AgendaLabels(Locale.GERMANY, ZoneId.of("UTC"), true);
+        assertEquals("13:30", h24.time(13 * 60 + 30));
+        assertEquals("Oktober | 2026", h24.monthHeader(day));
+        assertTrue(h24.matches(Locale.GERMANY, ZoneId.of("UTC"), true));
+        assertTrue(!h24.matches(Locale.GERMANY, ZoneId.of("Europe/Berlin"), true));
+    }
+
+    @Test
+    public void slotLabelsAreBuiltOnce() {
+        AgendaActivity.EventItem e = new AgendaActivity.EventItem("Standup", 0, 9 * 60, 10 * 60);
+        assertSame(e.label, e.label(0));
+        assertEquals("\u2022 Standup +2", e.label(2));
+        assertSame(e.label(2), e.label(2));
+        assertSame(e.label(7), e.label(7)); // past the first array
+    }
+
+    @Test
+    public void allocationsPerBuildScreen() {
+        com.sun.management.ThreadMXBean mx =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        Calendar anchor = Calendar.getInstance(Locale.US);
+        long oldBytes = 0;
+        for (int pass = 0; pass < 2; pass++) { // first pass warms up
+            long before = mx.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < RUNS; i++) {
+                anchor.add(Calendar.DAY_OF_MONTH, 7);
+                oldBuildScreen(anchor);
+            }
+            oldBytes = (mx.getThreadAllocatedBytes(tid) - before) / RUNS;
+        }
+
+        AgendaLabels labels = new AgendaLabels(Locale.US, ZoneId.of("UTC"), false);
+        long anchorDay = labels.today();
+        for (int i = 0; i < 2 * 52 * 7; i++) newBuildScreen(labels, anchorDay + i); // fill caches
+        long newBytes = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            long before = mx.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < RUNS; i++) {
+                newBuildScreen(labels, anchorDay + (i % 52) * 7); // back and forth within a year
+            }
+            newBytes = (mx.getThreadAllocatedBytes(tid) - before) / RUNS;
+        }
+
+        System.out.printf("buildScreen date work: Calendar/SimpleDateFormat %d B/call, AgendaLabels %d B/call%n",
+                oldBytes, newBytes);
+        assertTrue("cached path allocates " + newBytes + " B/call", newBytes < 16);
+    }
+
+    private static int sink;
+
+    /** The header + hour-label work buildScreen() and the grid did before. */
+    private static void oldBuildScreen(Calendar anchor) {
+        SimpleDateFormat monthFmt = new SimpleDateFormat("MMMM | yyyy", Locale.US);
+        sink += monthFmt.format(anchor.getTime()).length();
+        Calendar weekStart = (Calendar) anchor.clone();
+        weekStart.set(Calendar.DAY_OF_WEEK, weekStart.getFirstDayOfWeek());
+        SimpleDateFormat dayName = new SimpleDateFormat("EEE", Locale.US);
+        SimpleDateFormat dayNum = new SimpleDateFormat("dd", Locale.US);
+        Calendar colCal = (Calendar) weekStart.clone();
+        for (int c = 0; c < 7; c++) {
+            sink += (dayName.format(colCal.getTime()) + " " + dayNum.format(colCal.getTime())).length();
+            colCal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        for (int h = 0; h < HOURS; h++) {
+            Calendar c = Calendar.getInstance(Locale.US);
+            c.set(Calendar.HOUR_OF_DAY, 6 + h);
+            c.set(Calendar.MINUTE, 0);
+            sink += new SimpleDateFormat("h:mm a", Locale.US).format(c.getTime()).length();
+        }
+    }
+
+    private static void newBuildScreen(AgendaLabels labels, long anchorDay) {
+        sink += labels.monthHeader(anchorDay).length();
+        long weekStart = AgendaTime.weekStart(anchorDay, labels.firstDayOfWeek());
+        for (int c = 0; c < 7; c++) sink += labels.dayHeader(weekStart + c).length();
+        for (int h = 0; h < HOURS; h++) sink += labels.time((6 + h) * 60).length();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Host-side tests for EventIndex (checked against a linear scan) and the
+ * epoch-day math in AgendaTime.
+ */
+public class EventIndexTest {
+
+    @Test
+    public void epochDayMatchesKnownDates() {
+        assertEquals(0, AgendaTime.epochDay(1970, 1, 1));
+        assertEquals(-1, AgendaTime.epochDay(1969, 12, 31));
+        assertEquals(11016, AgendaTime.epochDay(2000, 2, 29));
+        assertEquals(20744, AgendaTime.epochDay(2026, 10, 18));
+    }
+
+    @Test
+    public void overlappingAndMultiHourEvents() {
+        long day = AgendaTime.epochDay(2026, 10, 18);
+        long[] s = {
+                AgendaTime.epochMinute(day, 10 * 60),       // 0: 10:00-13:00
+                AgendaTime.epochMinute(day, 12 * 60),       // 1: 12:00-13:00
+                AgendaTime.epochMinute(day, 13 * 60),       // 2: 13:00-14:00 (touches, no overlap)
+                AgendaTime.epochMinute(day - 1, 23 * 60),   // 3: crosses midnight
+        };
+        long[] e = {
+                AgendaTime.epochMinute(day, 13 * 60),
+                AgendaTime.epochMinute(day, 13 * 60),
+                AgendaTime.epochMinute(day, 14 * 60),
+                AgendaTime.epochMinute(day, 60),
+        };
+        EventIndex index = EventIndex.build(s, e, s.length);
+        EventIndex.Hits hits = new EventIndex.Hits();
+
+        index.query(AgendaTime.epochMinute(day, 12 * 60), AgendaTime.epochMinute(day, 13 * 60), hits);
+        assertArrayEquals(new int[] {0, 1}, toArray(hits));
+
+        index.query(AgendaTime.epochMinute(day, 0), AgendaTime.epochMinute(day, 30), hits);
+        assertArrayEquals(new int[] {3}, toArray(hits));
+
+        index.query(AgendaTime.epochMinute(day, 14 * 60), AgendaTime.epochMinute(day, 15 * 60), hits);
+        assertEquals(0, hits.size());
+    }
+
+    @Test
+    public void eventsBefore1970() {
+        long eve = AgendaTime.epochDay(1969, 12, 31);
+        long[] s = {
+                AgendaTime.epochMinute(eve, 22 * 60),                            // 0: crosses into 1970
+                AgendaTime.epochMinute(AgendaTime.epochDay(1900, 3, 1), 9 * 60), // 1
+                AgendaTime.epochMinute(eve + 1, 9 * 60),                         // 2
+        };
+        long[] e = {s[0] + 4 * 60, s[1] + 60, s[2] + 60};
+        EventIndex index = EventIndex.build(s, e, s.length);
+        EventIndex.Hits hits = new EventIndex.Hits();
+
+        index.query(AgendaTime.epochMinute(eve, 0), AgendaTime.epochMinute(eve + 1, 10 * 60), hits);
+        assertArrayEquals(new int[] {0, 2}, toArray(hits));
+
+        index.query(s[1], s[1] + 1, hits);
+        assertArrayEquals(new int[] {1}, toArray(hits));
+    }
+
+    @Test
+    public void matchesLinearScan() {
+        Random rnd = new Random(7);
+        int n = 20_000;
+        long[] s = new long[n], e = new long[n];
+        long base = AgendaTime.epochMinute(AgendaTime.epochDay(2026, 1, 1), 0);
+        for (int i = 0; i < n; i++) {
+            s[i] = base + rnd.nextInt(365 * AgendaTime.MINUTES_PER_DAY);
+            e[i] = s[i] + 15 + rnd.nextInt(rnd.nextInt(20) == 0 ? 5 * AgendaTime.MINUTES_PER_DAY : 240);
+        }
+        EventIndex index = EventIndex.build(s, e, n);
+        EventIndex.Hits hits = new EventIndex.Hits();
+
+        for (int q = 0; q < 500; q++) {
+            long from = base + rnd.nextInt(365 * AgendaTime.MINUTES_PER_DAY);
+            long to = from + 7L * AgendaTime.MINUTES_PER_DAY;
+            index.query(from, to, hits);
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < n; i++) if (s[i] < to && e[i] > from) expected.add(i);
+            List<Integer> actual = new ArrayList<>();
+            for (int i = 0; i < hits.size(); i++) actual.add(hits.get(i));
+            actual.sort(null);
+            assertEquals(expected, actual);
+        }
+    }
+
+    private static int[] toArray(EventIndex.Hits hits) {
+        int[] a = new int[hits.size()];
+        for (int i = 0; i < a.length; i++) a[i] = hits.get(i);
+        return a;
+    }
+}
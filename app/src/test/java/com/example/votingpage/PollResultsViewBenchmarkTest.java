@@ -0,0 +1,114 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import androidx.core.content.ContextCompat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+/**
+ * Measure + layout + draw time of the closed-poll results: the old
+ * LinearLayout/TextView/ProgressBar-per-option hierarchy against the single
+ * PollResultsView, at 2, 10 and 100 options. Prints microseconds per pass.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class PollResultsViewBenchmarkTest {
+
+    private static final int WIDTH = 1080;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 100;
+
+    @Test
+    public void compareWithViewHierarchy() {
+        Context ctx = new ContextThemeWrapper(RuntimeEnvironment.getApplication(), R.style.Theme_VotingPage);
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, 8192, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        for (int options : new int[] {2, 10, 100}) {
+            Poll poll = new Poll("Poll : Benchmark");
+            for (int i = 0; i < options; i++) {
+                poll.addOption("Choice " + i);
+                poll.tally.set(i, (i * 37) % 101);
+            }
+
+            LinearLayout hierarchy = buildHierarchy(ctx, poll);
+            PollResultsView single = new PollResultsView(ctx);
+            single.setResults(ResultSummary.of(poll, 1));
+
+            double oldUs = timePass(hierarchy, canvas);
+            double newUs = timePass(single, canvas);
+            System.out.printf("PollResultsView: %3d options  hierarchy %8.1f us  single view %8.1f us%n",
+                    options, oldUs, newUs);
+            assertTrue(single.getMeasuredHeight() > 0);
+        }
+    }
+
+    /** What ClosedVH used to build for every bind. */
+    private static LinearLayout buildHierarchy(Context ctx, Poll poll) {
+        int pad = Math.round(6 * ctx.getResources().getDisplayMetrics().density);
+        LinearLayout container = new LinearLayout(ctx);
+        container.setOrientation(LinearLayout.VERTICAL);
+        int total = Math.max(1, poll.totalVotes());
+        int win = poll.winningIndex();
+        for (int i = 0; i < poll.optionCount(); i++) {
+            LinearLayout wrap = new LinearLayout(ctx);
+            wrap.setOrientation(LinearLayout.VERTICAL);
+            wrap.setPadding(0, pad, 0, pad);
+
+            TextView label = new TextView(ctx);
+            int pct = (int) Math.round(100.0 * poll.votesFor(i) / total);
+            label.setText("Option #" + (i + 1) + ": " + poll.optionLabel(i) + "  (" + pct + "%)");
+            label.setTextColor(ContextCompat.getColor(ctx, i == win ? R.color.accent : R.color.gray_text));
+
+            ProgressBar bar = new ProgressBar(ctx, null, android.R.attr.progressBarStyleHorizontal);
+            bar.setMax(100);
+            bar.setProgress(pct);
+            bar.setProgressDrawable(ContextCompat.getDrawable(ctx, R.drawable.progress_orange));
+
+            wrap.addView(label);
+            wrap.addView(bar);
+            container.addView(wrap);
+        }
+        return container;
+    }
+
+    /** Average forced measure + layout + draw, in microseconds. */
+    private static double timePass(View v, Canvas canvas) {
+        int wSpec = View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY);
+        int hSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        long elapsed = 0;
+        for (int i = 0; i < WARMUP + RUNS; i++) {
+            long t0 = System.nanoTime();
+            invalidateTree(v);
+            v.measure(wSpec, hSpec);
+            v.layout(0, 0, v.getMeasuredWidth(), v.getMeasuredHeight());
+            v.draw(canvas);
+            if (i >= WARMUP) elapsed += System.nanoTime() - t0;
+        }
+        return elapsed / 1e3 / RUNS;
+    }
+
+    private static void invalidateTree(View v) {
+        v.forceLayout();
+        if (v instanceof LinearLayout) {
+            LinearLayout g = (LinearLayout) v;
+            for (int i = 0; i < g.getChildCount(); i++) invalidateTree(g.getChildAt(i));
+        }
+    }
+}
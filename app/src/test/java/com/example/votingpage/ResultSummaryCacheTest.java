@@ -0,0 +1,109 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import android.content.ComponentCallbacks2;
+
+import org.junit.Test;
+
+/**
+ * Hit/miss/version rules, LRU bound and trimming of the closed-card
+ * summary cache, plus the per-bind cost it removes.
+ */
+public class ResultSummaryCacheTest {
+
+    private static Poll closedPoll(long id, int options) {
+        Poll p = new Poll(id, "Poll : #" + id);
+        for (int i = 0; i < options; i++) {
+            p.addOption("Choice " + i);
+            p.tally.set(i, (int) ((id * 31 + i * 17) % 50));
+        }
+        p.closed = true;
+        return p;
+    }
+
+    @Test
+    public void reusesSummaryUntilResultsChange() {
+        ResultSummaryCache cache = new ResultSummaryCache(8);
+        Poll food = new Poll(1, "Poll : Favorite Food?");
+        food.addOption("Burger");
+        food.addOption("Hotdog");
+        food.addOption("Sandwich");
+        food.tally.set(0, 30);
+        food.tally.set(1, 15);
+        food.tally.set(2, 5);
+
+        PollCard card = PollCard.of(food);
+        ResultSummary s = cache.get(card, card.version);
+        assertEquals("Option #1: Burger  (60%)", s.rowText(0));
+        assertEquals(10, s.percent(2));
+        assertEquals("Final Vote: Burger", s.finalVote);
+        assertEquals("50 Votes", s.totalVotes);
+
+        PollCard again = PollCard.of(food);
+        assertSame(s, cache.get(again, again.version)); // same results, new card
+        food.vote(1);
+        PollCard voted = PollCard.of(food);
+        ResultSummary after = cache.get(voted, voted.version);
+        assertNotSame(s, after);
+        assertEquals("51 Votes", after.totalVotes);
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(1, cache.size()); // one entry per poll id
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedAndTrims() {
+        ResultSummaryCache cache = new ResultSummaryCache(4);
+        PollCard[] cards = new PollCard[6];
+        for (int i = 0; i < cards.length; i++) cards[i] = PollCard.of(closedPoll(i + 1, 3));
+        for (int i = 0; i < 4; i++) cache.get(cards[i], cards[i].version);
+        cache.get(cards[0], cards[0].version);            // 1 is now most recent
+        cache.get(cards[4], cards[4].version);            // evicts 2
+        cache.get(cards[5], cards[5].version);            // evicts 3
+        assertEquals(4, cache.size());
+        assertEquals(2, cache.evictions());
+        long misses = cache.misses();
+        cache.get(cards[0], cards[0].version);
+        assertEquals(misses, cache.misses());             // survived
+        cache.get(cards[1], cards[1].version);
+        assertEquals(misses + 1, cache.misses());         // was evicted
+
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertEquals(2, cache.size());
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void cachedBindSkipsStringBuilding() {
+        final int polls = 200, binds = 200_000;
+        PollCard[] cards = new PollCard[polls];
+        for (int i = 0; i < polls; i++) cards[i] = PollCard.of(closedPoll(i + 1, 5));
+        ResultSummaryCache cache = new ResultSummaryCache(512);
+
+        long sink = 0;
+        for (int round = 0; round < 2; round++) { // second round is measured
+            long t0 = System.nanoTime();
+            for (int b = 0; b < binds; b++) {
+                PollCard c = cards[b % polls];
+                sink += ResultSummary.of(c, c.version).rowText(0).length();
+            }
+            long uncached = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            for (int b = 0; b < binds; b++) {
+                PollCard c = cards[b % polls];
+                sink += cache.get(c, c.version).rowText(0).length();
+            }
+            long cached = System.nanoTime() - t0;
+            if (round == 1) {
+                System.out.printf("ResultSummaryCache: rebuild %.0f ns/bind, cached %.0f ns/bind, hit rate %.1f%% (%d)%n",
+                        (double) uncached / binds, (double) cached / binds,
+                        100.0 * cache.hits() / (cache.hits() + cache.misses()), sink % 10);
+            }
+        }
+        assertEquals(polls, cache.misses());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.votingpage;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records wall time, views created and bytes allocated per UI scenario and
+ * writes them as JSON. Views are counted by walking the window after each
+ * step: a view not seen before in this recorder counts as created. Bytes
+ * are those allocated on the test (main) thread; background diffing and
+ * storage threads are not included. Scenarios can attach their own
+ * numbers (frame times, bind counts) to an entry with {@link Entry#put}.
+ */
+final class UiPerfRecorder {
+
+    static final class Entry {
+        final String name;
+        final int iterations;
+        final long wallNanos;
+        final int viewsCreated;
+        final long allocatedBytes;
+        final Map<String, Double> extra = new LinkedHashMap<>();
+
+        Entry(String name, int iterations, long wallNanos, int viewsCreated, long allocatedBytes) {
+            this.name = name;
+            this.iterations = iterations;
+            this.wallNanos = wallNanos;
+            this.viewsCreated = viewsCreated;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        Entry put(String key, double value) {
+            extra.put(key, value);
+            return this;
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String screen;
+    private final Set<View> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Entry> entries = new ArrayList<>();
+
+    private String name;
+    private long startNanos, startBytes;
+    private int created;
+
+    UiPerfRecorder(String screen) {
+        this.screen = screen;
+    }
+
+    void begin(String scenario) {
+        name = scenario;
+        created = 0;
+        startBytes = allocatedBytes();
+        startNanos = System.nanoTime();
+    }
+
+    /** Counts views under {@code root} that were not there at any earlier sample. */
+    void sample(View root) {
+        if (seen.add(root)) created++;
+        if (root instanceof ViewGroup) {
+            ViewGroup g = (ViewGroup) root;
+            for (int i = 0; i < g.getChildCount(); i++) sample(g.getChildAt(i));
+        }
+    }
+
+    Entry end(View root, int iterations) {
+        long wall = System.nanoTime() - startNanos;
+        long bytes = allocatedBytes() - startBytes;
+        sample(root);
+        Entry e = new Entry(name, iterations, wall, created, bytes);
+        entries.add(e);
+        return e;
+    }
+
+    /** Writes {@code <dir>/<screen>.json}; dir comes from -DuiPerf.reportDir. */
+    File write() throws IOException {
+        File dir = new File(System.getProperty("uiPerf.reportDir", "build/reports/ui-perf"));
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        File f = new File(dir, screen + ".json");
+        try (Writer w = new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8)) {
+            w.write("{\"screen\":\"" + screen + "\",\"scenarios\":[");
+            for (int i = 0; i < entries.size(); i++) {
+                Entry e = entries.get(i);
+                if (i > 0) w.write(',');
+                w.write(String.format(Locale.ROOT,
+                        "{\"name\":\"%s\",\"iterations\":%d,\"wallMs\":%.3f,\"wallMsPerIteration\":%.3f,"
+                                + "\"viewsCreated\":%d,\"allocatedBytes\":%d,\"allocatedBytesPerIteration\":%d",
+                        e.name, e.iterations, e.wallNanos / 1e6, e.wallNanos / 1e6 / e.iterations,
+                        e.viewsCreated, e.allocatedBytes, e.allocatedBytes / e.iterations));
+                for (Map.Entry<String, Double> x : e.extra.entrySet()) {
+                    w.write(String.format(Locale.ROOT, ",\"%s\":%.3f", x.getKey(), x.getValue()));
+                }
+                w.write('}');
+            }
+            w.write("]}\n");
+        }
+        for (Entry e : entries) {
+            System.out.printf(Locale.ROOT, "ui-perf %s.%s: %.2f ms/iter, %d views, %d B/iter%n",
+                    screen, e.name, e.wallNanos / 1e6 / e.iterations, e.viewsCreated,
+                    e.allocatedBytes / e.iterations);
+            for (Map.Entry<String, Double> x : e.extra.entrySet()) {
+                System.out.printf(Locale.ROOT, "ui-perf %s.%s.%s: %.2f%n", screen, e.name, x.getKey(), x.getValue());
+            }
+        }
+        return f;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Device-free performance scenarios for the two screens, run as part of
+ * the normal unit tests. Each screen writes build/reports/ui-perf/<screen>.json
+ * (see UiPerfRecorder). Only deterministic budgets are asserted; timings
+ * and allocations are for comparing reports between versions.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class UiPerfTest {
+
+    private static final int WEEK_STEPS = 52;
+    private static final int POLLS = 300;
+    private static final int SCROLL_STEPS = 60;
+    private static final int VOTES = 20;
+    // Live results: 100 votes a frame is 6,000 a second at 60fps
+    private static final int LIVE_FRAMES = 120;
+    private static final int LIVE_VOTES_PER_FRAME = 100;
+    // List diffing: 17 votes a frame is ~1,000 a second at 60fps, on random polls of a long list
+    private static final int LIST_POLLS = 5_000;
+    private static final int LIST_FRAMES = 120;
+    private static final int LIST_VOTES_PER_FRAME = 17;
+
+    @Test
+    public void agenda() throws IOException {
+        UiPerfRecorder rec = new UiPerfRecorder("agenda");
+        launch(AgendaActivity.class).pause().stop().destroy(); // warm up classes and resources
+
+        rec.begin("launch");
+        ActivityController<AgendaActivity> c = launch(AgendaActivity.class);
+        View root = c.get().getWindow().getDecorView();
+        rec.end(root, 1);
+
+        View nextWeek = c.get().findViewById(R.id.btnNextWeek);
+        View prevWeek = c.get().findViewById(R.id.btnPrevWeek);
+        View nextDay = c.get().findViewById(R.id.btnNextDay);
+        rec.begin("weekNavigation");
+        for (int i = 0; i < WEEK_STEPS; i++) {
+            nextWeek.performClick();
+            nextDay.performClick();
+            frame();
+            rec.sample(root);
+        }
+        for (int i = 0; i < WEEK_STEPS; i++) {
+            prevWeek.performClick();
+            frame();
+            rec.sample(root);
+        }
+        UiPerfRecorder.Entry nav = rec.end(root, 3 * WEEK_STEPS);
+
+        c.pause().stop().destroy();
+        rec.write();
+        assertEquals("week navigation should only rebind", 0, nav.viewsCreated);
+    }
+
+    @Test
+    public void voting() throws IOException {
+        seedStore(POLLS);
+        UiPerfRecorder rec = new UiPerfRecorder("voting");
+        ActivityController<VotingActivity> first = launch(VotingActivity.class);
+        awaitUi(() -> first.get().voteIngestor() != null);
+        first.pause().stop().destroy();
+
+        rec.begin("launch");
+        ActivityController<VotingActivity> c = launch(VotingActivity.class);
+        awaitUi(() -> c.get().voteIngestor() != null); // the store loads off the main thread
+        View root = c.get().getWindow().getDecorView();
+        rec.end(root, 1);
+
+        RecyclerView rv = c.get().findViewById(R.id.rvPolls);
+        int step = Math.max(1, rv.getHeight() / 2);
+        rec.begin("scroll");
+        for (int i = 0; i < SCROLL_STEPS; i++) {
+            rv.scrollBy(0, step);
+            frame();
+            rec.sample(root);
+        }
+        for (int i = 0; i < SCROLL_STEPS; i++) {
+            rv.scrollBy(0, -step);
+            frame();
+            rec.sample(root);
+        }
+        rec.end(root, 2 * SCROLL_STEPS);
+
+        // One vote each first: a card's results appear with its first vote, which may push others off screen
+        VoteIngestor ingestor = c.get().voteIngestor();
+        long warm = ingestor.applied();
+        for (Poll p : openPollsOnScreen(rv)) if (ingestor.offer(p, 0)) warm++;
+        awaitVotes(ingestor, warm);
+        frame();
+        List<Poll> live = openPollsOnScreen(rv);
+        boolean metrics = Metrics.enabled();
+        Metrics.setEnabled(true);
+        long binds = bindCount();
+        long liveUpdates = Metrics.section("poll.liveResults").latency().count();
+        rec.begin("liveVotes");
+        for (int f = 0; f < LIVE_FRAMES; f++) {
+            long target = ingestor.applied();
+            for (int v = 0; v < LIVE_VOTES_PER_FRAME; v++) {
+                Poll p = live.get(v % live.size());
+                if (ingestor.offer(p, (v + f) % p.optionCount())) target++;
+            }
+            awaitVotes(ingestor, target);
+            frame();
+            rec.sample(root);
+        }
+        UiPerfRecorder.Entry liveVotes = rec.end(root, LIVE_FRAMES);
+        long rebinds = bindCount() - binds;
+        liveUpdates = Metrics.section("poll.liveResults").latency().count() - liveUpdates;
+        Metrics.setEnabled(metrics);
+
+        rec.begin("vote");
+        int voted = 0;
+        for (int pos = 0; pos < rv.getAdapter().getItemCount() && voted < VOTES; pos++) {
+            rv.scrollToPosition(pos);
+            frame();
+            RecyclerView.ViewHolder vh = rv.findViewHolderForAdapterPosition(pos);
+            if (!(vh instanceof PollAdapter.OpenVH)) continue;
+
+            final int p = pos;
+            ((PollAdapter.OpenVH) vh).optionsContainer.getChildAt(0).performClick();
+            awaitUi(() -> {
+                RecyclerView.ViewHolder h = rv.findViewHolderForAdapterPosition(p);
+                return h instanceof PollAdapter.OpenVH
+                        && ((PollAdapter.OpenVH) h).detailsPanel.getVisibility() == View.VISIBLE;
+            });
+            ((PollAdapter.OpenVH) rv.findViewHolderForAdapterPosition(p)).btnVote.performClick();
+            awaitUi(() -> rv.findViewHolderForAdapterPosition(p) instanceof PollAdapter.ClosedVH);
+            rec.sample(root);
+            voted++;
+        }
+        rec.end(root, Math.max(1, voted));
+
+        c.pause().stop().destroy();
+        rec.write();
+        assertEquals(VOTES, voted);
+        assertTrue("no open polls on screen", !live.isEmpty());
+        assertTrue("live results never updated", liveUpdates > 0);
+        assertEquals("live votes should not rebind cards", 0, rebinds);
+        assertEquals("live votes should not create views", 0, liveVotes.viewsCreated);
+    }
+
+    /**
+     * Launch with and without pre-inflated cards, into votingLaunch.json:
+     * wall time to the first drawn cards (launch + store load) and
+     * voting.firstFrame as the activity measured it.
+     */
+    @Test
+    public void votingLaunchPrewarm() throws IOException {
+        seedStore(POLLS);
+        UiPerfRecorder rec = new UiPerfRecorder("votingLaunch");
+        boolean metrics = Metrics.enabled();
+        Metrics.setEnabled(true);
+        Metrics.Counter hits = Metrics.counter("poll.warmPool.hits");
+        LatencyHistogram firstFrame = Metrics.histogram("voting.firstFrame");
+        long prewarmHits = 0;
+        try {
+            for (int round = 0; round < 2; round++) { // the first round warms up classes and resources
+                for (boolean prewarm : new boolean[] {false, true}) {
+                    VotingActivity.prewarm = prewarm;
+                    long h0 = hits.get();
+                    firstFrame.reset();
+                    rec.begin(prewarm ? "launchPrewarmed" : "launchColdInflate");
+                    ActivityController<VotingActivity> c = launch(VotingActivity.class);
+                    awaitUi(() -> c.get().voteIngestor() != null && firstFrame.count() > 0);
+                    View root = c.get().getWindow().getDecorView();
+                    if (round == 1) {
+                        rec.end(root, 1);
+                        System.out.printf("ui-perf votingLaunch prewarm=%b: voting.firstFrame %.2f ms%n",
+                                prewarm, firstFrame.max() / 1e6);
+                        if (prewarm) prewarmHits = hits.get() - h0;
+                    }
+                    c.pause().stop().destroy();
+                }
+            }
+        } finally {
+            VotingActivity.prewarm = true;
+            Metrics.setEnabled(metrics);
+        }
+        rec.write();
+        assertTrue("no pre-inflated view was used", prewarmHits > 0);
+    }
+
+    /**
+     * About 1,000 votes a second on random polls of a 5,000-poll list, into
+     * votingList.json: main-thread time per frame and full versus payload
+     * binds. Votes on closed polls are rediffed by AsyncListDiffer off the
+     * main thread; on-screen cards may only take payload binds.
+     */
+    @Test
+    public void votingListDiff() throws IOException {
+        seedStore(LIST_POLLS);
+        UiPerfRecorder rec = new UiPerfRecorder("votingList");
+        ActivityController<VotingActivity> first = launch(VotingActivity.class);
+        awaitUi(() -> first.get().voteIngestor() != null);
+        first.pause().stop().destroy();
+
+        ActivityController<VotingActivity> c = launch(VotingActivity.class);
+        RecyclerView rv = c.get().findViewById(R.id.rvPolls);
+        awaitUi(() -> c.get().voteIngestor() != null && rv.getAdapter() != null
+                && ((PollAdapter) rv.getAdapter()).pollAt(LIST_POLLS - 1) != null);
+        PollAdapter adapter = (PollAdapter) rv.getAdapter();
+        List<Poll> polls = new ArrayList<>(LIST_POLLS);
+        for (Poll p; (p = adapter.pollAt(polls.size())) != null; ) polls.add(p);
+        View root = c.get().getWindow().getDecorView();
+        rec.sample(root); // the cards already on screen were not created by the scenario
+
+        VoteIngestor ingestor = c.get().voteIngestor();
+        Random rnd = new Random(5);
+        boolean metrics = Metrics.enabled();
+        Metrics.setEnabled(true);
+        long full = Metrics.section("poll.bind").latency().count();
+        long payload = Metrics.section("poll.bindPayload").latency().count();
+        long[] frameNanos = new long[LIST_FRAMES];
+        rec.begin("updates1kPerSecond");
+        for (int f = 0; f < LIST_FRAMES; f++) {
+            long target = ingestor.applied();
+            for (int v = 0; v < LIST_VOTES_PER_FRAME; v++) {
+                Poll p = polls.get(rnd.nextInt(polls.size()));
+                if (ingestor.offer(p, rnd.nextInt(p.optionCount()))) target++;
+            }
+            awaitVotes(ingestor, target);
+            long t0 = System.nanoTime();
+            frame();
+            frameNanos[f] = System.nanoTime() - t0;
+            rec.sample(root);
+        }
+        settle();
+        UiPerfRecorder.Entry updates = rec.end(root, LIST_FRAMES);
+        full = Metrics.section("poll.bind").latency().count() - full;
+        payload = Metrics.section("poll.bindPayload").latency().count() - payload;
+        Metrics.setEnabled(metrics);
+
+        Arrays.sort(frameNanos);
+        updates.put("frameMsP50", frameNanos[LIST_FRAMES / 2] / 1e6)
+                .put("frameMsP99", frameNanos[LIST_FRAMES * 99 / 100] / 1e6)
+                .put("frameMsMax", frameNanos[LIST_FRAMES - 1] / 1e6)
+                .put("fullBinds", full)
+                .put("payloadBinds", payload);
+
+        c.pause().stop().destroy();
+        rec.write();
+        assertEquals(LIST_POLLS, polls.size());
+        assertEquals("votes should not rebind cards in full", 0, full);
+        assertEquals("votes should not create views", 0, updates.viewsCreated);
+    }
+
+    private static List<Poll> openPollsOnScreen(RecyclerView rv) {
+        List<Poll> polls = new ArrayList<>();
+        for (int i = 0; i < rv.getChildCount(); i++) {
+            RecyclerView.ViewHolder vh = rv.getChildViewHolder(rv.getChildAt(i));
+            if (vh instanceof PollAdapter.OpenVH) polls.add(((PollAdapter.OpenVH) vh).card.source);
+        }
+        return polls;
+    }
+
+    private static long bindCount() {
+        return Metrics.section("poll.bind").latency().count()
+                + Metrics.section("poll.bindPayload").latency().count();
+    }
+
+    /** Waits until the ingest thread applied {@code applied} votes; the next frame() hands them to the adapter. */
+    private static void awaitVotes(VoteIngestor ingestor, long applied) {
+        awaitUi(() -> ingestor.applied() >= applied);
+    }
+
+    /** Synthetic polls: 2..6 options, every third one closed with votes. */
+    private static void seedStore(int count) throws IOException {
+        File dir = new File(RuntimeEnvironment.getApplication().getFilesDir(), "polls");
+        PollStore store = PollStore.open(dir);
+        try {
+            for (int i = 0; i < count; i++) {
+                Poll p = new Poll("Poll : Synthetic #" + i);
+                if (i % 2 == 0) p.description = "Generated for the UI performance suite.";
+                int options = 2 + i % 5;
+                for (int o = 0; o < options; o++) {
+                    p.addOption("Choice " + o);
+                    if (i % 3 == 0) p.tally.set(o, (i * 7 + o * 13) % 50);
+                }
+                p.closed = i % 3 == 0;
+                store.addPoll(p);
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    private static <T extends Activity> ActivityController<T> launch(Class<T> type) {
+        ActivityController<T> c = Robolectric.buildActivity(type).setup();
+        frame();
+        return c;
+    }
+
+    /** Runs everything due on the main looper plus one frame of layout/draw. */
+    private static void frame() {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(17));
+    }
+
+    /** A few paced frames, so background diffs still in flight land. */
+    private static void settle() {
+        long[] frames = {0};
+        awaitUi(() -> ++frames[0] > 20);
+    }
+
+    /** Lets AsyncListDiffer's background diff land, then lays out. */
+    private static void awaitUi(BooleanSupplier done) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!done.getAsBoolean()) {
+            assertTrue("UI did not settle", System.nanoTime() < deadline);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+            frame();
+        }
+    }
+}
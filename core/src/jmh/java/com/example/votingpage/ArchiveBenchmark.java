@@ -0,0 +1,111 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The mapped 1M-poll archive: opening it, and one frame of a fling that
+ * binds 16 rows through an ArchivePager, falling back to a direct row read
+ * when a page hasn't loaded yet. The pager hit rate is printed at teardown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArchiveBenchmark {
+
+    @Param({"1000000"})
+    int polls;
+
+    static final int ROWS_PER_FRAME = 16;
+
+    File file;
+    PollArchive archive;
+    ArchivePager pager;
+    PollArchive.Row fallback;
+    ExecutorService loader;
+    int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("archive", ".bin");
+        PollArchive.Writer w = new PollArchive.Writer();
+        Synthetic s = new Synthetic();
+        for (int i = 0; i < polls; i++) w.add(s.at(i));
+        w.writeTo(file);
+        System.out.printf("%narchive: %,d KB%n", file.length() / 1024);
+
+        archive = PollArchive.open(file);
+        loader = Executors.newSingleThreadExecutor();
+        pager = new ArchivePager(archive, 64, 16, 4, loader);
+        fallback = archive.newRow();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.out.printf("%npager hit rate %.1f%%%n", 100.0 * pager.hits() / (pager.hits() + pager.misses()));
+        loader.shutdownNow();
+        loader.awaitTermination(5, TimeUnit.SECONDS);
+        archive.close();
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Benchmark
+    public int open() throws IOException {
+        try (PollArchive a = PollArchive.open(file)) {
+            return a.size();
+        }
+    }
+
+    @Benchmark
+    public long scrollFrame() {
+        long sink = 0;
+        for (int k = 0; k < ROWS_PER_FRAME; k++) {
+            int i = next++;
+            if (next == polls) next = 0;
+            PollResults r = pager.get(i);
+            if (r == null) r = fallback.moveTo(i);
+            sink += r.title().length() + r.optionLabel(r.winningIndex()).length() + r.totalVotes();
+        }
+        return sink;
+    }
+
+    /** Allocation-light stand-in so building the archive doesn't need 1M Polls. */
+    private static class Synthetic implements PollResults {
+        private int i;
+
+        Synthetic at(int i) {
+            this.i = i;
+            return this;
+        }
+
+        @Override public long id() { return i; }
+        @Override public String title() { return "Poll : archived question #" + i; }
+        @Override public int optionCount() { return 4; }
+        @Override public String optionLabel(int index) { return "Option " + index; }
+        @Override public int votesFor(int index) { return (i * 31 + index * 7) % 100; }
+        @Override public int totalVotes() {
+            int t = 0;
+            for (int k = 0; k < 4; k++) t += votesFor(k);
+            return t;
+        }
+        @Override public int winningIndex() {
+            int w = 0;
+            for (int k = 1; k < 4; k++) if (votesFor(k) > votesFor(w)) w = k;
+            return w;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A paper election of 6M two-choice ballots over 40 candidates in each
+ * file format: writing it, streaming it to a sink that only counts, and
+ * importing it as a new poll. Divide the file size printed at setup by
+ * the time for MB/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BallotIOBenchmark {
+
+    @Param({"6000000"})
+    int ballots;
+
+    @Param({"CSV", "BINARY"})
+    BallotIO.Format format;
+
+    static final int OPTIONS = 40;
+
+    Poll poll;
+    File file, scratch;
+    final int[] ballot = new int[3];
+    long sink;
+
+    final BallotIO.Sink counter = new BallotIO.Sink() {
+        @Override
+        public void poll(long id, Poll p) {
+        }
+
+        @Override
+        public void votes(long pollId, int option, int count) {
+        }
+
+        @Override
+        public void ballot(long pollId, int[] choices, int n) {
+            sink += choices[0];
+        }
+    };
+
+    @Setup
+    public void setUp() throws IOException {
+        poll = new Poll(424242, "Poll : Paper election");
+        for (int o = 0; o < OPTIONS; o++) poll.addOption("Candidate " + o);
+        file = File.createTempFile("election", "." + format);
+        scratch = File.createTempFile("election-write", "." + format);
+        write(file);
+        System.out.printf("%n%s file: %.0f MB%n", format, file.length() / 1e6);
+    }
+
+    @TearDown
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+        //noinspection ResultOfMethodCallIgnored
+        scratch.delete();
+    }
+
+    @Benchmark
+    public long writeFile() throws IOException {
+        write(scratch);
+        return scratch.length();
+    }
+
+    @Benchmark
+    public long read() throws IOException {
+        return BallotIO.read(file, format, counter, null) + sink;
+    }
+
+    @Benchmark
+    public int importAsNewPoll() throws IOException {
+        PollImporter importer = new PollImporter(Collections.emptyList(), null);
+        BallotIO.read(file, format, importer, null);
+        return importer.added().get(0).totalVotes();
+    }
+
+    private void write(File f) throws IOException {
+        try (BallotIO.Writer w = BallotIO.Writer.open(f, format)) {
+            w.poll(poll);
+            for (int i = 0; i < ballots; i++) {
+                ballot[0] = i % OPTIONS;
+                ballot[1] = (i * 7 + 1) % OPTIONS;
+                w.ballot(poll.id, ballot, ballot[0] == ballot[1] ? 1 : 2);
+            }
+            w.commit();
+        }
+    }
+}
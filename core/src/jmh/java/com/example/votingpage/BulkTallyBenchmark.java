@@ -0,0 +1,62 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting a 10M-ballot box: one Poll.vote() per ballot (the UI path),
+ * BulkTally on one thread, and BulkTally split over the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkTallyBenchmark {
+
+    @Param({"10000000"})
+    int ballots;
+
+    @Param({"3", "50"})
+    int options;
+
+    int[] box;
+
+    @Setup
+    public void setUp() {
+        box = new int[ballots];
+        Random rnd = new Random(23);
+        for (int i = 0; i < ballots; i++) box[i] = rnd.nextInt(options);
+    }
+
+    @Benchmark
+    public int votePerBallot() {
+        Poll poll = poll();
+        for (int b : box) poll.vote(b);
+        return poll.winningIndex();
+    }
+
+    @Benchmark
+    public int[] sequential() {
+        return BulkTally.countSequential(box, 0, ballots, options);
+    }
+
+    @Benchmark
+    public int[] parallel() {
+        return BulkTally.count(box, 0, ballots, options, ForkJoinPool.commonPool());
+    }
+
+    private Poll poll() {
+        Poll p = new Poll("Benchmark");
+        for (int i = 0; i < options; i++) p.addOption("Option " + i);
+        return p;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VoteCounters merge cost at replicas x options (1k x 1k by default):
+ * merging a state that brings nothing new (the common anti-entropy case),
+ * one where every cell moved, and merging straight from the encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CrdtMergeBenchmark {
+
+    @Param({"1000"})
+    int replicas;
+
+    @Param({"1000"})
+    int options;
+
+    VoteCounters remote;       // every cell set
+    VoteCounters upToDate;     // already contains remote
+    VoteCounters behind;       // every cell one lower than remote; rebuilt per invocation
+    byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(3);
+        remote = new VoteCounters();
+        for (int r = 0; r < replicas; r++) {
+            for (int o = 0; o < options; o++) remote.add(r, o, 2 + rnd.nextInt(100));
+        }
+        upToDate = new VoteCounters();
+        upToDate.merge(remote);
+        SyncProtocol.Out out = new SyncProtocol.Out();
+        remote.encode(out);
+        encoded = out.toByteArray();
+        System.out.printf("%nencoded state: %,d bytes (%.2f per cell)%n",
+                encoded.length, (double) encoded.length / replicas / options);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBehind() {
+        behind = new VoteCounters();
+        for (int r = 0; r < replicas; r++) {
+            for (int o = 0; o < options; o++) behind.add(r, o, 1);
+        }
+    }
+
+    @Benchmark
+    public int mergeNothingNew() {
+        upToDate.merge(remote);
+        return upToDate.changedCount();
+    }
+
+    @Benchmark
+    public int mergeEveryCellMoved() {
+        behind.merge(remote);
+        return behind.changedCount();
+    }
+
+    @Benchmark
+    public int mergeFromEncoded() throws IOException {
+        upToDate.mergeFrom(new SyncProtocol.In(encoded, 0, encoded.length));
+        return upToDate.changedCount();
+    }
+}
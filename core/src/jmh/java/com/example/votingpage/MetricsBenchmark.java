@@ -0,0 +1,49 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a Metrics.Section adds around a hot path: one begin/end pair with
+ * metrics off (the shipped default, meant to be a field read) and on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsBenchmark {
+
+    @Param({"false", "true"})
+    boolean enabled;
+
+    Metrics.Section section;
+    long value;
+
+    @Setup
+    public void setUp() {
+        Metrics.setEnabled(enabled);
+        section = Metrics.section("benchmark.section");
+    }
+
+    @TearDown
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Benchmark
+    public long section() {
+        long t = section.begin();
+        long v = ++value;
+        section.end(t);
+        return v;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PollSearchIndex over 100k synthetic polls drawn from a 20k-word
+ * vocabulary: building the index, and queries as they are typed (growing
+ * prefixes, two words, a dropped first letter, a single letter), cycling
+ * through 2,000 of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PollSearchBenchmark {
+
+    @Param({"100000"})
+    int polls;
+
+    Poll[] corpus;
+    PollSearchIndex index;
+    String[] queries;
+    int next;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(100_000);
+        String[] words = vocabulary(rnd, 20_000);
+        corpus = new Poll[polls];
+        for (int i = 0; i < polls; i++) corpus[i] = randomPoll(rnd, words);
+        index = buildIndex();
+
+        queries = new String[2000];
+        for (int i = 0; i < queries.length; i++) {
+            String a = words[rnd.nextInt(words.length)];
+            String b = words[rnd.nextInt(words.length)];
+            switch (i % 4) {
+                case 0: queries[i] = a.substring(0, 1 + rnd.nextInt(a.length())); break; // typing
+                case 1: queries[i] = a + " " + b.substring(0, 2); break;
+                case 2: queries[i] = a.length() > 4 ? a.substring(1) : a; break;            // typo
+                default: queries[i] = a.substring(0, 1); break;                             // widest prefix
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PollSearchIndex buildIndex() {
+        PollSearchIndex idx = new PollSearchIndex();
+        for (Poll p : corpus) idx.add(p);
+        return idx;
+    }
+
+    @Benchmark
+    public int search() {
+        String q = queries[next];
+        next = next + 1 == queries.length ? 0 : next + 1;
+        return index.search(q).size();
+    }
+
+    private static String[] vocabulary(Random rnd, int n) {
+        String consonants = "bcdfghjklmnprstvwz", vowels = "aeiou";
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder w = new StringBuilder();
+            int syllables = 1 + rnd.nextInt(4);
+            for (int s = 0; s < syllables; s++) {
+                w.append(consonants.charAt(rnd.nextInt(consonants.length())));
+                w.append(vowels.charAt(rnd.nextInt(vowels.length())));
+            }
+            words[i] = w.toString();
+        }
+        return words;
+    }
+
+    private static Poll randomPoll(Random rnd, String[] words) {
+        Poll p = new Poll("Poll : " + phrase(rnd, words, 2 + rnd.nextInt(4)) + "?");
+        if (rnd.nextBoolean()) p.description = phrase(rnd, words, 3 + rnd.nextInt(8));
+        int options = 2 + rnd.nextInt(4);
+        for (int o = 0; o < options; o++) p.addOption(phrase(rnd, words, 1 + rnd.nextInt(2)));
+        return p;
+    }
+
+    private static String phrase(Random rnd, String[] words, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(words[(int) Math.min(words.length - 1, Math.abs(rnd.nextGaussian()) * words.length / 3)]);
+        }
+        return sb.toString();
+    }
+}
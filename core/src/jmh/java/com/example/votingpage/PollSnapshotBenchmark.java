@@ -0,0 +1,71 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poll creation (one option at a time and in bulk) and the PollStore snapshot encoding (writePoll/readPoll)
+ * of a single poll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PollSnapshotBenchmark {
+
+    @Param({"2", "10", "100", "1000"})
+    int options;
+
+    String[] labels;
+    Poll poll;
+    byte[] encoded;
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    @Setup
+    public void setUp() throws IOException {
+        labels = new String[options];
+        for (int i = 0; i < options; i++) labels[i] = "Option " + i;
+        poll = createPoll();
+        poll.description = "A poll used by the snapshot benchmark";
+        for (int i = 0; i < options; i++) poll.tally.set(i, i * 31);
+        encoded = writeSnapshot();
+    }
+
+    @Benchmark
+    public Poll createPoll() {
+        Poll p = new Poll("Poll : Benchmark");
+        for (String label : labels) p.addOption(label);
+        return p;
+    }
+
+    @Benchmark
+    public Poll createPollBulk() {
+        Poll p = new Poll("Poll : Benchmark");
+        p.addOptions(labels);
+        return p;
+    }
+
+    @Benchmark
+    public byte[] writeSnapshot() throws IOException {
+        buffer.reset();
+        PollStore.writePoll(new DataOutputStream(buffer), poll);
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public Poll readSnapshot() throws IOException {
+        return PollStore.readPoll(new DataInputStream(new ByteArrayInputStream(encoded)));
+    }
+}
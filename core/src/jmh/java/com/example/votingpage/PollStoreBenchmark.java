@@ -0,0 +1,88 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PollStore over 100k three-option polls: journaling one vote (batched
+ * fsync every 50 ms, as the app runs it) and a cold open that loads the
+ * compacted snapshot.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PollStoreBenchmark {
+
+    @Param({"100000"})
+    int polls;
+
+    File snapshotDir, journalDir;
+    PollStore store;
+    Poll[] live;
+    int next;
+
+    @Setup
+    public void setUp() throws IOException, ExecutionException, InterruptedException {
+        snapshotDir = Files.createTempDirectory("pollstore-snap").toFile();
+        try (PollStore s = PollStore.open(snapshotDir, 0, 0)) {
+            fill(s);
+            s.compactAsync().get();
+        }
+        journalDir = Files.createTempDirectory("pollstore-journal").toFile();
+        store = PollStore.open(journalDir, 50, 0);
+        live = fill(store);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        delete(snapshotDir);
+        delete(journalDir);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void journalVote() throws IOException {
+        int i = next;
+        next = i + 1 == live.length ? 0 : i + 1;
+        store.vote(live[i], i % 3);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int coldLoad() throws IOException {
+        try (PollStore s = PollStore.open(snapshotDir, 0, 0)) {
+            return s.size();
+        }
+    }
+
+    private Poll[] fill(PollStore s) throws IOException {
+        Poll[] res = new Poll[polls];
+        for (int i = 0; i < polls; i++) {
+            Poll p = new Poll("Poll : #" + i);
+            p.addOptions(new String[] {"Yes", "No", "Maybe"});
+            s.addPoll(p);
+            res[i] = p;
+        }
+        return res;
+    }
+
+    private static void delete(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+}
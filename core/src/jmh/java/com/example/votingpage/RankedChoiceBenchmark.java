@@ -0,0 +1,80 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instant-runoff over 1M uniform full rankings of 50 options (49 rounds):
+ * a full recount, and one more ballot cast and counted incrementally on
+ * top of the kept rounds. The poll is rebuilt before each iteration so
+ * the incremental case does not drift.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class RankedChoiceBenchmark {
+
+    @Param({"1000000"})
+    int ballots;
+
+    @Param({"50"})
+    int options;
+
+    int[][] box, extra;
+    RankedChoiceVoting irv;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(50);
+        box = new int[ballots][];
+        for (int i = 0; i < ballots; i++) box[i] = randomBallot(rnd, options);
+        extra = new int[4096][];
+        for (int i = 0; i < extra.length; i++) extra[i] = randomBallot(rnd, options);
+    }
+
+    @Setup(Level.Iteration)
+    public void rebuild() {
+        Poll p = new Poll("Poll : Ranked");
+        for (int i = 0; i < options; i++) p.addOption("Choice " + i);
+        irv = new RankedChoiceVoting(p);
+        for (int[] b : box) irv.cast(b);
+        irv.recount();
+        next = 0;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int fullRecount() {
+        return irv.recount();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int castAndCount() {
+        irv.cast(extra[next]);
+        next = next + 1 == extra.length ? 0 : next + 1;
+        return irv.winningIndex();
+    }
+
+    private static int[] randomBallot(Random rnd, int options) {
+        int[] perm = new int[options];
+        for (int i = 0; i < options; i++) perm[i] = i;
+        for (int i = options - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = perm[i];
+            perm[i] = perm[j];
+            perm[j] = t;
+        }
+        return perm;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10k replicas syncing over loopback TCP through 16 shared connections
+ * (like a gateway): one vote reaching another replica (A votes and syncs,
+ * B syncs), and a round where every replica votes and syncs, then all
+ * sync again so everyone has every vote. Bytes per vote up and down and
+ * log bytes per vote are printed at teardown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class SyncBenchmark {
+
+    @Param({"10000"})
+    int clients;
+
+    static final int POLLS = 8;
+    static final int CONNECTIONS = 16;
+
+    SyncServer server;
+    SyncServer.Listener listener;
+    SocketSyncTransport[] conns;
+    SyncClient[] replicas;
+    long[] pollIds;
+    final Random rnd = new Random(1);
+    long votes, upBefore, downBefore, logBefore;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new SyncServer();
+        InetAddress lo = InetAddress.getLoopbackAddress();
+        listener = server.listen(lo, 0);
+        conns = new SocketSyncTransport[CONNECTIONS];
+        for (int i = 0; i < CONNECTIONS; i++) {
+            conns[i] = new SocketSyncTransport(new InetSocketAddress(lo, listener.port()), 10_000);
+        }
+        replicas = new SyncClient[clients];
+        for (int i = 0; i < clients; i++) replicas[i] = new SyncClient(i + 1, conns[i % CONNECTIONS]);
+
+        pollIds = new long[POLLS];
+        for (int i = 0; i < POLLS; i++) {
+            Poll p = new Poll(replicas[0].newPollId(), "Poll : Load " + i);
+            p.addOptions("A", "B", "C", "D");
+            replicas[0].addPoll(p);
+            pollIds[i] = p.id;
+        }
+        replicas[0].sync();
+        for (SyncClient c : replicas) c.sync(); // everyone learns the polls
+        for (SyncClient c : replicas) {
+            upBefore += c.bytesSent();
+            downBefore += c.bytesReceived();
+        }
+        logBefore = server.logSize();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        long up = -upBefore, down = -downBefore;
+        for (SyncClient c : replicas) {
+            up += c.bytesSent();
+            down += c.bytesReceived();
+        }
+        System.out.printf("%n%,d votes: up %.1f B/vote (request framing included), down %.1f B/vote, log %.1f B/vote%n",
+                votes, (double) up / votes, (double) down / votes, (double) (server.logSize() - logBefore) / votes);
+        for (SocketSyncTransport t : conns) t.close();
+        listener.close();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int oneVoteAToB() throws IOException {
+        SyncClient a = replicas[rnd.nextInt(clients)], b = replicas[rnd.nextInt(clients)];
+        a.vote(a.poll(pollIds[0]), 0);
+        votes++;
+        a.sync();
+        return b.sync();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int roundOfVotes() throws IOException {
+        int applied = 0;
+        for (SyncClient c : replicas) {
+            c.vote(c.poll(pollIds[rnd.nextInt(POLLS)]), rnd.nextInt(4));
+            applied += c.sync();
+        }
+        votes += clients;
+        for (SyncClient c : replicas) applied += c.sync(); // second pass: everyone sees every vote
+        return applied;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result queries at 2..10k options. scanWinner is the linear scan the
+ * tally replaced, kept as a baseline for winningIndex().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TallyQueryBenchmark {
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    int options;
+
+    Poll poll;
+
+    @Setup
+    public void setUp() {
+        poll = new Poll("Benchmark");
+        Random rnd = new Random(42);
+        for (int i = 0; i < options; i++) {
+            poll.addOption("Option " + i);
+            poll.tally.set(i, rnd.nextInt(1_000_000));
+        }
+    }
+
+    @Benchmark
+    public int totalVotes() {
+        return poll.totalVotes();
+    }
+
+    @Benchmark
+    public int winningIndex() {
+        return poll.winningIndex();
+    }
+
+    @Benchmark
+    public int scanWinner() {
+        int best = 0;
+        for (int i = 1; i < options; i++) {
+            if (poll.votesFor(i) > poll.votesFor(best)) best = i;
+        }
+        return best;
+    }
+
+    @Benchmark
+    public VoteTally.Snapshot snapshot() {
+        return poll.tally.snapshot();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poll.vote() throughput: one thread, four threads spread over the
+ * options, and four threads all hitting the same option (worst case for
+ * the count and the leader tree).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VoteIngestBenchmark {
+
+    @Param({"2", "10", "1000"})
+    int options;
+
+    Poll poll;
+
+    @Setup
+    public void setUp() {
+        poll = new Poll("Benchmark");
+        for (int i = 0; i < options; i++) poll.addOption("Option " + i);
+    }
+
+    /** Per-thread option cursor, so picking an option costs nothing. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance(int n) {
+            int i = next;
+            next = i + 1 == n ? 0 : i + 1;
+            return i;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void voteSingleThread(Cursor c) {
+        poll.vote(c.advance(options));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void voteFourThreads(Cursor c) {
+        poll.vote(c.advance(options));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void voteFourThreadsSameOption() {
+        poll.vote(0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.votingpage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of 1M votes from four producers through VoteIngestor, in memory
+ * and journaled to a PollStore, until the worker has applied the last one.
+ * Divide 1M by the time for votes/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VoteIngestorBenchmark {
+
+    @Param({"memory", "journaled"})
+    String mode;
+
+    static final int PRODUCERS = 4;
+    static final int VOTES_PER_PRODUCER = 250_000;
+
+    File dir;
+    PollStore store;
+    Poll[] polls;
+
+    final VoteIngestor.Listener listener = new VoteIngestor.Listener() {
+        @Override
+        public void onApplied(List<Poll> changed) {
+        }
+
+        @Override
+        public void onFailed(IOException e, int dropped) {
+            throw new AssertionError(e);
+        }
+    };
+
+    @Setup
+    public void setUp() throws IOException {
+        polls = new Poll[] {poll(2), poll(5), poll(10)};
+        if ("journaled".equals(mode)) {
+            dir = Files.createTempDirectory("ingest").toFile();
+            store = PollStore.open(dir);
+            for (Poll p : polls) store.addPoll(p);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (store == null) return;
+        store.close();
+        for (File f : dir.listFiles()) //noinspection ResultOfMethodCallIgnored
+            f.delete();
+        //noinspection ResultOfMethodCallIgnored
+        dir.delete();
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        VoteIngestor ingestor = VoteIngestor.start(store, 8192, listener);
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int t = 0; t < PRODUCERS; t++) {
+            producers[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < VOTES_PER_PRODUCER; i++) {
+                        Poll p = polls[i % polls.length];
+                        ingestor.submit(p, i % p.optionCount());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread t : producers) t.join();
+        ingestor.close(); // applies everything queued
+        return ingestor.applied();
+    }
+
+    private static Poll poll(int options) {
+        Poll p = new Poll("Poll : Ingest");
+        for (int i = 0; i < options; i++) p.addOption("Option " + i);
+        return p;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.votingpage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Approval voting: a ballot approves any number of options, each approval
+ * is one vote in the poll's tally, and the most approved option wins.
+ * Ballots are not kept; the tally is the whole state.
+ */
+public final class ApprovalVoting implements VotingMethod {
+
+    private final VoteTally tally;
+    private final AtomicInteger ballots = new AtomicInteger();
+
+    public ApprovalVoting(Poll poll) {
+        this(poll, 0);
+    }
+
+    /** Restores a count of {@code ballots} already in the poll's tally (PollStore). */
+    ApprovalVoting(Poll poll, int ballots) {
+        this.tally = poll.tally;
+        this.ballots.set(ballots);
+    }
+
+    /** An empty ballot is an abstention; approving an option twice counts once. */
+    @Override
+    public void cast(int[] choices) {
+        int n = tally.size();
+        for (int c : choices) {
+            if (c < 0 || c >= n) throw new IllegalArgumentException("No option " + c);
+        }
+        for (int i = 0; i < choices.length; i++) {
+            int c = choices[i];
+            boolean repeat = false;
+            for (int j = 0; j < i && !repeat; j++) repeat = choices[j] == c;
+            if (!repeat) tally.vote(c);
+        }
+        ballots.incrementAndGet();
+    }
+
+    @Override
+    public int ballots() {
+        return ballots.get();
+    }
+
+    @Override
+    public int winningIndex() {
+        return tally.winningIndex();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.votingpage;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Windowed read-ahead over a PollArchive for a scrolling list. Rows are
+ * decoded a page at a time on {@code loader}, ahead of the scroll
+ * direction, into small immutable snapshots. Pages far from the row the
+ * list last asked for are evicted, so at most maxPages * pageSize rows
+ * are ever on the heap, however large the archive.
+ *
+ * get() never blocks: a row whose page hasn't landed yet returns null and
+ * the caller reads it through a PollArchive.Row flyweight instead, so a
+ * fling faster than the loader costs a direct mapped read, not a stall.
+ */
+public class ArchivePager {
+
+    private final PollArchive archive;
+    private final int pageSize, maxPages, ahead, lastPage;
+    private final Executor loader;
+
+    private final Object lock = new Object();
+    private final Map<Integer, Snapshot[]> pages = new HashMap<>(); // guarded by lock
+    private final Set<Integer> loading = new HashSet<>();           // guarded by lock
+    private int focusPage;                                          // guarded by lock
+
+    private int lastIndex; // caller's thread only
+    private long hits, misses;
+
+    /**
+     * @param ahead pages prefetched in the scroll direction; one page behind
+     *              is kept too, so {@code maxPages} must be at least ahead + 2
+     */
+    public ArchivePager(PollArchive archive, int pageSize, int maxPages, int ahead, Executor loader) {
+        if (pageSize < 1 || ahead < 0 || maxPages < ahead + 2) {
+            throw new IllegalArgumentException("Bad window " + pageSize + "/" + maxPages + "/" + ahead);
+        }
+        this.archive = archive;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.ahead = ahead;
+        this.lastPage = (archive.size() - 1) / pageSize;
+        this.loader = loader;
+    }
+
+    public PollArchive archive() {
+        return archive;
+    }
+
+    /** Row {@code index} if its page is loaded, else null; schedules the window around it. */
+    public PollResults get(int index) {
+        int page = index / pageSize;
+        int step = index >= lastIndex ? 1 : -1;
+        lastIndex = index;
+        Snapshot[] rows;
+        synchronized (lock) {
+            focusPage = page;
+            rows = pages.get(page);
+            request(page);
+            for (int k = 1; k <= ahead; k++) request(page + k * step);
+            request(page - step);
+        }
+        if (rows == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return rows[index - page * pageSize];
+    }
+
+    /** Rows served from a loaded page vs. left to the flyweight. */
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public int loadedPages() {
+        synchronized (lock) {
+            return pages.size();
+        }
+    }
+
+    private void request(int page) {
+        if (page < 0 || page > lastPage || pages.containsKey(page) || !loading.add(page)) return;
+        try {
+            loader.execute(() -> load(page));
+        } catch (RejectedExecutionException e) {
+            loading.remove(page); // shutting down
+        }
+    }
+
+    private void load(int page) {
+        synchronized (lock) {
+            if (Math.abs(page - focusPage) > maxPages / 2) { // scrolled away while queued
+                loading.remove(page);
+                return;
+            }
+        }
+        int first = page * pageSize;
+        int n = Math.min(pageSize, archive.size() - first);
+        Snapshot[] rows = new Snapshot[n];
+        PollArchive.Row row = archive.newRow();
+        for (int i = 0; i < n; i++) rows[i] = new Snapshot(row.moveTo(first + i));
+        synchronized (lock) {
+            loading.remove(page);
+            pages.put(page, rows);
+            while (pages.size() > maxPages) evictFarthest();
+        }
+    }
+
+    private void evictFarthest() {
+        int far = focusPage;
+        for (int p : pages.keySet()) {
+            if (Math.abs(p - focusPage) > Math.abs(far - focusPage)) far = p;
+        }
+        pages.remove(far);
+    }
+
+    /** One archived poll, decoded. */
+    static final class Snapshot implements PollResults {
+        private final long id;
+        private final String title;
+        private final String[] labels;
+        private final int[] votes;
+        private final int total, winner;
+
+        Snapshot(PollResults p) {
+            id = p.id();
+            title = p.title();
+            int n = p.optionCount();
+            labels = new String[n];
+            votes = new int[n];
+            for (int i = 0; i < n; i++) {
+                labels[i] = p.optionLabel(i);
+                votes[i] = p.votesFor(i);
+            }
+            total = p.totalVotes();
+            winner = p.winningIndex();
+        }
+
+        @Override public long id() { return id; }
+        @Override public String title() { return title; }
+        @Override public int optionCount() { return labels.length; }
+        @Override public String optionLabel(int index) { return labels[index]; }
+        @Override public int votesFor(int index) { return votes[index]; }
+        @Override public int totalVotes() { return total; }
+        @Override public int winningIndex() { return winner; }
+    }
+}
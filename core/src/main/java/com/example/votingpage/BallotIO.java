@@ -0,0 +1,686 @@
+package com.example.votingpage;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Streaming import/export of polls, vote counts and ballots, as CSV or a
+ * compact binary format. Both directions go through one fixed 64 KB
+ * buffer over an NIO channel, so memory use does not depend on the file
+ * size; a single record must fit in the buffer.
+ *
+ * CSV, one record per line (RFC 4180 quoting, lines starting with '#'
+ * are comments):
+ *   poll,id,open|closed,plurality|ranked|approval,question,description,link,option...
+ *   votes,poll id,option,count
+ *   ballot,poll id,choice[,choice...]
+ *
+ * Binary: "BALT", a version byte, then records led by a type byte:
+ *   1 poll    id:long flags:byte question [description] [link] n:varint label*n
+ *   2 votes   option:varint count:varint        (for the current poll)
+ *   3 ballot  n:varint choice:varint*n           (for the current poll)
+ *   4 use     id:long                            (makes another poll current)
+ * Strings are a varint byte length and UTF-8; a poll record makes its poll
+ * current, so a plurality ballot costs 3 bytes.
+ *
+ * Plain java.io/nio on File (java.nio.file needs API 26).
+ */
+public final class BallotIO {
+
+    public enum Format { CSV, BINARY }
+
+    /** Receives records in file order. */
+    public interface Sink {
+        /**
+         * A poll with its options and method; no votes yet. It has a fresh
+         * local id; {@code id} is the one in the file, which later votes and
+         * ballots refer to.
+         */
+        void poll(long id, Poll poll) throws IOException;
+
+        void votes(long pollId, int option, int count) throws IOException;
+
+        /** {@code choices[0, n)}, best first; the array is reused for the next ballot. */
+        void ballot(long pollId, int[] choices, int n) throws IOException;
+
+        /** The whole file was read. Not called on failure or cancellation. */
+        default void end() throws IOException {
+        }
+    }
+
+    /** Told about every MB (bytes) or poll (exports) and at the end; return false to cancel. */
+    public interface Progress {
+        boolean update(long done, long total);
+    }
+
+    static final int BUFFER = 64 * 1024;
+    static final int MAX_CHOICES = 1024;
+    private static final int MAGIC = 0x42414C54; // "BALT"
+    private static final int VERSION = 1;
+    private static final long REPORT_BYTES = 1 << 20;
+
+    private static final byte REC_POLL = 1, REC_VOTES = 2, REC_BALLOT = 3, REC_USE = 4;
+    private static final int FLAG_CLOSED = 1, FLAG_DESCRIPTION = 2, FLAG_LINK = 4;
+    private static final int FLAG_RANKED = 8, FLAG_APPROVAL = 16;
+    private static final String[] METHODS = {"plurality", "ranked", "approval"};
+
+    private BallotIO() {
+    }
+
+    // ---------------- import ----------------
+
+    /** Reads {@code file} into {@code sink}; returns the number of records. */
+    public static long read(File file, Format format, Sink sink, Progress progress) throws IOException {
+        try (FileChannel ch = new FileInputStream(file).getChannel()) {
+            return read(ch, ch.size(), format, sink, progress);
+        }
+    }
+
+    /**
+     * Reads a channel (a content:// stream, a socket) into {@code sink}.
+     * {@code size} is only used for progress; pass -1 if unknown.
+     *
+     * @throws CancellationException if {@code progress} returned false
+     */
+    public static long read(ReadableByteChannel in, long size, Format format, Sink sink, Progress progress)
+            throws IOException {
+        Reader r = new Reader(in, size, sink, progress);
+        long records = format == Format.CSV ? r.readCsv() : r.readBinary();
+        r.report(true);
+        sink.end();
+        return records;
+    }
+
+    /** Thrown by the binary decoder when a record runs past the buffered bytes; never escapes. */
+    private static final class Underflow extends RuntimeException {
+        static final Underflow INSTANCE = new Underflow();
+
+        private Underflow() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Reader {
+        private final ReadableByteChannel in;
+        private final long size;
+        private final Sink sink;
+        private final Progress progress;
+        private final byte[] a = new byte[BUFFER];
+        private final ByteBuffer bb = ByteBuffer.wrap(a);
+        private final int[] choices = new int[MAX_CHOICES];
+        private int pos, lim, p;   // p: cursor inside the record being decoded
+        private long base;         // file offset of a[0]
+        private long reported;
+        private long line;         // CSV line number, for errors
+
+        Reader(ReadableByteChannel in, long size, Sink sink, Progress progress) {
+            this.in = in;
+            this.size = size;
+            this.sink = sink;
+            this.progress = progress;
+        }
+
+        /** Keeps bytes from pos on, reads more after them; false at end of input. */
+        private boolean fill() throws IOException {
+            if (pos > 0) {
+                System.arraycopy(a, pos, a, 0, lim - pos);
+                base += pos;
+                lim -= pos;
+                p -= pos;
+                pos = 0;
+            }
+            if (lim == a.length) throw new IOException("Record at byte " + base + " is longer than " + BUFFER + " bytes");
+            bb.limit(a.length).position(lim);
+            int n;
+            do {
+                n = in.read(bb);
+            } while (n == 0);
+            if (n < 0) return false;
+            lim += n;
+            return true;
+        }
+
+        void report(boolean last) {
+            long done = base + pos;
+            if (progress == null || (!last && done - reported < REPORT_BYTES)) return;
+            reported = done;
+            if (!progress.update(done, size)) throw new CancellationException("Import cancelled at byte " + done);
+        }
+
+        // ---------------- binary ----------------
+
+        long readBinary() throws IOException {
+            while (lim - pos < 5) {
+                if (!fill()) throw new IOException("Not a ballot file");
+            }
+            p = pos;
+            if (i32() != MAGIC) throw new IOException("Not a ballot file");
+            int version = u8();
+            if (version != VERSION) throw new IOException("Unsupported ballot file version " + version);
+            pos = p;
+
+            long records = 0, current = 0;
+            boolean hasCurrent = false;
+            while (pos < lim || fill()) {
+                p = pos;
+                try {
+                    int type = u8();
+                    switch (type) {
+                        case REC_POLL: {
+                            long id = i64();
+                            Poll poll = decodePoll();
+                            pos = p;
+                            current = id;
+                            hasCurrent = true;
+                            sink.poll(id, poll);
+                            break;
+                        }
+                        case REC_VOTES: {
+                            int option = varint(), count = varint();
+                            pos = p;
+                            if (!hasCurrent) throw new IOException("Votes before any poll at byte " + (base + pos));
+                            sink.votes(current, option, count);
+                            break;
+                        }
+                        case REC_BALLOT: {
+                            int n = varint();
+                            if (n > MAX_CHOICES) throw new IOException("Ballot of " + n + " choices at byte " + (base + pos));
+                            for (int i = 0; i < n; i++) choices[i] = varint();
+                            pos = p;
+                            if (!hasCurrent) throw new IOException("Ballot before any poll at byte " + (base + pos));
+                            sink.ballot(current, choices, n);
+                            break;
+                        }
+                        case REC_USE:
+                            current = i64();
+                            hasCurrent = true;
+                            pos = p;
+                            continue; // not a record of its own
+                        default:
+                            throw new IOException("Unknown record type " + type + " at byte " + (base + pos));
+                    }
+                } catch (Underflow u) {
+                    if (!fill()) throw new EOFException("Truncated record at byte " + (base + pos));
+                    continue;
+                }
+                records++;
+                report(false);
+            }
+            return records;
+        }
+
+        private Poll decodePoll() throws IOException {
+            int flags = u8();
+            String question = str();
+            String description = (flags & FLAG_DESCRIPTION) != 0 ? str() : null;
+            String link = (flags & FLAG_LINK) != 0 ? str() : null;
+            int n = varint();
+            if (n > BUFFER) throw new IOException("Poll of " + n + " options at byte " + (base + pos));
+            String[] labels = new String[n];
+            for (int i = 0; i < n; i++) labels[i] = str();
+            int method = (flags & FLAG_RANKED) != 0 ? 1 : (flags & FLAG_APPROVAL) != 0 ? 2 : 0;
+            return newPoll((flags & FLAG_CLOSED) != 0, method, question, description, link, labels);
+        }
+
+        private int u8() {
+            if (p >= lim) throw Underflow.INSTANCE;
+            return a[p++] & 0xFF;
+        }
+
+        private int i32() {
+            if (lim - p < 4) throw Underflow.INSTANCE;
+            int v = 0;
+            for (int i = 0; i < 4; i++) v = v << 8 | (a[p++] & 0xFF);
+            return v;
+        }
+
+        private long i64() {
+            if (lim - p < 8) throw Underflow.INSTANCE;
+            long v = 0;
+            for (int i = 0; i < 8; i++) v = v << 8 | (a[p++] & 0xFF);
+            return v;
+        }
+
+        /** 0 .. Integer.MAX_VALUE; every varint is a count, index or length. */
+        private int varint() throws IOException {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = u8();
+                if (shift == 28 && b > 0x07) break; // past 31 bits
+                v |= (b & 0x7F) << shift;
+                if (b < 0x80) return v;
+            }
+            throw new IOException("Bad varint at byte " + (base + p));
+        }
+
+        private String str() throws IOException {
+            int n = varint();
+            if (n > BUFFER) throw new IOException("String of " + n + " bytes at byte " + (base + p));
+            if (lim - p < n) throw Underflow.INSTANCE;
+            String s = new String(a, p, n, StandardCharsets.UTF_8);
+            p += n;
+            return s;
+        }
+
+        // ---------------- CSV ----------------
+
+        long readCsv() throws IOException {
+            long records = 0;
+            int scanned = pos; // where the search for the line end resumes
+            boolean quoted = false;
+            while (true) {
+                int end = -1;
+                for (int i = scanned; i < lim; i++) {
+                    byte b = a[i];
+                    if (b == '"') quoted = !quoted;
+                    else if (b == '\n' && !quoted) {
+                        end = i;
+                        break;
+                    }
+                }
+                if (end < 0) {
+                    int seen = lim - pos;
+                    if (fill()) {
+                        scanned = pos + seen;
+                        continue;
+                    }
+                    if (pos == lim) break;
+                    end = lim; // last line has no newline
+                }
+                line++;
+                int stop = end > pos && a[end - 1] == '\r' ? end - 1 : end;
+                if (stop > pos && a[pos] != '#' && csvRecord(pos, stop)) records++;
+                pos = Math.min(end + 1, lim);
+                scanned = pos;
+                quoted = false;
+                report(false);
+            }
+            return records;
+        }
+
+        /** Parses one line [s, e); false if it was blank. */
+        private boolean csvRecord(int s, int e) throws IOException {
+            int f = fieldEnd(s, e);
+            if (is(s, f, "ballot")) {
+                int q = next(f, e);
+                long poll = number(q, q = fieldEnd(q, e));
+                int n = 0;
+                while (q < e) {
+                    if (n == MAX_CHOICES) throw error("more than " + MAX_CHOICES + " choices");
+                    int from = q + 1;
+                    q = fieldEnd(from, e);
+                    choices[n++] = intNumber(from, q);
+                }
+                sink.ballot(poll, choices, n);
+            } else if (is(s, f, "votes")) {
+                int q = next(f, e);
+                long poll = number(q, q = fieldEnd(q, e));
+                q = next(q, e);
+                int option = intNumber(q, q = fieldEnd(q, e));
+                q = next(q, e);
+                int count = intNumber(q, q = fieldEnd(q, e));
+                sink.votes(poll, option, count);
+            } else if (is(s, f, "poll")) {
+                int q = next(f, e);
+                long id = number(q, q = fieldEnd(q, e));
+                q = next(q, e);
+                String state = text(q, q = fieldEnd(q, e));
+                q = next(q, e);
+                String method = text(q, q = fieldEnd(q, e));
+                q = next(q, e);
+                String question = text(q, q = fieldEnd(q, e));
+                q = next(q, e);
+                String description = text(q, q = fieldEnd(q, e));
+                q = next(q, e);
+                String link = text(q, q = fieldEnd(q, e));
+                int options = 0;
+                for (int i = q; i < e; i = fieldEnd(i + 1, e)) options++;
+                String[] labels = new String[options];
+                for (int i = 0; i < options; i++) {
+                    int from = q + 1;
+                    labels[i] = text(from, q = fieldEnd(from, e));
+                }
+                int m = 0;
+                while (m < METHODS.length && !METHODS[m].equals(method)) m++;
+                if (m == METHODS.length) throw error("unknown method '" + method + "'");
+                if (!state.equals("open") && !state.equals("closed")) throw error("unknown state '" + state + "'");
+                sink.poll(id, newPoll(state.equals("closed"), m, question,
+                        description.isEmpty() ? null : description, link.isEmpty() ? null : link, labels));
+            } else if (f == s && f == e) {
+                return false;
+            } else {
+                throw error("unknown record '" + text(s, f) + "'");
+            }
+            return true;
+        }
+
+        /** Start of the field after the one ending at f. */
+        private int next(int f, int e) throws IOException {
+            if (f >= e) throw error("missing field");
+            return f + 1;
+        }
+
+        /** End (comma or e) of the field starting at s. */
+        private int fieldEnd(int s, int e) {
+            boolean quoted = false;
+            for (int i = s; i < e; i++) {
+                byte b = a[i];
+                if (b == '"') quoted = !quoted;
+                else if (b == ',' && !quoted) return i;
+            }
+            return e;
+        }
+
+        private boolean is(int s, int e, String word) {
+            if (e - s != word.length()) return false;
+            for (int i = 0; i < e - s; i++) if (a[s + i] != word.charAt(i)) return false;
+            return true;
+        }
+
+        private long number(int s, int e) throws IOException {
+            if (s >= e || e - s > 18) throw error("bad number '" + text(s, e) + "'");
+            long v = 0;
+            for (int i = s; i < e; i++) {
+                int d = a[i] - '0';
+                if (d < 0 || d > 9) throw error("bad number '" + text(s, e) + "'");
+                v = v * 10 + d;
+            }
+            return v;
+        }
+
+        private int intNumber(int s, int e) throws IOException {
+            long v = number(s, e);
+            if (v > Integer.MAX_VALUE) throw error("number out of range '" + text(s, e) + "'");
+            return (int) v;
+        }
+
+        private String text(int s, int e) {
+            if (e - s < 2 || a[s] != '"') return new String(a, s, e - s, StandardCharsets.UTF_8);
+            byte[] out = new byte[e - s - 2];
+            int n = 0;
+            for (int i = s + 1; i < e - 1; i++) {
+                out[n++] = a[i];
+                if (a[i] == '"') i++; // "" is one quote
+            }
+            return new String(out, 0, n, StandardCharsets.UTF_8);
+        }
+
+        private IOException error(String what) {
+            return new IOException("Line " + line + ": " + what);
+        }
+    }
+
+    /** A poll as read, under a fresh local id. */
+    private static Poll newPoll(boolean closed, int method, String question, String description,
+                                String link, String[] labels) {
+        Poll poll = new Poll(question);
+        poll.description = description;
+        poll.link = link;
+        poll.closed = closed;
+        poll.addOptions(labels);
+        if (method == 1) poll.setMethod(new RankedChoiceVoting(poll));
+        else if (method == 2) poll.setMethod(new ApprovalVoting(poll));
+        return poll;
+    }
+
+    private static int method(Poll p) {
+        VotingMethod m = p.method();
+        return m instanceof RankedChoiceVoting ? 1 : m instanceof ApprovalVoting ? 2 : 0;
+    }
+
+    // ---------------- export ----------------
+
+    /**
+     * Writes every poll with its votes: ranked polls as their ballots,
+     * the others as one votes record per option with any.
+     *
+     * @throws CancellationException if {@code progress} returned false
+     */
+    public static void export(Writer w, Collection<Poll> polls, Progress progress) throws IOException {
+        int[] ballot = new int[MAX_CHOICES];
+        long done = 0;
+        for (Poll p : polls) {
+            w.poll(p);
+            if (p.method() instanceof RankedChoiceVoting) {
+                RankedChoiceVoting irv = (RankedChoiceVoting) p.method();
+                for (int b = 0, n = irv.ballots(); b < n; b++) w.ballot(p.id, ballot, irv.ballot(b, ballot));
+            } else {
+                int[] counts = p.tally.snapshot().counts;
+                for (int o = 0; o < counts.length; o++) if (counts[o] > 0) w.votes(p.id, o, counts[o]);
+            }
+            done++;
+            if (progress != null && !progress.update(done, polls.size())) {
+                throw new CancellationException("Export cancelled after " + done + " polls");
+            }
+        }
+    }
+
+    /**
+     * Streams records out through a fixed buffer. Opened on a File, it
+     * writes "name.part" and renames it over the target in
+     * {@link #commit()}; closing without commit deletes the partial file.
+     */
+    public static final class Writer implements Closeable {
+        private final WritableByteChannel out;
+        private final Format format;
+        private final File part, target;
+        private final byte[] a = new byte[BUFFER];
+        private final ByteBuffer bb = ByteBuffer.wrap(a);
+        private int n;
+        private long written;
+        private long current;
+        private boolean hasCurrent, done;
+
+        public static Writer open(File file, Format format) throws IOException {
+            File part = new File(file.getPath() + ".part");
+            return new Writer(new FileOutputStream(part).getChannel(), format, part, file);
+        }
+
+        /** Writes to a caller-owned channel (a content:// stream); commit() flushes but does not close it. */
+        public Writer(WritableByteChannel out, Format format) throws IOException {
+            this(out, format, null, null);
+        }
+
+        private Writer(WritableByteChannel out, Format format, File part, File target) throws IOException {
+            this.out = out;
+            this.format = format;
+            this.part = part;
+            this.target = target;
+            if (format == Format.BINARY) {
+                i32(MAGIC);
+                u8(VERSION);
+            } else {
+                ascii("# poll,id,state,method,question,description,link,options... | votes,poll,option,count"
+                        + " | ballot,poll,choices...\n");
+            }
+        }
+
+        public void poll(Poll p) throws IOException {
+            int m = method(p);
+            if (format == Format.BINARY) {
+                u8(REC_POLL);
+                i64(p.id);
+                u8((p.closed ? FLAG_CLOSED : 0) | (p.description != null ? FLAG_DESCRIPTION : 0)
+                        | (p.link != null ? FLAG_LINK : 0) | (m == 1 ? FLAG_RANKED : m == 2 ? FLAG_APPROVAL : 0));
+                str(p.question);
+                if (p.description != null) str(p.description);
+                if (p.link != null) str(p.link);
+                varint(p.optionCount());
+                for (int i = 0; i < p.optionCount(); i++) str(p.optionLabel(i));
+            } else {
+                ascii("poll,");
+                number(p.id);
+                ascii(p.closed ? ",closed," : ",open,");
+                ascii(METHODS[m]);
+                u8(',');
+                field(p.question);
+                u8(',');
+                field(p.description);
+                u8(',');
+                field(p.link);
+                for (int i = 0; i < p.optionCount(); i++) {
+                    u8(',');
+                    field(p.optionLabel(i));
+                }
+                u8('\n');
+            }
+            current = p.id;
+            hasCurrent = true;
+        }
+
+        public void votes(long pollId, int option, int count) throws IOException {
+            if (format == Format.BINARY) {
+                use(pollId);
+                u8(REC_VOTES);
+                varint(option);
+                varint(count);
+            } else {
+                ascii("votes,");
+                number(pollId);
+                u8(',');
+                number(option);
+                u8(',');
+                number(count);
+                u8('\n');
+            }
+        }
+
+        /** {@code choices[0, count)}, best first. */
+        public void ballot(long pollId, int[] choices, int count) throws IOException {
+            if (count > MAX_CHOICES) throw new IllegalArgumentException(count + " choices; at most " + MAX_CHOICES);
+            if (format == Format.BINARY) {
+                use(pollId);
+                u8(REC_BALLOT);
+                varint(count);
+                for (int i = 0; i < count; i++) varint(choices[i]);
+            } else {
+                ascii("ballot,");
+                number(pollId);
+                for (int i = 0; i < count; i++) {
+                    u8(',');
+                    number(choices[i]);
+                }
+                u8('\n');
+            }
+        }
+
+        /** Bytes written so far, buffered ones included. */
+        public long bytes() {
+            return written + n;
+        }
+
+        /** Flushes and, for a file, syncs it and moves it into place. */
+        public void commit() throws IOException {
+            flush();
+            done = true;
+            if (part == null) return;
+            ((FileChannel) out).force(true);
+            out.close();
+            if (!part.renameTo(target)) throw new IOException("Cannot move " + part + " to " + target);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (done || part == null) return;
+            done = true;
+            out.close();
+            part.delete(); // abandoned export
+        }
+
+        private void use(long pollId) throws IOException {
+            if (hasCurrent && current == pollId) return;
+            u8(REC_USE);
+            i64(pollId);
+            current = pollId;
+            hasCurrent = true;
+        }
+
+        private void flush() throws IOException {
+            bb.limit(n).position(0);
+            while (bb.hasRemaining()) out.write(bb);
+            written += n;
+            n = 0;
+        }
+
+        private void u8(int b) throws IOException {
+            if (n == a.length) flush();
+            a[n++] = (byte) b;
+        }
+
+        private void i32(int v) throws IOException {
+            for (int s = 24; s >= 0; s -= 8) u8(v >>> s);
+        }
+
+        private void i64(long v) throws IOException {
+            for (int s = 56; s >= 0; s -= 8) u8((int) (v >>> s));
+        }
+
+        private void varint(int v) throws IOException {
+            while ((v & ~0x7F) != 0) {
+                u8((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            u8(v);
+        }
+
+        private void bytes(byte[] b) throws IOException {
+            for (int off = 0; off < b.length; ) {
+                if (n == a.length) flush();
+                int k = Math.min(b.length - off, a.length - n);
+                System.arraycopy(b, off, a, n, k);
+                n += k;
+                off += k;
+            }
+        }
+
+        private void str(String s) throws IOException {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            varint(b.length);
+            bytes(b);
+        }
+
+        private void ascii(String s) throws IOException {
+            for (int i = 0; i < s.length(); i++) u8(s.charAt(i));
+        }
+
+        private void number(long v) throws IOException {
+            if (v < 0) throw new IllegalArgumentException("negative " + v);
+            if (n + 19 > a.length) flush();
+            int digits = 1;
+            for (long x = v / 10; x != 0; x /= 10) digits++;
+            int i = n += digits;
+            do {
+                a[--i] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v != 0);
+        }
+
+        /** A CSV text field; quoted only when it has to be. Null is empty. */
+        private void field(String s) throws IOException {
+            if (s == null || s.isEmpty()) return;
+            boolean quote = false;
+            for (int i = 0; i < s.length() && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                bytes(s.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            u8('"');
+            bytes(s.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8));
+            u8('"');
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.votingpage;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counting for whole ballot boxes (imports, recounts) rather than one vote
+ * at a time. A single-choice ballot is an option index; a run of them is
+ * split across a ForkJoinPool, each task counts its slice into its own
+ * int[] and the partial counts are summed on the way back up. The poll's
+ * tally is then touched once per option, not once per ballot, so the
+ * result equals counting the same ballots one by one.
+ */
+public final class BulkTally {
+
+    private static final int SPLIT = 1 << 16; // ballots per leaf task
+
+    private BulkTally() {
+    }
+
+    /** Votes per option in {@code ballots[from, to)}, counted on {@code pool}. */
+    public static int[] count(int[] ballots, int from, int to, int options, ForkJoinPool pool) {
+        if (from < 0 || to > ballots.length || from > to) throw new IndexOutOfBoundsException(from + ".." + to);
+        return pool.invoke(new Count(ballots, from, to, options));
+    }
+
+    /** The same count on the calling thread. */
+    public static int[] countSequential(int[] ballots, int from, int to, int options) {
+        return new Count(ballots, from, to, options).countSlice();
+    }
+
+    /**
+     * Adds {@code ballots[from, to)} to the poll as one unit, journaled in a
+     * single record through {@code store} when it is not null. The whole box
+     * is counted (and so checked) first; nothing is counted if any ballot
+     * names a missing option. Polls with a {@link VotingMethod} take them as
+     * one-option ballots, through {@link Poll#addVotes}.
+     */
+    public static void importBallots(Poll poll, PollStore store, int[] ballots, int from, int to,
+                                     ForkJoinPool pool) throws IOException {
+        int[] counts = count(ballots, from, to, poll.optionCount(), pool);
+        if (store != null) {
+            store.addAll(poll, counts);
+            return;
+        }
+        for (int o = 0; o < counts.length; o++) if (counts[o] != 0) poll.addVotes(o, counts[o]);
+    }
+
+    /**
+     * Replaces a plurality poll's counts with exactly {@code ballots}, as
+     * when a paper box is counted again. Journaled through {@code store}
+     * when it is not null, as the new counts, so a replay ends on them
+     * whatever came before.
+     */
+    public static void recount(Poll poll, PollStore store, int[] ballots, ForkJoinPool pool) throws IOException {
+        if (poll.method() != null) throw new IllegalStateException("recount() counts plurality ballots");
+        int[] counts = count(ballots, 0, ballots.length, poll.optionCount(), pool);
+        if (store != null) {
+            store.setAll(poll, counts);
+            return;
+        }
+        for (int o = 0; o < counts.length; o++) poll.tally.set(o, counts[o]);
+    }
+
+    private static final class Count extends RecursiveTask<int[]> {
+        private final int[] ballots;
+        private final int from, to, options;
+
+        Count(int[] ballots, int from, int to, int options) {
+            this.ballots = ballots;
+            this.from = from;
+            this.to = to;
+            this.options = options;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= SPLIT) return countSlice();
+            int mid = (from + to) >>> 1;
+            Count right = new Count(ballots, mid, to, options);
+            right.fork();
+            int[] left = new Count(ballots, from, mid, options).compute();
+            int[] r = right.join();
+            for (int o = 0; o < options; o++) left[o] += r[o];
+            return left;
+        }
+
+        int[] countSlice() {
+            int[] counts = new int[options];
+            for (int i = from; i < to; i++) {
+                int o = ballots[i];
+                if (o < 0 || o >= options) throw new IllegalArgumentException("Ballot " + i + ": no option " + o);
+                counts[o]++;
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.votingpage;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Struct-of-arrays store for holding very many polls in memory. A poll is
+ * a row index into primitive columns; its options are the range
+ * [optionStart[row], optionStart[row + 1]) of the option columns, whose
+ * labels are ids into one shared {@link LabelPool}. No per-poll or
+ * per-option objects exist besides the title/description/link strings.
+ *
+ * Rows are appended and their metadata changed from one thread; vote()
+ * and add() may be called from any thread. Vote counts live in fixed-size
+ * chunks that never move, so growing the store does not race with voting.
+ * {@link #view(int)} gives a small {@link PollResults} over a row;
+ * {@link #toPoll(int)} materializes a full, editable {@link Poll}.
+ */
+public final class CompactPolls {
+
+    public static final int NO_SELECTION = Poll.NO_SELECTION;
+
+    private static final int FLAG_CLOSED = 1;
+    private static final int CHUNK_BITS = 12; // 4096 counters per vote chunk
+    private static final int CHUNK = 1 << CHUNK_BITS;
+
+    private final LabelPool labels = new LabelPool();
+    private int size;
+    private long[] ids;
+    private String[] titles, descriptions, links;
+    private byte[] flags;
+    private int[] selected;
+    private int[] optionStart;    // size + 1 entries; optionStart[size] = options in use
+    private int[] optionLabels;   // label ids, one per option
+    private volatile AtomicIntegerArray[] votes = new AtomicIntegerArray[0];
+
+    public CompactPolls() {
+        this(16);
+    }
+
+    public CompactPolls(int expectedPolls) {
+        int n = Math.max(1, expectedPolls);
+        ids = new long[n];
+        titles = new String[n];
+        descriptions = new String[n];
+        links = new String[n];
+        flags = new byte[n];
+        selected = new int[n];
+        optionStart = new int[n + 1];
+        optionLabels = new int[n * 4];
+    }
+
+    /** Appends a copy of {@code p} (labels interned, counts snapshotted); returns its row. */
+    public int add(Poll p) {
+        int n = p.optionCount();
+        String[] l = new String[n];
+        for (int i = 0; i < n; i++) l[i] = p.optionLabel(i);
+        int row = add(p.id, p.question, p.description, p.link, l);
+        int[] counts = p.tally.snapshot().counts;
+        for (int i = 0; i < counts.length; i++) if (counts[i] != 0) add(row, i, counts[i]);
+        if (p.closed) flags[row] = FLAG_CLOSED;
+        selected[row] = p.selectedIndex;
+        return row;
+    }
+
+    public int add(long id, String title, String description, String link, String[] options) {
+        int row = size;
+        if (row == ids.length) grow(row + (row >> 1) + 1);
+        int first = optionStart[row];
+        int end = first + options.length;
+        if (end > optionLabels.length) {
+            optionLabels = Arrays.copyOf(optionLabels, Math.max(end, optionLabels.length + (optionLabels.length >> 1)));
+        }
+        for (int i = 0; i < options.length; i++) optionLabels[first + i] = labels.intern(options[i]);
+        ensureVoteChunks(end);
+
+        ids[row] = id;
+        titles[row] = title;
+        descriptions[row] = description;
+        links[row] = link;
+        selected[row] = NO_SELECTION;
+        optionStart[row + 1] = end;
+        size = row + 1;
+        return row;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public String title(int row) {
+        return titles[row];
+    }
+
+    public String description(int row) {
+        return descriptions[row];
+    }
+
+    public String link(int row) {
+        return links[row];
+    }
+
+    public boolean closed(int row) {
+        return (flags[row] & FLAG_CLOSED) != 0;
+    }
+
+    public void setClosed(int row, boolean closed) {
+        flags[row] = (byte) (closed ? flags[row] | FLAG_CLOSED : flags[row] & ~FLAG_CLOSED);
+    }
+
+    /** The user's pending choice, or {@link #NO_SELECTION}. */
+    public int selected(int row) {
+        return selected[row];
+    }
+
+    public void setSelected(int row, int option) {
+        selected[row] = option;
+    }
+
+    public int optionCount(int row) {
+        return optionStart[row + 1] - optionStart[row];
+    }
+
+    public String optionLabel(int row, int option) {
+        return labels.get(optionLabels[offset(row, option)]);
+    }
+
+    /** Thread-safe; returns the option's new count. */
+    public int vote(int row, int option) {
+        return add(row, option, 1);
+    }
+
+    /** Thread-safe; returns the option's new count. */
+    public int add(int row, int option, int n) {
+        int off = offset(row, option);
+        return counter(off).addAndGet(off & CHUNK - 1, n);
+    }
+
+    public int votes(int row, int option) {
+        int off = offset(row, option);
+        return counter(off).get(off & CHUNK - 1);
+    }
+
+    public int totalVotes(int row) {
+        int t = 0;
+        for (int off = optionStart[row], end = optionStart[row + 1]; off < end; off++) {
+            t += counter(off).get(off & CHUNK - 1);
+        }
+        return t;
+    }
+
+    /** Highest count wins; ties go to the lowest index (as in {@link VoteTally}). */
+    public int winningIndex(int row) {
+        int first = optionStart[row], best = 0, max = -1;
+        for (int off = first, end = optionStart[row + 1]; off < end; off++) {
+            int v = counter(off).get(off & CHUNK - 1);
+            if (v > max) {
+                max = v;
+                best = off - first;
+            }
+        }
+        return best;
+    }
+
+    /** Distinct option labels stored. */
+    public int labelCount() {
+        return labels.size();
+    }
+
+    /** A read-only view of {@code row}; one int and a reference. */
+    public View view(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        return new View(this, row);
+    }
+
+    /** A full, independent {@link Poll} with this row's contents (for editing or the live list). */
+    public Poll toPoll(int row) {
+        Poll p = new Poll(ids[row], titles[row]);
+        p.description = descriptions[row];
+        p.link = links[row];
+        p.closed = closed(row);
+        p.selectedIndex = selected[row];
+        int n = optionCount(row);
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) labels[i] = optionLabel(row, i);
+        p.addOptions(labels);
+        for (int i = 0; i < n; i++) p.tally.set(i, votes(row, i));
+        return p;
+    }
+
+    /** Drops spare capacity once bulk loading is done. */
+    public void trimToSize() {
+        grow(size);
+        optionLabels = Arrays.copyOf(optionLabels, optionStart[size]);
+        labels.trimToSize();
+    }
+
+    private int offset(int row, int option) {
+        if (row >= size || option < 0 || option >= optionCount(row)) {
+            throw new IndexOutOfBoundsException("row " + row + " option " + option);
+        }
+        return optionStart[row] + option;
+    }
+
+    private AtomicIntegerArray counter(int offset) {
+        return votes[offset >>> CHUNK_BITS];
+    }
+
+    private void ensureVoteChunks(int options) {
+        AtomicIntegerArray[] v = votes;
+        int need = (options + CHUNK - 1) >>> CHUNK_BITS;
+        if (need <= v.length) return;
+        AtomicIntegerArray[] grown = Arrays.copyOf(v, Math.max(need, v.length + (v.length >> 1)));
+        for (int i = v.length; i < grown.length; i++) grown[i] = new AtomicIntegerArray(CHUNK);
+        votes = grown; // existing chunks are shared, so in-flight votes are kept
+    }
+
+    private void grow(int capacity) {
+        capacity = Math.max(1, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        links = Arrays.copyOf(links, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        selected = Arrays.copyOf(selected, capacity);
+        optionStart = Arrays.copyOf(optionStart, capacity + 1);
+    }
+
+    /** One row seen through {@link PollResults}; reads the store, copies nothing. */
+    public static final class View implements PollResults {
+        private final CompactPolls store;
+        private final int row;
+
+        View(CompactPolls store, int row) {
+            this.store = store;
+            this.row = row;
+        }
+
+        public int row() {
+            return row;
+        }
+
+        @Override
+        public long id() {
+            return store.id(row);
+        }
+
+        @Override
+        public String title() {
+            return store.title(row);
+        }
+
+        @Override
+        public int optionCount() {
+            return store.optionCount(row);
+        }
+
+        @Override
+        public String optionLabel(int index) {
+            return store.optionLabel(row, index);
+        }
+
+        @Override
+        public int votesFor(int index) {
+            return store.votes(row, index);
+        }
+
+        @Override
+        public int totalVotes() {
+            return store.totalVotes(row);
+        }
+
+        @Override
+        public int winningIndex() {
+            return store.winningIndex(row);
+        }
+    }
+}
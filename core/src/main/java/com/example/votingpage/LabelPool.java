@@ -0,0 +1,62 @@
+package com.example.votingpage;
+
+import java.util.Arrays;
+
+/**
+ * Interns strings to dense int ids, so repeated option labels ("Yes",
+ * "No", ...) are stored once. Open addressing over an int[] table: no
+ * per-entry objects besides the strings themselves. Not thread-safe;
+ * lookups by id are safe once the id has been published.
+ */
+final class LabelPool {
+
+    private String[] strings = new String[16];
+    private int[] table = new int[32]; // id + 1, 0 = empty
+    private int size;
+
+    /** The id of {@code s}, adding it if it is new. */
+    int intern(String s) {
+        int mask = table.length - 1;
+        for (int slot = mix(s.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int ref = table[slot];
+            if (ref == 0) break;
+            if (strings[ref - 1].equals(s)) return ref - 1;
+        }
+        if (size == strings.length) strings = Arrays.copyOf(strings, size * 2);
+        strings[size] = s;
+        if (++size * 2 > table.length) rehash(table.length * 2);
+        else place(size - 1);
+        return size - 1;
+    }
+
+    String get(int id) {
+        return strings[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void trimToSize() {
+        strings = Arrays.copyOf(strings, Math.max(1, size));
+        int cap = Integer.highestOneBit(Math.max(1, size * 2 - 1)) << 1;
+        if (cap < table.length) rehash(cap);
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        for (int id = 0; id < size; id++) place(id);
+    }
+
+    private void place(int id) {
+        int mask = table.length - 1;
+        int slot = mix(strings[id].hashCode()) & mask;
+        while (table[slot] != 0) slot = (slot + 1) & mask;
+        table[slot] = id + 1;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.votingpage;
+
+import java.io.IOException;
+
+/**
+ * Last-writer-wins boolean register (state-based CRDT). The write with the
+ * highest (timestamp, replica) wins; a replica never reuses a timestamp,
+ * so two different writes never tie.
+ *
+ * Not thread-safe; ReplicatedPoll guards it.
+ */
+public final class LwwFlag {
+
+    private boolean value;
+    private long timestamp; // 0 = never written
+    private int replica;
+
+    public boolean value() {
+        return value;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /** Local write; {@code now} is wall-clock millis, bumped if the clock went backwards. */
+    public void set(boolean value, long now, int replica) {
+        this.timestamp = Math.max(now, timestamp + 1);
+        this.replica = replica;
+        this.value = value;
+    }
+
+    /** Returns true if the remote write won. */
+    public boolean merge(long timestamp, int replica, boolean value) {
+        if (timestamp < this.timestamp || (timestamp == this.timestamp && replica <= this.replica)) {
+            return false;
+        }
+        this.timestamp = timestamp;
+        this.replica = replica;
+        this.value = value;
+        return true;
+    }
+
+    public boolean merge(LwwFlag other) {
+        return merge(other.timestamp, other.replica, other.value);
+    }
+
+    void encode(SyncProtocol.Out out) {
+        out.varLong(timestamp);
+        out.varLong(replica);
+        out.write(value ? 1 : 0);
+    }
+
+    boolean mergeFrom(SyncProtocol.In in) throws IOException {
+        long ts = in.varLong();
+        int r = in.varInt();
+        boolean v = in.readByte() != 0;
+        return merge(ts, r, v);
+    }
+}
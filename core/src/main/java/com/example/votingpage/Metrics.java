@@ -0,0 +1,246 @@
+package com.example.votingpage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide counters, gauges and timed sections for hot paths.
+ *
+ * Off by default. While disabled, {@link Section#begin()} is one volatile
+ * read and {@link Section#end(long)} one compare, so call sites stay in
+ * release builds. When enabled, a section records its latency (ns) and,
+ * if an allocation counter is installed, the allocations made between
+ * begin and end on that thread, into {@link LatencyHistogram}s; an
+ * optional {@link Tracer} mirrors sections into the platform tracer.
+ *
+ * Sections may nest and may run on any thread.
+ */
+public final class Metrics {
+
+    /** Mirrors sections into a system tracer (android.os.Trace on device). */
+    public interface Tracer {
+        void begin(String name);
+
+        void end();
+    }
+
+    private static volatile boolean enabled;
+    private static volatile Tracer tracer;
+    private static volatile LongSupplier allocations; // current thread's allocation count, or null
+
+    private static final Map<String, Counter> counters = new LinkedHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+    private static final Map<String, Section> sections = new LinkedHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+
+    /** Per-thread stack of allocation counts at begin(), for nested sections. */
+    private static final ThreadLocal<long[]> allocStack = ThreadLocal.withInitial(() -> new long[17]);
+
+    private Metrics() {
+    }
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static void setTracer(Tracer t) {
+        tracer = t;
+    }
+
+    public static void setAllocationCounter(LongSupplier counter) {
+        allocations = counter;
+    }
+
+    // ---------------- registry ----------------
+
+    public static synchronized Counter counter(String name) {
+        Counter c = counters.get(name);
+        if (c == null) counters.put(name, c = new Counter());
+        return c;
+    }
+
+    /** A value read only when metrics are exported (cache sizes, hit counts). */
+    public static synchronized void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Unregisters {@code name} if it still reads {@code value}, so an owner
+     * that registered first (an activity being recreated) cannot drop its
+     * successor's gauge.
+     */
+    public static synchronized void removeGauge(String name, LongSupplier value) {
+        gauges.remove(name, value);
+    }
+
+    public static synchronized Section section(String name) {
+        Section s = sections.get(name);
+        if (s == null) sections.put(name, s = new Section(name));
+        return s;
+    }
+
+    /**
+     * A bare histogram for spans a {@link Section} cannot bracket, such as
+     * ones that cross frames. Callers check {@link #enabled()} before recording.
+     */
+    public static synchronized LatencyHistogram histogram(String name) {
+        LatencyHistogram h = histograms.get(name);
+        if (h == null) histograms.put(name, h = new LatencyHistogram());
+        return h;
+    }
+
+    public static synchronized void reset() {
+        for (Counter c : counters.values()) c.adder.reset();
+        for (LatencyHistogram h : histograms.values()) h.reset();
+        for (Section s : sections.values()) {
+            s.latency.reset();
+            s.allocs.reset();
+        }
+    }
+
+    // ---------------- export ----------------
+
+    /** Everything registered, as one JSON object. */
+    public static synchronized String toJson() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"enabled\":").append(enabled).append(",\"counters\":{");
+        int i = 0;
+        for (Map.Entry<String, Counter> e : counters.entrySet()) {
+            if (i++ > 0) sb.append(',');
+            sb.append('"').append(e.getKey()).append("\":").append(e.getValue().get());
+        }
+        sb.append("},\"gauges\":{");
+        i = 0;
+        for (Map.Entry<String, LongSupplier> e : gauges.entrySet()) {
+            if (i++ > 0) sb.append(',');
+            sb.append('"').append(e.getKey()).append("\":").append(e.getValue().getAsLong());
+        }
+        sb.append("},\"sections\":{");
+        i = 0;
+        for (Section s : sections.values()) {
+            if (i++ > 0) sb.append(',');
+            sb.append('"').append(s.name).append("\":{\"latencyNs\":").append(s.latency.toJson());
+            if (s.allocs.count() > 0) sb.append(",\"allocations\":").append(s.allocs.toJson());
+            sb.append('}');
+        }
+        sb.append("},\"histograms\":{");
+        i = 0;
+        for (Map.Entry<String, LatencyHistogram> e : histograms.entrySet()) {
+            if (i++ > 0) sb.append(',');
+            sb.append('"').append(e.getKey()).append("\":").append(e.getValue().toJson());
+        }
+        return sb.append("}}").toString();
+    }
+
+    /** One line per metric, for an on-screen overlay. */
+    public static synchronized List<String> summaryLines() {
+        List<String> lines = new ArrayList<>();
+        for (Section s : sections.values()) {
+            LatencyHistogram h = s.latency;
+            if (h.count() == 0) continue;
+            String line = String.format(Locale.ROOT, "%-18s n=%-6d p50 %6.2f p99 %6.2f max %6.2f ms",
+                    s.name, h.count(), h.percentile(50) / 1e6, h.percentile(99) / 1e6, h.max() / 1e6);
+            if (s.allocs.count() > 0) line += String.format(Locale.ROOT, "  alloc p50 %d", s.allocs.percentile(50));
+            lines.add(line);
+        }
+        for (Map.Entry<String, LatencyHistogram> e : histograms.entrySet()) {
+            LatencyHistogram h = e.getValue();
+            if (h.count() == 0) continue;
+            lines.add(String.format(Locale.ROOT, "%-18s n=%-6d p50 %6.2f max %6.2f ms",
+                    e.getKey(), h.count(), h.percentile(50) / 1e6, h.max() / 1e6));
+        }
+        for (Map.Entry<String, Counter> e : counters.entrySet()) {
+            lines.add(e.getKey() + " = " + e.getValue().get());
+        }
+        for (Map.Entry<String, LongSupplier> e : gauges.entrySet()) {
+            lines.add(e.getKey() + " = " + e.getValue().getAsLong());
+        }
+        return lines;
+    }
+
+    // ---------------- metric types ----------------
+
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            if (enabled) adder.increment();
+        }
+
+        public void add(long n) {
+            if (enabled) adder.add(n);
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    /**
+     * A timed region:
+     * <pre>
+     *   long t = BIND.begin();
+     *   try { ... } finally { BIND.end(t); }
+     * </pre>
+     */
+    public static final class Section {
+        final String name;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram allocs = new LatencyHistogram();
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        /** Start token for {@link #end}; 0 when metrics are off. */
+        public long begin() {
+            if (!enabled) return 0;
+            Tracer t = tracer;
+            if (t != null) t.begin(name);
+            LongSupplier a = allocations;
+            if (a != null) {
+                long[] stack = allocStack.get();
+                int depth = (int) ++stack[0];
+                if (depth < stack.length) stack[depth] = a.getAsLong();
+            }
+            return System.nanoTime() | 1; // never 0
+        }
+
+        public void end(long token) {
+            if (token == 0) return;
+            long elapsed = System.nanoTime() - token;
+            latency.record(elapsed);
+            LongSupplier a = allocations;
+            if (a != null) {
+                long[] stack = allocStack.get();
+                int depth = (int) stack[0];
+                if (depth > 0) {
+                    stack[0]--;
+                    if (depth < stack.length) allocs.record(a.getAsLong() - stack[depth]);
+                }
+            }
+            Tracer t = tracer;
+            if (t != null) t.end();
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        public LatencyHistogram allocations() {
+            return allocs;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.votingpage;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One editable poll, as shown in the live list. Options are a plain
+ * String[] and the selection a primitive, so the only per-poll objects are
+ * the strings and the {@link VoteTally}. For very many read-mostly polls
+ * use {@link CompactPolls}.
+ */
+public class Poll implements PollResults {
+    public static final int NO_SELECTION = -1;
+    private static final String[] NO_OPTIONS = new String[0];
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    public final long id;             // stable identity (storage, diffing)
+    public String question;           // e.g., "Poll : Favorite Anime?"
+    public String description;        // optional
+    public String link;               // optional (URL)
+    private String[] labels = NO_OPTIONS; // option texts in [0, options); use addOption()
+    private int options;
+    public final VoteTally tally = new VoteTally(); // vote counts, one slot per option
+    public boolean closed = false;    // open vs closed card
+    public int selectedIndex = NO_SELECTION; // user's selection before voting
+    private volatile VotingMethod method;  // null = plurality, straight into tally
+
+    public Poll(String question) {
+        this(NEXT_ID.getAndIncrement(), question);
+    }
+
+    /** Restores a poll with a known id (e.g. from PollStore). */
+    public Poll(long id, String question) {
+        this.id = id;
+        this.question = question;
+        NEXT_ID.accumulateAndGet(id + 1, Math::max);
+    }
+
+    @Override
+    public long id() {
+        return id;
+    }
+
+    @Override
+    public String title() {
+        return question;
+    }
+
+    @Override
+    public int optionCount() {
+        return options;
+    }
+
+    @Override
+    public String optionLabel(int index) {
+        if (index >= options) throw new IndexOutOfBoundsException("option " + index + " of " + options);
+        return labels[index];
+    }
+
+    /** Appends an option with no votes; returns its index. Room doubles, as in the tally. */
+    public int addOption(String label) {
+        if (options == labels.length) labels = Arrays.copyOf(labels, Math.max(2, 2 * options));
+        labels[options++] = label;
+        return tally.addSlot();
+    }
+
+    /** Appends several options with no votes (restores, imports); returns the index of the first. Sized exactly. */
+    public int addOptions(String... more) {
+        String[] grown = Arrays.copyOf(labels, options + more.length);
+        System.arraycopy(more, 0, grown, options, more.length);
+        labels = grown;
+        options += more.length;
+        return tally.addSlots(more.length);
+    }
+
+    /** One vote for {@code index}; under a method, a one-choice ballot. Thread-safe. */
+    public void vote(int index) {
+        VotingMethod m = method;
+        if (m != null) m.cast(new int[] {index});
+        else tally.vote(index);
+    }
+
+    /**
+     * {@code count} votes for {@code index} at once (journal replay, sync,
+     * batches), each a one-choice ballot under a method. Only plurality
+     * polls can take votes back (count < 0). Thread-safe.
+     */
+    public void addVotes(int index, int count) {
+        VotingMethod m = method;
+        if (m == null) {
+            tally.add(index, count);
+            return;
+        }
+        if (count < 0) throw new IllegalArgumentException("Ballots cannot be taken back");
+        int[] ballot = {index};
+        for (int i = 0; i < count; i++) m.cast(ballot);
+    }
+
+    /** Ranked-choice or approval counting; null for plurality. Set once the options are added. */
+    public void setMethod(VotingMethod method) {
+        this.method = method;
+    }
+
+    public VotingMethod method() {
+        return method;
+    }
+
+    /** Records one ballot under the poll's method; a plurality ballot is its first choice. */
+    public void cast(int... choices) {
+        VotingMethod m = method;
+        if (m != null) m.cast(choices);
+        else if (choices.length > 0) tally.vote(choices[0]);
+    }
+
+    @Override
+    public int votesFor(int index) {
+        return tally.get(index);
+    }
+
+    @Override
+    public int totalVotes() {
+        return tally.total();
+    }
+
+    @Override
+    public int winningIndex() {
+        VotingMethod m = method;
+        return m == null ? tally.winningIndex() : m.winningIndex();
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.votingpage;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Read-only, memory-mapped archive of closed polls in a columnar layout.
+ * Opening maps the file and reads a 32-byte header; nothing else is loaded
+ * until a row is rendered, so heap use does not grow with poll count.
+ *
+ * File layout (big-endian):
+ *  header        magic, version, pollCount, optionCount, stringBytes, 3 x reserved
+ *  ids           long[pollCount]
+ *  optionStart   int[pollCount + 1]    options of poll i are [start[i], start[i+1])
+ *  totals        int[pollCount]        precomputed, results are immutable
+ *  winners       int[pollCount]
+ *  votes         int[optionCount]
+ *  stringStart   int[pollCount + optionCount + 1]
+ *  strings       UTF-8 bytes; string i < pollCount is a question,
+ *                string pollCount + k is the label of option k
+ *
+ * A single mapping is limited to 2 GB, which is far beyond 1M polls.
+ */
+public class PollArchive implements Closeable {
+
+    private static final int MAGIC = 0x504F4C41; // "POLA"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final RandomAccessFile file;
+    private final int pollCount;
+    private final LongBuffer ids;
+    private final IntBuffer optionStart, totals, winners, votes, stringStart;
+    private final ByteBuffer strings;
+
+    private PollArchive(RandomAccessFile file, MappedByteBuffer map) throws IOException {
+        this.file = file;
+        if (map.getInt(0) != MAGIC) throw new IOException("Not a poll archive");
+        int version = map.getInt(4);
+        if (version != FORMAT_VERSION) throw new IOException("Unsupported archive version " + version);
+        pollCount = map.getInt(8);
+        int optionCount = map.getInt(12);
+        int stringBytes = map.getInt(16);
+
+        int off = HEADER_BYTES;
+        ids = section(map, off, pollCount * 8).asLongBuffer();
+        off += pollCount * 8;
+        optionStart = section(map, off, (pollCount + 1) * 4).asIntBuffer();
+        off += (pollCount + 1) * 4;
+        totals = section(map, off, pollCount * 4).asIntBuffer();
+        off += pollCount * 4;
+        winners = section(map, off, pollCount * 4).asIntBuffer();
+        off += pollCount * 4;
+        votes = section(map, off, optionCount * 4).asIntBuffer();
+        off += optionCount * 4;
+        stringStart = section(map, off, (pollCount + optionCount + 1) * 4).asIntBuffer();
+        off += (pollCount + optionCount + 1) * 4;
+        strings = section(map, off, stringBytes);
+    }
+
+    public static PollArchive open(File f) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(f, "r");
+        try {
+            FileChannel ch = raf.getChannel();
+            return new PollArchive(raf, ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        } catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    private static ByteBuffer section(ByteBuffer map, int off, int len) {
+        ByteBuffer dup = map.duplicate();
+        dup.position(off).limit(off + len);
+        return dup.slice();
+    }
+
+    public int size() {
+        return pollCount;
+    }
+
+    /** A reusable flyweight; call {@link Row#moveTo} to point it at a poll. */
+    public Row newRow() {
+        return new Row();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mapping itself is released when the buffers are collected
+        file.close();
+    }
+
+    private String string(int index, byte[] scratch) {
+        int start = stringStart.get(index);
+        int len = stringStart.get(index + 1) - start;
+        byte[] b = len <= scratch.length ? scratch : new byte[len];
+        ByteBuffer dup = strings.duplicate();
+        dup.position(start);
+        dup.get(b, 0, len);
+        return new String(b, 0, len, StandardCharsets.UTF_8);
+    }
+
+    /** Flyweight over one archived poll; owns only a cursor and a scratch buffer. */
+    public class Row implements PollResults {
+        private int poll;
+        private int first;
+        private final byte[] scratch = new byte[256];
+
+        public Row moveTo(int index) {
+            poll = index;
+            first = optionStart.get(index);
+            return this;
+        }
+
+        @Override
+        public long id() {
+            return ids.get(poll);
+        }
+
+        @Override
+        public String title() {
+            return string(poll, scratch);
+        }
+
+        @Override
+        public int optionCount() {
+            return optionStart.get(poll + 1) - first;
+        }
+
+        @Override
+        public String optionLabel(int index) {
+            return string(pollCount + first + index, scratch);
+        }
+
+        @Override
+        public int votesFor(int index) {
+            return votes.get(first + index);
+        }
+
+        @Override
+        public int totalVotes() {
+            return totals.get(poll);
+        }
+
+        @Override
+        public int winningIndex() {
+            return winners.get(poll);
+        }
+    }
+
+    /**
+     * Builds an archive from primitive columns; holds encoded data only,
+     * never the source Poll objects.
+     */
+    public static class Writer {
+        private long[] ids = new long[64];
+        private int[] optionStart = new int[65];
+        private int[] totals = new int[64];
+        private int[] winners = new int[64];
+        private int[] votes = new int[256];
+        private int[] questionEnd = new int[64];
+        private int[] labelEnd = new int[256];
+        private final Blob questions = new Blob();
+        private final Blob labels = new Blob();
+        private int polls, options;
+
+        public Writer add(PollResults p) {
+            int n = p.optionCount();
+            ensure(polls + 1, options + n);
+            ids[polls] = p.id();
+            questionEnd[polls] = questions.append(p.title());
+            totals[polls] = p.totalVotes();
+            winners[polls] = p.winningIndex();
+            for (int i = 0; i < n; i++) {
+                labelEnd[options + i] = labels.append(p.optionLabel(i));
+                votes[options + i] = p.votesFor(i);
+            }
+            options += n;
+            polls++;
+            optionStart[polls] = options;
+            return this;
+        }
+
+        private void ensure(int p, int o) {
+            if (p > ids.length) {
+                int cap = Math.max(p, ids.length * 2);
+                ids = Arrays.copyOf(ids, cap);
+                optionStart = Arrays.copyOf(optionStart, cap + 1);
+                totals = Arrays.copyOf(totals, cap);
+                winners = Arrays.copyOf(winners, cap);
+                questionEnd = Arrays.copyOf(questionEnd, cap);
+            }
+            if (o > votes.length) {
+                int cap = Math.max(o, votes.length * 2);
+                votes = Arrays.copyOf(votes, cap);
+                labelEnd = Arrays.copyOf(labelEnd, cap);
+            }
+        }
+
+        public void writeTo(File f) throws IOException {
+            long stringBytes = (long) questions.size + labels.size;
+            if (stringBytes > Integer.MAX_VALUE) throw new IOException("Archive too large");
+
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(f), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(polls);
+                out.writeInt(options);
+                out.writeInt((int) stringBytes);
+                for (int i = 0; i < 3; i++) out.writeInt(0);
+
+                for (int i = 0; i < polls; i++) out.writeLong(ids[i]);
+                for (int i = 0; i <= polls; i++) out.writeInt(optionStart[i]);
+                for (int i = 0; i < polls; i++) out.writeInt(totals[i]);
+                for (int i = 0; i < polls; i++) out.writeInt(winners[i]);
+                for (int i = 0; i < options; i++) out.writeInt(votes[i]);
+
+                out.writeInt(0);
+                for (int i = 0; i < polls; i++) out.writeInt(questionEnd[i]);
+                for (int i = 0; i < options; i++) out.writeInt(questions.size + labelEnd[i]);
+
+                out.write(questions.bytes, 0, questions.size);
+                out.write(labels.bytes, 0, labels.size);
+            }
+        }
+    }
+
+    /** Growable UTF-8 byte buffer; append returns the end offset. */
+    private static class Blob {
+        byte[] bytes = new byte[4096];
+        int size;
+
+        int append(String s) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            if (size + b.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + b.length, bytes.length * 2));
+            }
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+            return size;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.votingpage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies an imported file to the live polls. Ids in a file belong to the
+ * install that wrote it, so they only link its records together: a poll
+ * in the file is the same as a live one when question, options and method
+ * match, and anything else is added as a new poll with a local id at the
+ * end. Votes and ballots for an id with no poll record in the file are
+ * rejected. Votes and plurality ballots are summed per poll and option as
+ * they stream past, then applied once per option (journaled when there is
+ * a store). So memory grows with the number of polls in the file, not
+ * ballots, and a failed or cancelled import leaves everything as it was,
+ * except ranked and approval ballots for polls that already existed,
+ * which are cast as they are read.
+ */
+public final class PollImporter implements BallotIO.Sink {
+
+    private final Map<String, Poll> byContent = new HashMap<>();  // key() -> live or added poll
+    private final Set<Poll> existing = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final PollStore store;                                // null = in memory only
+    private final Map<Long, Poll> byFileId = new HashMap<>();     // the file's poll ids
+    private final List<Poll> added = new ArrayList<>();           // file order
+    private final Map<Poll, int[]> pending = new IdentityHashMap<>(); // counts to add
+    private long ballots;
+    private Poll last;        // ballots come in runs per poll; skips the map lookups
+    private long lastId;      // last's id in the file
+    private int[] lastCounts;
+
+    public PollImporter(Collection<Poll> polls, PollStore store) {
+        for (Poll p : polls) {
+            existing.add(p);
+            byContent.putIfAbsent(key(p), p);
+        }
+        this.store = store;
+    }
+
+    @Override
+    public void poll(long id, Poll poll) throws IOException {
+        if (byFileId.containsKey(id)) return; // repeated record: the first one stands
+        Poll same = byContent.get(key(poll));
+        if (same == null) {
+            byContent.put(key(poll), poll);
+            added.add(poll);
+            same = poll;
+        }
+        byFileId.put(id, same);
+    }
+
+    /** What makes two polls the same across installs. */
+    private static String key(Poll p) {
+        StringBuilder sb = new StringBuilder();
+        VotingMethod m = p.method();
+        sb.append(m instanceof RankedChoiceVoting ? 'R' : m instanceof ApprovalVoting ? 'A' : 'P');
+        sb.append(p.question).append('\0');
+        for (int i = 0; i < p.optionCount(); i++) sb.append(p.optionLabel(i)).append('\0');
+        return sb.toString();
+    }
+
+    @Override
+    public void votes(long pollId, int option, int count) throws IOException {
+        Poll p = find(pollId);
+        if (option < 0 || option >= p.optionCount()) throw new IOException("Poll " + pollId + " has no option " + option);
+        int[] c = counts(p);
+        if (c[option] > Integer.MAX_VALUE - count) throw new IOException("Poll " + pollId + " has too many votes");
+        c[option] += count;
+    }
+
+    @Override
+    public void ballot(long pollId, int[] choices, int n) throws IOException {
+        Poll p = find(pollId);
+        if (n == 0) return;
+        for (int i = 0; i < n; i++) {
+            if (choices[i] < 0 || choices[i] >= p.optionCount()) {
+                throw new IOException("Poll " + pollId + " has no option " + choices[i]);
+            }
+        }
+        ballots++;
+        if (p.method() != null) {
+            try {
+                if (store != null && existing.contains(p)) store.cast(p, Arrays.copyOf(choices, n));
+                else p.cast(Arrays.copyOf(choices, n));
+            } catch (IllegalArgumentException e) { // e.g. an option ranked twice
+                throw new IOException("Poll " + pollId + ": " + e.getMessage());
+            }
+            return;
+        }
+        int[] c = counts(p);
+        if (c[choices[0]] == Integer.MAX_VALUE) throw new IOException("Poll " + pollId + " has too many votes");
+        c[choices[0]]++;
+    }
+
+    /** Adds the new polls, then every summed count. */
+    @Override
+    public void end() throws IOException {
+        for (Poll p : added) {
+            int[] c = pending.remove(p);
+            if (c != null) for (int o = 0; o < c.length; o++) if (c[o] != 0) p.addVotes(o, c[o]);
+            if (store != null) store.addPoll(p); // the snapshot record carries the counts
+        }
+        for (Map.Entry<Poll, int[]> e : pending.entrySet()) {
+            Poll p = e.getKey();
+            int[] c = e.getValue();
+            for (int o = 0; o < c.length; o++) {
+                if (c[o] == 0) continue;
+                if (store != null) store.add(p, o, c[o]);
+                else p.addVotes(o, c[o]);
+            }
+        }
+        pending.clear();
+    }
+
+    /** Polls that were not there before, in file order; complete once the import ended. */
+    public List<Poll> added() {
+        return new ArrayList<>(added);
+    }
+
+    public long ballots() {
+        return ballots;
+    }
+
+    private Poll find(long id) throws IOException {
+        if (last != null && lastId == id) return last;
+        Poll p = byFileId.get(id);
+        if (p == null) throw new IOException("Votes for poll " + id + " before its poll record");
+        last = p;
+        lastId = id;
+        lastCounts = null;
+        return p;
+    }
+
+    private int[] counts(Poll p) {
+        if (p == last && lastCounts != null) return lastCounts;
+        int[] c = pending.get(p);
+        if (c == null) pending.put(p, c = new int[p.optionCount()]);
+        if (p == last) lastCounts = c;
+        return c;
+    }
+}
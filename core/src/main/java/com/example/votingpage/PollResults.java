@@ -0,0 +1,16 @@
+package com.example.votingpage;
+
+/**
+ * Read-only view of a poll's results, enough to render a closed card.
+ * Implemented by live {@link Poll}s and by flyweight rows of a
+ * memory-mapped {@link PollArchive}.
+ */
+public interface PollResults {
+    long id();
+    String title();
+    int optionCount();
+    String optionLabel(int index);
+    int votesFor(int index);
+    int totalVotes();
+    int winningIndex();
+}
@@ -0,0 +1,259 @@
+package com.example.votingpage;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over poll questions, descriptions and option
+ * labels. A query matches polls containing every query token, where a
+ * token matches a term that
+ *  - equals it,
+ *  - starts with it, for the last token (type-ahead), or
+ *  - is one edit away (insert, delete, substitute, swap), for tokens of 4+ chars.
+ *
+ * Text is lowercased and accent-folded. Terms live in a sorted map for
+ * prefix ranges; fuzzy candidates come from a map of single-character
+ * deletions, so no query scans the dictionary. Postings are doc-id arrays
+ * and results are BitSets, so multi-token queries are word-wise ANDs.
+ *
+ * add()/remove() are incremental; a removed poll's postings stay until
+ * they outnumber the live ones, then the index is rebuilt. Queries may run
+ * on any thread concurrently with updates (read/write lock).
+ */
+public class PollSearchIndex {
+
+    private static final int FUZZY_MIN_LENGTH = 4;
+
+    private final ReentrantReadWriteLock rw = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, String[]> deletions = new HashMap<>(); // term minus one char -> terms
+    private Map<Long, Integer> docByPollId = new HashMap<>(); // replaced, not cleared, on rebuild
+    private Poll[] docs = new Poll[64];
+    private int docCount;
+    private final BitSet live = new BitSet();
+    private int liveCount;
+
+    /** Growable sorted doc-id list. */
+    private static final class Postings {
+        int[] docs = new int[2];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return; // term repeated within a poll
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+
+        void orInto(BitSet out) {
+            for (int i = 0; i < size; i++) out.set(docs[i]);
+        }
+    }
+
+    /** Matching polls as of the query; polls removed since then no longer match. */
+    public final class Result {
+        private final BitSet docs;
+        private final Map<Long, Integer> docIds;
+
+        private Result(BitSet docs) {
+            this.docs = docs;
+            this.docIds = docByPollId;
+        }
+
+        public boolean contains(Poll p) {
+            rw.readLock().lock();
+            try {
+                Integer doc = docIds.get(p.id);
+                return doc != null && docs.get(doc);
+            } finally {
+                rw.readLock().unlock();
+            }
+        }
+
+        public int size() {
+            return docs.cardinality();
+        }
+    }
+
+    public void add(Poll p) {
+        rw.writeLock().lock();
+        try {
+            if (!docByPollId.containsKey(p.id)) insert(p);
+        } finally {
+            rw.writeLock().unlock();
+        }
+    }
+
+    public void remove(Poll p) {
+        rw.writeLock().lock();
+        try {
+            Integer doc = docByPollId.remove(p.id);
+            if (doc == null) return;
+            live.clear(doc);
+            docs[doc] = null;
+            liveCount--;
+            if (docCount - liveCount > Math.max(1024, liveCount)) rebuild();
+        } finally {
+            rw.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        rw.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            rw.readLock().unlock();
+        }
+    }
+
+    /** Polls matching every token of {@code query}; a blank query matches everything. */
+    public Result search(String query) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(query, tokens);
+        rw.readLock().lock();
+        try {
+            BitSet result = (BitSet) live.clone();
+            BitSet match = new BitSet(docCount);
+            for (int t = 0; t < tokens.size() && !result.isEmpty(); t++) {
+                match.clear();
+                collect(tokens.get(t), t == tokens.size() - 1, match);
+                result.and(match);
+            }
+            return new Result(result);
+        } finally {
+            rw.readLock().unlock();
+        }
+    }
+
+    // ---------------- matching ----------------
+
+    private void collect(String token, boolean prefix, BitSet out) {
+        if (prefix) {
+            for (Postings p : terms.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                p.orInto(out);
+            }
+        } else {
+            Postings exact = terms.get(token);
+            if (exact != null) exact.orInto(out);
+        }
+        if (token.length() < FUZZY_MIN_LENGTH) return;
+
+        // Terms one insertion away: the token is one of their deletions
+        orAll(deletions.get(token), token, out);
+        for (int i = 0; i < token.length(); i++) {
+            String d = deleteAt(token, i);
+            Postings p = terms.get(d); // one deletion away
+            if (p != null) p.orInto(out);
+            orAll(deletions.get(d), token, out); // substitution or swap (verified)
+        }
+    }
+
+    private void orAll(String[] candidates, String token, BitSet out) {
+        if (candidates == null) return;
+        for (String term : candidates) {
+            if (withinOneEdit(term, token)) terms.get(term).orInto(out);
+        }
+    }
+
+    /** Optimal string alignment distance <= 1. */
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length(), lb = b.length();
+        if (Math.abs(la - lb) > 1) return false;
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) i++;
+        if (i == la || i == lb) return true; // equal, or one trailing insert
+        if (la == lb) {
+            if (a.regionMatches(i + 1, b, i + 1, la - i - 1)) return true; // substitute
+            return i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, la - i - 2); // swap
+        }
+        return la > lb ? a.regionMatches(i + 1, b, i, lb - i) : b.regionMatches(i + 1, a, i, la - i);
+    }
+
+    // ---------------- indexing ----------------
+
+    private final List<String> scratch = new ArrayList<>(); // writer only
+
+    private void insert(Poll p) {
+        int doc = docCount++;
+        if (doc == docs.length) docs = Arrays.copyOf(docs, doc * 2);
+        docs[doc] = p;
+        docByPollId.put(p.id, doc);
+        live.set(doc);
+        liveCount++;
+        indexText(p.question, doc);
+        indexText(p.description, doc);
+        for (int i = 0; i < p.optionCount(); i++) indexText(p.optionLabel(i), doc);
+    }
+
+    private void indexText(String text, int doc) {
+        scratch.clear();
+        tokenize(text, scratch);
+        for (String term : scratch) {
+            Postings p = terms.get(term);
+            if (p == null) {
+                terms.put(term, p = new Postings());
+                if (term.length() >= FUZZY_MIN_LENGTH) { // shorter queries never look fuzzy terms up
+                    for (int i = 0; i < term.length(); i++) addDeletion(deleteAt(term, i), term);
+                }
+            }
+            p.add(doc);
+        }
+    }
+
+    private void addDeletion(String key, String term) {
+        String[] old = deletions.get(key);
+        if (old == null) {
+            deletions.put(key, new String[] {term});
+        } else if (!old[old.length - 1].equals(term)) { // "aab" minus either 'a' is the same key
+            String[] grown = Arrays.copyOf(old, old.length + 1);
+            grown[old.length] = term;
+            deletions.put(key, grown);
+        }
+    }
+
+    private void rebuild() {
+        Poll[] keep = new Poll[liveCount];
+        int n = 0;
+        for (int d = 0; d < docCount; d++) if (docs[d] != null) keep[n++] = docs[d];
+        terms.clear();
+        deletions.clear();
+        docByPollId = new HashMap<>(); // older Results keep the old doc ids
+        live.clear();
+        docs = new Poll[Math.max(64, n)];
+        docCount = 0;
+        liveCount = 0;
+        for (int i = 0; i < n; i++) insert(keep[i]);
+    }
+
+    private static String deleteAt(String s, int i) {
+        return s.substring(0, i) + s.substring(i + 1);
+    }
+
+    /** Lowercase, accent-folded letter/digit runs. */
+    static void tokenize(String text, List<String> out) {
+        if (text == null || text.isEmpty()) return;
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                out.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) out.add(token.toString());
+    }
+}
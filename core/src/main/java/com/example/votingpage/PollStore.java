@@ -0,0 +1,796 @@
+package com.example.votingpage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Durable home for polls: a binary snapshot plus an append-only journal.
+ *
+ * Files in the store directory:
+ *  - polls.snap          every poll as of journal generation G (header holds G)
+ *  - journal-N.log       changes made while generation N was current
+ *
+ * Recovery loads the snapshot and replays journals G, G+1, ... only.
+ * Every change is framed into the journal before it is applied in
+ * memory, so a write that fails leaves the model as it was. Journal
+ * writes are buffered and fsync'd in batches (every syncIntervalMs or on
+ * flush()/close()). Compaction rolls to a new generation under the lock,
+ * then writes the snapshot and drops old journals in the background.
+ *
+ * Plain java.io/nio only (no android.*), so it runs in host-side tests.
+ */
+public class PollStore implements Closeable {
+
+    static final String SNAPSHOT = "polls.snap";
+    private static final int SNAPSHOT_MAGIC = 0x504F4C53; // "POLS"
+    // 3: polls may carry FLAG_METHOD/FLAG_REPLICA sections. Readers refuse newer
+    // versions, unknown flags and unknown record types rather than misread them.
+    private static final int FORMAT_VERSION = 3;
+    // Version 1 and REC_ADD_V1 stored strings with writeUTF (64 KB cap); still read
+    private static final int FORMAT_VERSION_V1 = 1;
+
+    // Journal record types
+    private static final byte REC_ADD_V1 = 1;
+    private static final byte REC_VOTE = 2;
+    private static final byte REC_CLOSED = 3;
+    private static final byte REC_DELETE = 4;
+    private static final byte REC_ADD = 5;
+    private static final byte REC_BALLOT = 6;
+    private static final byte REC_COUNTS = 7;
+    private static final byte REC_RECOUNT = 8;
+    private static final byte REC_REPLICA = 9;
+
+    // Read limits, so a corrupt length cannot allocate gigabytes
+    private static final int MAX_STRING_BYTES = 16 << 20;
+    static final int MAX_OPTIONS = 1 << 20; // also caps options in synced replica states
+
+    // type + payload length + crc
+    private static final int FRAME_OVERHEAD = 1 + 4 + 4;
+    private static final int VOTE_PAYLOAD = 8 + 4 + 4;
+
+    private final File dir;
+    private final long compactThresholdBytes;
+
+    // Insertion order (oldest first); polls() hands it out newest first
+    private final Map<Long, Poll> byId = new LinkedHashMap<>();
+    private final Map<Long, byte[]> replicas = new HashMap<>(); // ReplicatedPoll states by poll id
+
+    private final Object lock = new Object();
+    private final ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream();
+    private final CRC32 crc = new CRC32();
+    private FileChannel journal;
+    private int generation;
+    private long journalBytes;
+    private boolean dirty;        // written but not yet fsync'd
+    private Future<?> compaction; // pending background compaction, if any
+
+    // One thread for the fsync timer, one so a long snapshot write never delays it
+    private final ScheduledExecutorService io = Executors.newScheduledThreadPool(2, r -> {
+        Thread t = new Thread(r, "PollStore-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PollStore(File dir, long syncIntervalMs, long compactThresholdBytes) {
+        this.dir = dir;
+        this.compactThresholdBytes = compactThresholdBytes;
+        if (syncIntervalMs > 0) {
+            io.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Opens (or creates) a store with default batching: fsync every 50 ms, compact past 4 MB. */
+    public static PollStore open(File dir) throws IOException {
+        return open(dir, 50, 4L * 1024 * 1024);
+    }
+
+    public static PollStore open(File dir, long syncIntervalMs, long compactThresholdBytes) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        PollStore store = new PollStore(dir, syncIntervalMs, compactThresholdBytes);
+        try {
+            store.recover();
+        } catch (IOException e) {
+            store.io.shutdownNow();
+            throw e;
+        }
+        return store;
+    }
+
+    // ---------------- model ----------------
+
+    /** Live polls, newest first (the order VotingActivity shows them). */
+    public List<Poll> polls() {
+        synchronized (lock) {
+            List<Poll> res = new ArrayList<>(byId.values());
+            Collections.reverse(res);
+            return res;
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return byId.size();
+        }
+    }
+
+    public void addPoll(Poll p) throws IOException {
+        synchronized (lock) {
+            scratch.reset();
+            writePoll(new DataOutputStream(scratch), p);
+            int bytes = appendRecord(REC_ADD, scratch.toByteArray());
+            byId.put(p.id, p);
+            afterWrite(bytes);
+        }
+    }
+
+    /**
+     * Journals one ballot, then casts it under the poll's method (for
+     * plurality, its first choice). Ranked and approval ballots replay as
+     * they were cast.
+     */
+    public void cast(Poll p, int... choices) throws IOException {
+        int options = p.optionCount();
+        for (int c : choices) {
+            if (c < 0 || c >= options) throw new IllegalArgumentException("No option " + c);
+        }
+        synchronized (lock) {
+            int bytes = appendRecord(REC_BALLOT, encodeInts(p.id, choices));
+            p.cast(choices);
+            afterWrite(bytes);
+        }
+    }
+
+    /** Counts a vote and journals it; safe from any thread. */
+    public void vote(Poll p, int option) throws IOException {
+        add(p, option, 1);
+    }
+
+    /**
+     * Journals {@code delta} votes for one option, then counts them. An
+     * IOException means the record was not written and nothing was counted.
+     */
+    public void add(Poll p, int option, int delta) throws IOException {
+        int options = p.tally.size();
+        if (option < 0 || option >= options) throw new IndexOutOfBoundsException("option " + option + " of " + options);
+        if (delta < 0 && p.method() != null) throw new IllegalArgumentException("Ballots cannot be taken back");
+        synchronized (lock) {
+            reserve(FRAME_OVERHEAD + VOTE_PAYLOAD);
+            int start = buf.position();
+            buf.put(REC_VOTE).putInt(VOTE_PAYLOAD).putLong(p.id).putInt(option).putInt(delta);
+            int bytes = sealRecord(start);
+            p.addVotes(option, delta);
+            afterWrite(bytes);
+        }
+    }
+
+    /**
+     * Adds {@code counts[o]} votes to each option in one journal record, so
+     * a whole box lands or none of it does. Under a method each vote is a
+     * one-choice ballot, as with {@link #add}.
+     */
+    public void addAll(Poll p, int[] counts) throws IOException {
+        if (counts.length > p.optionCount()) throw new IndexOutOfBoundsException(counts.length + " options");
+        for (int c : counts) {
+            if (c < 0) throw new IllegalArgumentException("Negative count " + c);
+        }
+        synchronized (lock) {
+            int bytes = appendRecord(REC_COUNTS, encodeInts(p.id, counts));
+            for (int o = 0; o < counts.length; o++) if (counts[o] != 0) p.addVotes(o, counts[o]);
+            afterWrite(bytes);
+        }
+    }
+
+    /** Replaces a plurality poll's counts (a recount), journaling the new values rather than a difference. */
+    public void setAll(Poll p, int[] counts) throws IOException {
+        if (p.method() != null) throw new IllegalStateException("Ranked and approval counts follow their ballots");
+        if (counts.length != p.optionCount()) throw new IllegalArgumentException(counts.length + " counts");
+        for (int c : counts) {
+            if (c < 0) throw new IllegalArgumentException("Negative count " + c);
+        }
+        synchronized (lock) {
+            int bytes = appendRecord(REC_RECOUNT, encodeInts(p.id, counts));
+            for (int o = 0; o < counts.length; o++) p.tally.set(o, counts[o]);
+            afterWrite(bytes);
+        }
+    }
+
+    public void setClosed(Poll p, boolean closed) throws IOException {
+        synchronized (lock) {
+            scratch.reset();
+            DataOutputStream out = new DataOutputStream(scratch);
+            out.writeLong(p.id);
+            out.writeBoolean(closed);
+            int bytes = appendRecord(REC_CLOSED, scratch.toByteArray());
+            p.closed = closed;
+            afterWrite(bytes);
+        }
+    }
+
+    /**
+     * Journals a {@link ReplicatedPoll} change as one record: what it adds
+     * to each option, the closed flag and the CRDT state, which
+     * {@link #replicaState} hands back after a restart.
+     */
+    void replicate(Poll p, int[] deltas, boolean closed, byte[] state) throws IOException {
+        if (deltas.length > p.optionCount()) throw new IndexOutOfBoundsException(deltas.length + " options");
+        for (int d : deltas) {
+            if (d < 0 && p.method() != null) throw new IllegalArgumentException("Ballots cannot be taken back");
+        }
+        ByteBuffer b = ByteBuffer.allocate(8 + 1 + 4 + 4 * deltas.length + 4 + state.length);
+        b.putLong(p.id).put((byte) (closed ? 1 : 0)).putInt(deltas.length);
+        for (int d : deltas) b.putInt(d);
+        b.putInt(state.length).put(state);
+        synchronized (lock) {
+            int bytes = appendRecord(REC_REPLICA, b.array());
+            for (int o = 0; o < deltas.length; o++) if (deltas[o] != 0) p.addVotes(o, deltas[o]);
+            p.closed = closed;
+            replicas.put(p.id, state);
+            afterWrite(bytes);
+        }
+    }
+
+    /** The last state journaled for {@code p} through {@link #replicate}, or null. */
+    byte[] replicaState(Poll p) {
+        synchronized (lock) {
+            return replicas.get(p.id);
+        }
+    }
+
+    public void delete(Poll p) throws IOException {
+        synchronized (lock) {
+            scratch.reset();
+            new DataOutputStream(scratch).writeLong(p.id);
+            int bytes = appendRecord(REC_DELETE, scratch.toByteArray());
+            byId.remove(p.id);
+            replicas.remove(p.id);
+            afterWrite(bytes);
+        }
+    }
+
+    // ---------------- durability ----------------
+
+    /** Writes buffered records and fsyncs the journal. */
+    public void flush() throws IOException {
+        synchronized (lock) {
+            drain();
+            if (dirty) {
+                journal.force(false);
+                dirty = false;
+            }
+        }
+    }
+
+    /**
+     * Starts a new journal generation and writes a snapshot of the current
+     * state in the background. Old journals are deleted once the snapshot
+     * is safely renamed into place.
+     */
+    public Future<?> compactAsync() throws IOException {
+        synchronized (lock) {
+            if (compaction != null && !compaction.isDone()) return compaction;
+            flush();
+            journal.close();
+            generation++;
+            openJournal(generation);
+
+            final int gen = generation;
+            final List<PollState> states = new ArrayList<>(byId.size());
+            for (Poll p : byId.values()) states.add(new PollState(p, replicas.get(p.id)));
+            compaction = io.submit(() -> {
+                writeSnapshot(gen, states);
+                return null;
+            });
+            return compaction;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Future<?> pending;
+        synchronized (lock) {
+            pending = compaction;
+        }
+        if (pending != null) {
+            try {
+                pending.get();
+            } catch (Exception e) {
+                // Snapshot failed: the journals are still intact, nothing lost
+            }
+        }
+        io.shutdownNow();
+        synchronized (lock) {
+            flush();
+            journal.close();
+        }
+    }
+
+    // ---------------- journal writing ----------------
+
+    /**
+     * Frames a record into the journal and returns its size. The caller
+     * then applies the change and calls {@link #afterWrite}, which may
+     * compact, so the snapshot always includes it.
+     */
+    private int appendRecord(byte type, byte[] payload) throws IOException {
+        reserve(FRAME_OVERHEAD + payload.length);
+        if (buf.remaining() < FRAME_OVERHEAD + payload.length) {
+            // Larger than the buffer (drained above): frame it on its own
+            ByteBuffer big = ByteBuffer.allocate(FRAME_OVERHEAD + payload.length);
+            big.put(type).putInt(payload.length).put(payload);
+            crc.reset();
+            crc.update(big.array(), 0, big.position());
+            big.putInt((int) crc.getValue());
+            big.flip();
+            long end = journal.position();
+            try {
+                while (big.hasRemaining()) journal.write(big);
+            } catch (IOException e) {
+                try {
+                    journal.truncate(end); // no half record for later ones to land behind
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            return big.limit();
+        }
+        int start = buf.position();
+        buf.put(type).putInt(payload.length).put(payload);
+        return sealRecord(start);
+    }
+
+    private int sealRecord(int start) {
+        crc.reset();
+        crc.update(buf.array(), start, buf.position() - start);
+        buf.putInt((int) crc.getValue());
+        return buf.position() - start;
+    }
+
+    /**
+     * Never throws: by now the record is queued and applied, so a failed
+     * compaction must not report the write as failed. The next write
+     * tries again.
+     */
+    private void afterWrite(int bytes) {
+        dirty = true;
+        journalBytes += bytes;
+        if (compactThresholdBytes > 0 && journalBytes >= compactThresholdBytes
+                && (compaction == null || compaction.isDone())) {
+            try {
+                compactAsync();
+            } catch (IOException ignored) {
+                // Journal generation unchanged or reopened; retried on the next write
+            }
+        }
+    }
+
+    private void reserve(int bytes) throws IOException {
+        if (buf.remaining() < bytes) drain();
+    }
+
+    private void drain() throws IOException {
+        if (buf.position() == 0) return;
+        buf.flip();
+        try {
+            while (buf.hasRemaining()) journal.write(buf);
+        } finally {
+            buf.compact(); // what did not make it stays queued, in order, for the next attempt
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            flush();
+        } catch (IOException ignored) {
+            // Retried on the next tick; close() surfaces persistent failures
+        }
+    }
+
+    private void openJournal(int gen) throws IOException {
+        File f = journalFile(gen);
+        boolean created = !f.exists();
+        journal = new RandomAccessFile(f, "rw").getChannel();
+        journal.position(journal.size());
+        journalBytes = journal.size();
+        if (created) syncDir(dir);
+    }
+
+    private File journalFile(int gen) {
+        return new File(dir, "journal-" + gen + ".log");
+    }
+
+    // ---------------- recovery ----------------
+
+    private void recover() throws IOException {
+        int snapGen = 0;
+        File snap = new File(dir, SNAPSHOT);
+        if (snap.exists()) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(snap), 64 * 1024))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a poll snapshot: " + snap);
+                int version = in.readInt();
+                if (version < FORMAT_VERSION_V1 || version > FORMAT_VERSION) {
+                    throw new IOException("Unsupported snapshot version " + version);
+                }
+                snapGen = in.readInt();
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    Poll p = readPoll(in, version == FORMAT_VERSION_V1, replicas);
+                    byId.put(p.id, p);
+                }
+            }
+        }
+
+        int[] gens = journalGenerations();
+        int last = snapGen;
+        for (int gen : gens) {
+            if (gen < snapGen) {
+                // Left over from a compaction that finished its snapshot
+                //noinspection ResultOfMethodCallIgnored
+                journalFile(gen).delete();
+                continue;
+            }
+            replay(journalFile(gen));
+            last = Math.max(last, gen);
+        }
+        generation = last;
+        openJournal(generation);
+    }
+
+    private int[] journalGenerations() {
+        String[] names = dir.list();
+        if (names == null) return new int[0];
+        int[] gens = new int[names.length];
+        int n = 0;
+        for (String name : names) {
+            if (name.startsWith("journal-") && name.endsWith(".log")) {
+                try {
+                    gens[n++] = Integer.parseInt(name.substring(8, name.length() - 4));
+                } catch (NumberFormatException ignored) {
+                    // Not ours
+                }
+            }
+        }
+        gens = Arrays.copyOf(gens, n);
+        Arrays.sort(gens);
+        return gens;
+    }
+
+    /** Applies every intact record; a torn tail (crash mid-write) is cut off. */
+    private void replay(File f) throws IOException {
+        long good = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(f), 64 * 1024))) {
+            CRC32 check = new CRC32();
+            byte[] payload = new byte[256];
+            while (true) {
+                int type = in.read();
+                if (type < 0) break;
+                int len;
+                try {
+                    len = in.readInt();
+                    if (len < 0 || len > (64 << 20)) break;
+                    if (payload.length < len) payload = new byte[Math.max(len, payload.length * 2)];
+                    in.readFully(payload, 0, len);
+                    check.reset();
+                    check.update(type);
+                    check.update((len >>> 24) & 0xFF);
+                    check.update((len >>> 16) & 0xFF);
+                    check.update((len >>> 8) & 0xFF);
+                    check.update(len & 0xFF);
+                    check.update(payload, 0, len);
+                    if (in.readInt() != (int) check.getValue()) break;
+                } catch (EOFException e) {
+                    break;
+                }
+                apply((byte) type, payload, len);
+                good += FRAME_OVERHEAD + len;
+            }
+        }
+        if (good < f.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+                raf.setLength(good);
+            }
+        }
+    }
+
+    private void apply(byte type, byte[] payload, int len) throws IOException {
+        ByteBuffer b = ByteBuffer.wrap(payload, 0, len);
+        switch (type) {
+            case REC_ADD:
+            case REC_ADD_V1: {
+                Poll p = readPoll(new DataInputStream(new ByteArrayInputStream(payload, 0, len)), type == REC_ADD_V1, null);
+                byId.put(p.id, p);
+                break;
+            }
+            case REC_VOTE: {
+                Poll p = byId.get(b.getLong());
+                int option = b.getInt();
+                int delta = b.getInt();
+                if (p != null && option >= 0 && option < p.tally.size()) p.addVotes(option, delta);
+                break;
+            }
+            case REC_CLOSED: {
+                Poll p = byId.get(b.getLong());
+                boolean closed = b.get() != 0;
+                if (p != null) p.closed = closed;
+                break;
+            }
+            case REC_DELETE: {
+                long id = b.getLong();
+                byId.remove(id);
+                replicas.remove(id);
+                break;
+            }
+            case REC_COUNTS: {
+                Poll p = byId.get(b.getLong());
+                int n = b.getInt();
+                for (int o = 0; o < n; o++) {
+                    int c = b.getInt();
+                    if (p != null && o < p.optionCount() && c > 0) p.addVotes(o, c);
+                }
+                break;
+            }
+            case REC_RECOUNT: {
+                Poll p = byId.get(b.getLong());
+                int n = b.getInt();
+                for (int o = 0; o < n; o++) {
+                    int c = b.getInt();
+                    if (p != null && o < p.optionCount()) p.tally.set(o, c);
+                }
+                break;
+            }
+            case REC_BALLOT: {
+                Poll p = byId.get(b.getLong());
+                int[] choices = new int[b.getInt()];
+                for (int i = 0; i < choices.length; i++) choices[i] = b.getInt();
+                try {
+                    if (p != null) p.cast(choices);
+                } catch (IllegalArgumentException e) {
+                    // The method rejected it when it was cast, too
+                }
+                break;
+            }
+            case REC_REPLICA: {
+                Poll p = byId.get(b.getLong());
+                boolean closed = b.get() != 0;
+                int[] deltas = new int[b.getInt()];
+                for (int o = 0; o < deltas.length; o++) deltas[o] = b.getInt();
+                byte[] state = new byte[b.getInt()];
+                b.get(state);
+                if (p == null) break;
+                for (int o = 0; o < deltas.length && o < p.optionCount(); o++) {
+                    if (deltas[o] != 0) p.addVotes(o, deltas[o]);
+                }
+                p.closed = closed;
+                replicas.put(p.id, state);
+                break;
+            }
+            default:
+                // From a newer build; skipping it would drop data at the next compaction
+                throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    // ---------------- snapshot ----------------
+
+    private void writeSnapshot(int gen, List<PollState> states) throws IOException {
+        File tmp = new File(dir, SNAPSHOT + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 64 * 1024));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(gen);
+            out.writeInt(states.size());
+            for (PollState s : states) s.write(out);
+            out.flush();
+            fos.getFD().sync();
+        }
+        if (!tmp.renameTo(new File(dir, SNAPSHOT))) throw new IOException("Cannot install snapshot");
+        // The rename must be durable before the journals it replaces go away
+        syncDir(dir);
+        for (int old : journalGenerations()) {
+            //noinspection ResultOfMethodCallIgnored
+            if (old < gen) journalFile(old).delete();
+        }
+    }
+
+    /**
+     * fsyncs a directory so renames and new files in it survive a crash.
+     * Uses java.nio.file, which Android only has from API 26; older
+     * devices skip it, as does any platform that cannot open a directory.
+     */
+    static void syncDir(File dir) {
+        try (FileChannel ch = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException | LinkageError ignored) {
+            // Best effort
+        }
+    }
+
+    // ---------------- encoding ----------------
+    // poll   := id:long flags:byte question:str [description:str] [link:str]
+    //           n:int label:str*n votes:int*n [method] [len:int replicaState:byte*len]
+    // str    := len:int utf8:byte*len   (version 1 used writeUTF instead)
+    // method := RANKED ballots:int (len:byte rank:byte*len)*ballots
+    //         | APPROVAL ballots:int
+    // ballot := id:long n:int choice:int*n   (REC_BALLOT payload)
+    // counts := id:long n:int count:int*n    (REC_COUNTS and REC_RECOUNT payloads)
+    // replica := id:long closed:byte n:int delta:int*n len:int state:byte*len   (REC_REPLICA payload)
+
+    private static final int FLAG_CLOSED = 1;
+    private static final int FLAG_DESCRIPTION = 2;
+    private static final int FLAG_LINK = 4;
+    private static final int FLAG_METHOD = 8;
+    private static final int FLAG_REPLICA = 16; // snapshots only
+    private static final int KNOWN_FLAGS = FLAG_CLOSED | FLAG_DESCRIPTION | FLAG_LINK | FLAG_METHOD | FLAG_REPLICA;
+
+    private static final byte METHOD_RANKED = 1;
+    private static final byte METHOD_APPROVAL = 2;
+
+    static void writePoll(DataOutput out, Poll p) throws IOException {
+        new PollState(p, null).write(out);
+    }
+
+    static Poll readPoll(DataInput in) throws IOException {
+        return readPoll(in, false, null);
+    }
+
+    /** {@code replicas} receives the poll's ReplicatedPoll state, if it has one and the map is given. */
+    private static Poll readPoll(DataInput in, boolean v1, Map<Long, byte[]> replicas) throws IOException {
+        long id = in.readLong();
+        int flags = in.readByte();
+        if ((flags & ~KNOWN_FLAGS) != 0) throw new IOException("Unknown poll flags " + flags + " for poll " + id);
+        Poll p = new Poll(id, readString(in, v1));
+        if ((flags & FLAG_DESCRIPTION) != 0) p.description = readString(in, v1);
+        if ((flags & FLAG_LINK) != 0) p.link = readString(in, v1);
+        p.closed = (flags & FLAG_CLOSED) != 0;
+        int n = in.readInt();
+        if (n < 0 || n > MAX_OPTIONS) throw new IOException("Bad option count " + n);
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) labels[i] = readString(in, v1);
+        p.addOptions(labels);
+        for (int i = 0; i < n; i++) p.tally.set(i, in.readInt());
+        if ((flags & FLAG_METHOD) != 0) readMethod(in, p);
+        if ((flags & FLAG_REPLICA) != 0) {
+            int len = in.readInt();
+            if (len < 0 || len > MAX_STRING_BYTES) throw new IOException("Bad replica state length " + len);
+            byte[] state = new byte[len];
+            in.readFully(state);
+            if (replicas != null) replicas.put(id, state);
+        }
+        return p;
+    }
+
+    /** Restores the method and its ballots; the tally is already in place. */
+    private static void readMethod(DataInput in, Poll p) throws IOException {
+        byte method = in.readByte();
+        int ballots = in.readInt();
+        if (ballots < 0) throw new IOException("Bad ballot count " + ballots);
+        if (method == METHOD_RANKED) {
+            RankedChoiceVoting irv = new RankedChoiceVoting(p);
+            irv.decodeBallots(in, ballots);
+            p.setMethod(irv);
+        } else if (method == METHOD_APPROVAL) {
+            p.setMethod(new ApprovalVoting(p, ballots));
+        } else {
+            throw new IOException("Unknown voting method " + method);
+        }
+    }
+
+    /** REC_BALLOT, REC_COUNTS and REC_RECOUNT payloads. */
+    private static byte[] encodeInts(long id, int[] values) {
+        ByteBuffer b = ByteBuffer.allocate(8 + 4 + 4 * values.length).putLong(id).putInt(values.length);
+        for (int v : values) b.putInt(v);
+        return b.array();
+    }
+
+    private static void writeString(DataOutput out, String s) throws IOException {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInput in, boolean v1) throws IOException {
+        if (v1) return in.readUTF();
+        int len = in.readInt();
+        if (len < 0 || len > MAX_STRING_BYTES) throw new IOException("Bad string length " + len);
+        byte[] utf8 = new byte[len];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** Detached copy of a poll, taken under the lock for background snapshots. */
+    private static class PollState {
+        final long id;
+        final String question, description, link;
+        final boolean closed;
+        final String[] labels;
+        final int[] votes;
+        final byte method;     // 0 = plurality
+        final int ballots;
+        final byte[] ranked;   // RankedChoiceVoting.encodeBallots(), or null
+        final byte[] replica;  // ReplicatedPoll state, or null
+
+        PollState(Poll p, byte[] replica) {
+            this.replica = replica;
+            id = p.id;
+            question = p.question;
+            description = p.description;
+            link = p.link;
+            closed = p.closed;
+            labels = new String[p.optionCount()];
+            for (int i = 0; i < labels.length; i++) labels[i] = p.optionLabel(i);
+            VotingMethod m = p.method();
+            if (m instanceof RankedChoiceVoting) {
+                RankedChoiceVoting irv = (RankedChoiceVoting) m;
+                synchronized (irv) { // ballots and first preferences from the same moment
+                    ranked = irv.encodeBallots();
+                    ballots = irv.ballots();
+                    votes = p.tally.snapshot().counts;
+                }
+                method = METHOD_RANKED;
+            } else {
+                ranked = null;
+                method = m instanceof ApprovalVoting ? METHOD_APPROVAL : 0;
+                ballots = m != null ? m.ballots() : 0;
+                votes = p.tally.snapshot().counts;
+            }
+        }
+
+        void write(DataOutput out) throws IOException {
+            int flags = (closed ? FLAG_CLOSED : 0)
+                    | (description != null ? FLAG_DESCRIPTION : 0)
+                    | (link != null ? FLAG_LINK : 0)
+                    | (method != 0 ? FLAG_METHOD : 0)
+                    | (replica != null ? FLAG_REPLICA : 0);
+            out.writeLong(id);
+            out.writeByte(flags);
+            writeString(out, question);
+            if (description != null) writeString(out, description);
+            if (link != null) writeString(out, link);
+            out.writeInt(labels.length);
+            for (String l : labels) writeString(out, l);
+            for (int v : votes) out.writeInt(v);
+            if (method != 0) {
+                out.writeByte(method);
+                out.writeInt(ballots);
+                if (ranked != null) out.write(ranked);
+            }
+            if (replica != null) {
+                out.writeInt(replica.length);
+                out.write(replica);
+            }
+        }
+    }
+}
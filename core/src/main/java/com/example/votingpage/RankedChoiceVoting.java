@@ -0,0 +1,295 @@
+package com.example.votingpage;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Instant-runoff voting. Each ballot ranks some options; every round
+ * counts ballots for their highest-ranked option still running, and the
+ * option with the fewest votes is eliminated (ties: the higher index goes)
+ * until one holds a majority of the ballots not yet exhausted.
+ *
+ * Ballots are packed one byte per rank into a single array, so up to
+ * 255 options and ~1 byte per rank plus 4 per ballot. First preferences
+ * also go to the poll's tally, which is what cards show.
+ *
+ * The rounds of the last count are kept. A few new ballots are applied to
+ * every round directly, and only if that changes a round's outcome is the
+ * count redone, from that round on. Larger batches (bulk imports) are
+ * recounted in full, each round a parallel scan over the ballots. Counting
+ * happens lazily in {@link #winningIndex()} and holds the lock, so casts
+ * wait for it.
+ */
+public final class RankedChoiceVoting implements VotingMethod {
+
+    private static final int MAX_OPTIONS = 255; // a rank and a rank position each fit a byte
+    private static final int MIN_INCREMENTAL = 4096; // pending ballots always applied one by one
+    private static final int SPLIT = 1 << 15;        // ballots per counting task
+
+    private final VoteTally tally;
+    private final int options;
+
+    // Ballot b ranks ranks[starts[b] .. starts[b + 1]), best first
+    private byte[] ranks = new byte[1024];
+    private int[] starts = new int[257];
+    private int ballots;
+
+    // The last count: rounds[0 .. roundCount) over the first `counted` ballots
+    private int counted;
+    private int roundCount;
+    private final int[][] roundVotes;   // per round, per option
+    private final int[] roundActive;    // ballots not exhausted, per round
+    private final int[] eliminatedIn;   // per option: its round, or NEVER
+    private final int[] order;          // option eliminated in each round but the last
+    private volatile int winner;
+
+    private static final int NEVER = Integer.MAX_VALUE;
+
+    /** Counts ranked ballots over {@code poll}'s options, which must all be added already. */
+    public RankedChoiceVoting(Poll poll) {
+        this.tally = poll.tally;
+        this.options = poll.optionCount();
+        if (options > MAX_OPTIONS) throw new IllegalArgumentException(options + " options; at most " + MAX_OPTIONS);
+        roundVotes = new int[Math.max(1, options)][options];
+        roundActive = new int[Math.max(1, options)];
+        eliminatedIn = new int[options];
+        order = new int[Math.max(1, options)];
+        Arrays.fill(eliminatedIn, NEVER);
+    }
+
+    /** Records a ranking, best first; it need not rank every option. */
+    @Override
+    public synchronized void cast(int[] choices) {
+        check(choices, choices.length);
+        append(choices, choices.length);
+        tally.vote(choices[0]);
+    }
+
+    /** Every ballot as len:byte rank:byte*len, for PollStore. */
+    synchronized byte[] encodeBallots() {
+        byte[] out = new byte[ballots + starts[ballots]];
+        int p = 0;
+        for (int b = 0; b < ballots; b++) {
+            int start = starts[b], len = starts[b + 1] - start;
+            out[p++] = (byte) len;
+            System.arraycopy(ranks, start, out, p, len);
+            p += len;
+        }
+        return out;
+    }
+
+    /** Appends {@code n} ballots in {@link #encodeBallots()} form; the tally already holds them. */
+    synchronized void decodeBallots(DataInput in, int n) throws IOException {
+        int[] choices = new int[options];
+        for (int b = 0; b < n; b++) {
+            int len = in.readUnsignedByte();
+            if (len > options) throw new IOException("Ballot ranks " + len + " of " + options + " options");
+            for (int i = 0; i < len; i++) choices[i] = in.readUnsignedByte();
+            try {
+                check(choices, len);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage());
+            }
+            append(choices, len);
+        }
+    }
+
+    private void check(int[] choices, int n) {
+        if (n == 0) throw new IllegalArgumentException("Empty ballot");
+        for (int i = 0; i < n; i++) {
+            int c = choices[i];
+            if (c < 0 || c >= options) throw new IllegalArgumentException("No option " + c);
+            for (int j = 0; j < i; j++) {
+                if (choices[j] == c) throw new IllegalArgumentException("Option " + c + " ranked twice");
+            }
+        }
+    }
+
+    private void append(int[] choices, int n) {
+        int start = starts[ballots];
+        int end = start + n;
+        if (end > ranks.length) ranks = Arrays.copyOf(ranks, Math.max(end, ranks.length * 2));
+        if (ballots + 2 > starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+        for (int i = 0; i < n; i++) ranks[start + i] = (byte) choices[i];
+        starts[++ballots] = end;
+    }
+
+    @Override
+    public synchronized int ballots() {
+        return ballots;
+    }
+
+    /** Copies ballot {@code index}'s ranking into {@code into} (room for every option); returns its length. */
+    public synchronized int ballot(int index, int[] into) {
+        if (index < 0 || index >= ballots) throw new IndexOutOfBoundsException("ballot " + index);
+        int start = starts[index], len = starts[index + 1] - start;
+        for (int i = 0; i < len; i++) into[i] = ranks[start + i] & 0xFF;
+        return len;
+    }
+
+    /** Brings the count up to date first; see the class comment for the cost. */
+    @Override
+    public synchronized int winningIndex() {
+        update();
+        return winner;
+    }
+
+    /** Rounds in the current count, the last one being decisive. */
+    public synchronized int rounds() {
+        update();
+        return roundCount;
+    }
+
+    /** Votes for {@code option} in {@code round}. */
+    public synchronized int votes(int round, int option) {
+        update();
+        if (round < 0 || round >= roundCount) throw new IndexOutOfBoundsException("round " + round);
+        return roundVotes[round][option];
+    }
+
+    /** The option eliminated after {@code round}; -1 for the last round. */
+    public synchronized int eliminated(int round) {
+        update();
+        if (round < 0 || round >= roundCount) throw new IndexOutOfBoundsException("round " + round);
+        return round == roundCount - 1 ? -1 : order[round];
+    }
+
+    /** Discards the kept rounds and counts every ballot again. */
+    public synchronized int recount() {
+        counted = 0;
+        roundCount = 0;
+        update();
+        return winner;
+    }
+
+    // ---------------- counting ----------------
+
+    private void update() {
+        int pending = ballots - counted;
+        if (pending == 0 && roundCount > 0) return;
+        if (roundCount == 0 || pending > Math.max(MIN_INCREMENTAL, counted / 16)) {
+            countFrom(0);
+            return;
+        }
+        for (int b = counted; b < ballots; b++) apply(b);
+        counted = ballots;
+        for (int r = 0; r < roundCount; r++) {
+            int d = decide(r);
+            boolean last = r == roundCount - 1;
+            if (d >= 0) {                                  // someone wins in round r
+                if (!last) truncate(r);
+                winner = d;
+                return;
+            }
+            if (last || -d - 1 != order[r]) {              // a different elimination, or no winner any more
+                countFrom(r);
+                return;
+            }
+        }
+    }
+
+    /** Adds ballot b to every kept round. */
+    private void apply(int b) {
+        for (int r = 0; r < roundCount; r++) {
+            for (int p = starts[b], end = starts[b + 1]; p < end; p++) {
+                int c = ranks[p] & 0xFF;
+                if (eliminatedIn[c] >= r) {
+                    roundVotes[r][c]++;
+                    roundActive[r]++;
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Keeps rounds before {@code from} and counts the rest from the ballots. */
+    private void countFrom(int from) {
+        for (int c = 0; c < options; c++) if (eliminatedIn[c] >= from) eliminatedIn[c] = NEVER;
+        counted = ballots;
+        boolean[] out = new boolean[options];
+        for (int r = 0; r < from; r++) out[order[r]] = true;
+        byte[] pos = new byte[ballots]; // rank each ballot is at; only moves forward
+        for (int r = from; ; r++) {
+            int[] votes = ForkJoinPool.commonPool().invoke(new Count(ranks, starts, pos, out, 0, ballots));
+            System.arraycopy(votes, 0, roundVotes[r], 0, options);
+            int active = 0;
+            for (int v : votes) active += v;
+            roundActive[r] = active;
+            roundCount = r + 1;
+            int d = decide(r);
+            if (d >= 0) {
+                winner = d;
+                return;
+            }
+            int loser = -d - 1;
+            order[r] = loser;
+            eliminatedIn[loser] = r;
+            out[loser] = true;
+        }
+    }
+
+    /**
+     * The winner of round r (>= 0), or -(loser + 1) when someone must go.
+     * An option is still running in round r if it was not eliminated before it.
+     */
+    private int decide(int r) {
+        int[] votes = roundVotes[r];
+        int leader = -1, loser = -1, running = 0;
+        for (int c = 0; c < options; c++) {
+            if (eliminatedIn[c] < r) continue;
+            running++;
+            if (leader < 0 || votes[c] > votes[leader]) leader = c;
+            if (loser < 0 || votes[c] <= votes[loser]) loser = c;
+        }
+        if (leader < 0) return 0; // no options
+        if (running == 1 || 2L * votes[leader] > roundActive[r] || roundActive[r] == 0) return leader;
+        return -loser - 1;
+    }
+
+    private void truncate(int r) {
+        for (int i = r; i < roundCount - 1; i++) eliminatedIn[order[i]] = NEVER;
+        roundCount = r + 1;
+    }
+
+    /** One round's first choices among running options over ballots [lo, hi). */
+    private static final class Count extends RecursiveTask<int[]> {
+        private final byte[] ranks, pos;
+        private final int[] starts;
+        private final boolean[] out;
+        private final int lo, hi;
+
+        Count(byte[] ranks, int[] starts, byte[] pos, boolean[] out, int lo, int hi) {
+            this.ranks = ranks;
+            this.starts = starts;
+            this.pos = pos;
+            this.out = out;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo > SPLIT) {
+                int mid = (lo + hi) >>> 1;
+                Count right = new Count(ranks, starts, pos, out, mid, hi);
+                right.fork();
+                int[] left = new Count(ranks, starts, pos, out, lo, mid).compute();
+                int[] r = right.join();
+                for (int i = 0; i < left.length; i++) left[i] += r[i];
+                return left;
+            }
+            int[] votes = new int[out.length];
+            for (int b = lo; b < hi; b++) {
+                int start = starts[b], len = starts[b + 1] - start;
+                int p = pos[b] & 0xFF;
+                while (p < len && out[ranks[start + p] & 0xFF]) p++;
+                pos[b] = (byte) p;
+                if (p < len) votes[ranks[start + p] & 0xFF]++;
+            }
+            return votes;
+        }
+    }
+}
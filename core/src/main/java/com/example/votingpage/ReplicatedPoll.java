@@ -0,0 +1,189 @@
+package com.example.votingpage;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A Poll whose votes and closed flag can be changed offline on several
+ * devices and merged later in any order, without double counting or losing
+ * votes: counts are a {@link VoteCounters} PN-counter, closed is an
+ * {@link LwwFlag}. The Poll stays the view: every local change or merge
+ * adds what it moved to the poll through {@link Poll#addVotes}, so ranked
+ * and approval polls count it as ballots and the UI and winner logic are
+ * unchanged.
+ *
+ * With a PollStore, each change is journaled as one record holding what
+ * it added to the poll and the new CRDT state, and a restart picks the
+ * state up again. If that write fails the poll is left as it was and
+ * catches up on the next change. SyncClient carries the state between
+ * devices (see {@link SyncClient#share}).
+ *
+ * Votes already in the poll's tally when it is first wrapped are credited
+ * to this replica, so wrap a poll with existing counts on one device only.
+ */
+public final class ReplicatedPoll {
+
+    private static final Object TIE = new Object();
+
+    public final Poll poll;
+    private final int replica;
+    private final PollStore store; // null: in memory only
+    private final VoteCounters votes = new VoteCounters();
+    private final LwwFlag closed = new LwwFlag();
+    private final SyncProtocol.Out scratch = new SyncProtocol.Out();
+    private int[] published; // per option, the counter value already added to the poll
+    private boolean behind;  // a write failed; the next change publishes every option
+
+    public ReplicatedPoll(Poll poll, int replica) {
+        this(poll, replica, null, true);
+    }
+
+    /** Resumes the state {@code store} holds for {@code poll}, or starts one and journals it. */
+    public ReplicatedPoll(Poll poll, int replica, PollStore store) throws IOException {
+        this(poll, replica, store, store.replicaState(poll) == null);
+        byte[] state = store.replicaState(poll);
+        if (state == null) {
+            store.replicate(poll, new int[0], poll.closed, encode());
+            return;
+        }
+        SyncProtocol.In in = new SyncProtocol.In(state, 0, state.length);
+        votes.mergeFrom(in);
+        closed.mergeFrom(in);
+        for (int o = 0; o < published.length; o++) published[o] = votes.value(o); // the tally replayed them
+    }
+
+    private ReplicatedPoll(Poll poll, int replica, PollStore store, boolean credit) {
+        this.poll = poll;
+        this.replica = replica;
+        this.store = store;
+        published = new int[poll.optionCount()];
+        for (int o = 0; o < poll.optionCount(); o++) {
+            int v = Math.max(poll.votesFor(o), 0);
+            if (credit && v > 0) votes.add(replica, o, v);
+            published[o] = v;
+        }
+        if (credit && poll.closed) closed.set(true, 0, replica);
+    }
+
+    /**
+     * A replica of a poll another device shares: nothing is credited here,
+     * the counts it already has are taken to come from the states it will
+     * merge.
+     */
+    static ReplicatedPoll follow(Poll poll, int replica) {
+        return new ReplicatedPoll(poll, replica, null, false);
+    }
+
+    public synchronized void vote(int option) throws IOException {
+        votes.add(replica, option, 1);
+        publish(option);
+    }
+
+    /** Takes back one vote for {@code option} (e.g. the user changed their mind); plurality polls only. */
+    public synchronized void retract(int option) throws IOException {
+        if (poll.method() != null) throw new IllegalStateException("Ballots cannot be taken back");
+        if (votes.value(option) <= 0) return;
+        votes.add(replica, option, -1);
+        publish(option);
+    }
+
+    public synchronized void setClosed(boolean value, long nowMillis) throws IOException {
+        closed.set(value, nowMillis, replica);
+        commit(behind ? allDeltas() : new int[0]);
+    }
+
+    public void merge(ReplicatedPoll other) throws IOException {
+        if (other == this) return;
+        // Lock both in a global order so a.merge(b) and b.merge(a) cannot deadlock
+        int h = System.identityHashCode(this), o = System.identityHashCode(other);
+        if (h == o) {
+            synchronized (TIE) {
+                synchronized (this) {
+                    synchronized (other) {
+                        mergeLocked(other);
+                    }
+                }
+            }
+            return;
+        }
+        Object first = h < o ? this : other, second = h < o ? other : this;
+        synchronized (first) {
+            synchronized (second) {
+                mergeLocked(other);
+            }
+        }
+    }
+
+    private void mergeLocked(ReplicatedPoll other) throws IOException {
+        votes.merge(other.votes);
+        closed.merge(other.closed);
+        publish();
+    }
+
+    /** Compact state: per-replica sparse counter rows plus the closed register. */
+    public synchronized byte[] encode() {
+        scratch.reset();
+        votes.encode(scratch);
+        closed.encode(scratch);
+        return scratch.toByteArray();
+    }
+
+    public synchronized void mergeFrom(byte[] state) throws IOException {
+        SyncProtocol.In in = new SyncProtocol.In(state, 0, state.length);
+        votes.mergeFrom(in);
+        closed.mergeFrom(in);
+        publish();
+    }
+
+    public synchronized int replicaCount() {
+        return votes.replicaCount();
+    }
+
+    /** Adds what the merge moved to the poll; only options it touched. */
+    private void publish() throws IOException {
+        if (behind) {
+            commit(allDeltas());
+            return;
+        }
+        int[] deltas = new int[poll.optionCount()];
+        for (int i = 0; i < votes.changedCount(); i++) {
+            int o = votes.changedOption(i);
+            if (o < deltas.length) deltas[o] = delta(o);
+        }
+        commit(deltas);
+    }
+
+    private void publish(int option) throws IOException {
+        if (behind) {
+            commit(allDeltas());
+            return;
+        }
+        int[] deltas = new int[poll.optionCount()];
+        deltas[option] = delta(option);
+        commit(deltas);
+    }
+
+    private int[] allDeltas() {
+        int[] deltas = new int[poll.optionCount()];
+        for (int o = 0; o < deltas.length; o++) deltas[o] = delta(o);
+        return deltas;
+    }
+
+    private int delta(int option) {
+        return votes.value(option) - (option < published.length ? published[option] : 0);
+    }
+
+    /** Applies {@code deltas} and the closed flag to the poll, through the store if there is one. */
+    private void commit(int[] deltas) throws IOException {
+        if (store != null) {
+            behind = true;
+            store.replicate(poll, deltas, closed.value(), encode());
+            behind = false;
+        } else {
+            for (int o = 0; o < deltas.length; o++) if (deltas[o] != 0) poll.addVotes(o, deltas[o]);
+            poll.closed = closed.value();
+        }
+        if (published.length < poll.optionCount()) published = Arrays.copyOf(published, poll.optionCount());
+        for (int o = 0; o < deltas.length; o++) published[o] += deltas[o];
+    }
+}
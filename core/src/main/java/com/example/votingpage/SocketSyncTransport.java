@@ -0,0 +1,45 @@
+package com.example.votingpage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * SyncTransport over one TCP connection (int length + message per frame).
+ * Exchanges are serialized, so several SyncClients may share a connection.
+ */
+public class SocketSyncTransport implements SyncTransport, Closeable {
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public SocketSyncTransport(InetSocketAddress server, int timeoutMs) throws IOException {
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(timeoutMs);
+        socket.connect(server, timeoutMs);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    @Override
+    public synchronized byte[] exchange(byte[] request) throws IOException {
+        out.writeInt(request.length);
+        out.write(request);
+        out.flush();
+        byte[] response = new byte[in.readInt()];
+        in.readFully(response);
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
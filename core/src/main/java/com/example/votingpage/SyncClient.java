@@ -0,0 +1,277 @@
+package com.example.votingpage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One replica's copy of the shared polls, kept in step with a SyncServer
+ * through compact deltas (see SyncProtocol).
+ *
+ * Local changes apply immediately and are queued as deltas; sync() sends
+ * the queue and pulls everything other replicas logged since the last
+ * sync, in one round trip. Votes on the same option are summed while they
+ * wait, so a burst costs one small delta. Queued deltas keep their seqs
+ * until the server acknowledges them, so after a failed sync the next one
+ * resends them and the server drops what it already applied.
+ *
+ * A poll {@link #share shared} as a ReplicatedPoll travels as its CRDT
+ * state instead: local changes go to the ReplicatedPoll, sync() sends its
+ * state when it changed, and states from other replicas are merged in, so
+ * votes cast offline on several devices add up exactly once. Replicas that
+ * did not share the poll follow it as soon as a state arrives.
+ *
+ * Poll ids are (replicaId << 32 | n) so replicas never collide. Sync state
+ * (cursor, seqs, queue) lives in memory only.
+ */
+public class SyncClient {
+
+    private final int replicaId;
+    private final SyncTransport transport;
+    private final Map<Long, Poll> byId = new LinkedHashMap<>();
+    private int createdPolls;
+
+    private long cursor;       // server log offset applied so far
+    private long nextSeq = 1;  // seq of the first queued delta
+    private final SyncProtocol.Out queued = new SyncProtocol.Out();
+    private int queuedCount;
+    private final Map<Long, int[]> queuedVotes = new LinkedHashMap<>(); // summed until the next sync/non-vote delta
+    private final Map<Long, ReplicatedPoll> replicated = new LinkedHashMap<>();
+    private final Map<Long, byte[]> sentStates = new HashMap<>(); // last state queued per replicated poll
+
+    private final SyncProtocol.Out request = new SyncProtocol.Out();
+    private long bytesSent, bytesReceived;
+
+    public SyncClient(int replicaId, SyncTransport transport) {
+        if (replicaId < 0 || replicaId > SyncServer.MAX_ORIGIN) {
+            throw new IllegalArgumentException("Bad replica id " + replicaId);
+        }
+        this.replicaId = replicaId;
+        this.transport = transport;
+    }
+
+    // ---------------- local changes ----------------
+
+    /** An id for a poll created on this replica. */
+    public synchronized long newPollId() {
+        return ((long) replicaId << 32) | ++createdPolls;
+    }
+
+    /** Adds a poll built with {@link #newPollId()}; its options must already be in place. */
+    public synchronized void addPoll(Poll p) throws IOException {
+        byId.put(p.id, p);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PollStore.writePoll(new DataOutputStream(bytes), p);
+        flushVotes();
+        queued.write(SyncProtocol.ADD);
+        queued.varLong(bytes.size());
+        queued.write(bytes.toByteArray(), 0, bytes.size());
+        queuedCount++;
+    }
+
+    /**
+     * Replicates an added poll as a CRDT from now on; build {@code r} with
+     * a PollStore to keep its state across restarts.
+     */
+    public synchronized void share(ReplicatedPoll r) {
+        if (byId.get(r.poll.id) != r.poll) throw new IllegalArgumentException("Add poll " + r.poll.id + " first");
+        replicated.put(r.poll.id, r);
+    }
+
+    /** The ReplicatedPoll for {@code id}, or null if it is not shared. */
+    public synchronized ReplicatedPoll replicated(long id) {
+        return replicated.get(id);
+    }
+
+    public synchronized void vote(Poll p, int option) throws IOException {
+        ReplicatedPoll r = replicated.get(p.id);
+        if (r != null) {
+            r.vote(option);
+            return;
+        }
+        p.vote(option);
+        int[] c = queuedVotes.get(p.id);
+        if (c == null) queuedVotes.put(p.id, c = new int[p.optionCount()]);
+        c[option]++;
+    }
+
+    public synchronized void setClosed(Poll p, boolean closed) throws IOException {
+        ReplicatedPoll r = replicated.get(p.id);
+        if (r != null) {
+            r.setClosed(closed, System.currentTimeMillis());
+            return;
+        }
+        p.closed = closed;
+        flushVotes();
+        queued.write(SyncProtocol.CLOSED);
+        queued.varLong(p.id);
+        queued.write(closed ? 1 : 0);
+        queuedCount++;
+    }
+
+    public synchronized void delete(Poll p) {
+        byId.remove(p.id);
+        replicated.remove(p.id);
+        sentStates.remove(p.id);
+        flushVotes();
+        queued.write(SyncProtocol.DELETE);
+        queued.varLong(p.id);
+        queuedCount++;
+    }
+
+    // ---------------- sync ----------------
+
+    /**
+     * Pushes queued deltas and applies remote ones until caught up with the
+     * server. Returns the number of remote deltas applied.
+     */
+    public synchronized int sync() throws IOException {
+        flushVotes();
+        flushStates();
+        int applied = 0;
+        boolean more;
+        do {
+            request.reset();
+            request.varLong(replicaId);
+            request.varLong(cursor);
+            request.varLong(nextSeq);
+            request.varLong(queuedCount);
+            request.write(queued.buf, 0, queued.size);
+            byte[] req = request.toByteArray();
+            byte[] res = transport.exchange(req);
+            bytesSent += req.length;
+            bytesReceived += res.length;
+
+            SyncProtocol.In in = new SyncProtocol.In(res, 0, res.length);
+            long acked = in.varLong();
+            if (queuedCount > 0 && acked >= nextSeq + queuedCount - 1) {
+                nextSeq += queuedCount;
+                queuedCount = 0;
+                queued.reset();
+            }
+            cursor = in.varLong();
+            more = in.readByte() != 0;
+            applied += apply(in);
+        } while (more);
+        return applied;
+    }
+
+    private int apply(SyncProtocol.In in) throws IOException {
+        int applied = 0;
+        while (in.hasMore()) {
+            int type = in.readByte();
+            switch (type) {
+                case SyncProtocol.VOTE: {
+                    Poll p = byId.get(in.varLong());
+                    int option = in.varInt();
+                    int count = in.varInt();
+                    if (p != null && option < p.optionCount()) p.addVotes(option, count);
+                    break;
+                }
+                case SyncProtocol.CLOSED: {
+                    Poll p = byId.get(in.varLong());
+                    boolean closed = in.readByte() != 0;
+                    if (p != null) p.closed = closed;
+                    break;
+                }
+                case SyncProtocol.ADD: {
+                    int len = in.varInt();
+                    if (len > in.limit - in.pos) throw new IOException("Truncated poll");
+                    Poll p = PollStore.readPoll(new DataInputStream(new ByteArrayInputStream(in.buf, in.pos, len)));
+                    in.pos += len;
+                    byId.putIfAbsent(p.id, p); // our own ADD comes back; keep the local object
+                    break;
+                }
+                case SyncProtocol.DELETE: {
+                    long id = in.varLong();
+                    byId.remove(id);
+                    replicated.remove(id);
+                    sentStates.remove(id);
+                    break;
+                }
+                case SyncProtocol.STATE: {
+                    long id = in.varLong();
+                    int len = in.varInt();
+                    if (len > in.limit - in.pos) throw new IOException("Truncated state");
+                    byte[] state = Arrays.copyOfRange(in.buf, in.pos, in.pos + len);
+                    in.pos += len;
+                    Poll p = byId.get(id);
+                    if (p != null) merge(p, state);
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown delta type " + type);
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    private void merge(Poll p, byte[] state) throws IOException {
+        ReplicatedPoll r = replicated.get(p.id);
+        if (r == null) {
+            replicated.put(p.id, r = ReplicatedPoll.follow(p, replicaId));
+            sentStates.put(p.id, r.encode());
+        }
+        byte[] before = r.encode();
+        r.mergeFrom(state);
+        // Nothing local was waiting: what the merge added the server already has
+        if (Arrays.equals(before, sentStates.get(p.id))) sentStates.put(p.id, r.encode());
+    }
+
+    /** Queues the state of each replicated poll that changed since it was last queued. */
+    private void flushStates() {
+        for (ReplicatedPoll r : replicated.values()) {
+            byte[] state = r.encode();
+            if (Arrays.equals(state, sentStates.get(r.poll.id))) continue;
+            queued.write(SyncProtocol.STATE);
+            queued.varLong(r.poll.id);
+            queued.varLong(state.length);
+            queued.write(state, 0, state.length);
+            queuedCount++;
+            sentStates.put(r.poll.id, state);
+        }
+    }
+
+    private void flushVotes() {
+        for (Map.Entry<Long, int[]> e : queuedVotes.entrySet()) {
+            int[] c = e.getValue();
+            for (int o = 0; o < c.length; o++) {
+                if (c[o] == 0) continue;
+                queued.vote(e.getKey(), o, c[o]);
+                queuedCount++;
+            }
+        }
+        queuedVotes.clear();
+    }
+
+    // ---------------- reads ----------------
+
+    public synchronized Poll poll(long id) {
+        return byId.get(id);
+    }
+
+    /** Polls known to this replica, newest first. */
+    public synchronized List<Poll> polls() {
+        List<Poll> res = new ArrayList<>(byId.values());
+        Collections.reverse(res);
+        return res;
+    }
+
+    public synchronized long bytesSent() {
+        return bytesSent;
+    }
+
+    public synchronized long bytesReceived() {
+        return bytesReceived;
+    }
+}
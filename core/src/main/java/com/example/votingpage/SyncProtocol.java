@@ -0,0 +1,148 @@
+package com.example.votingpage;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Wire format shared by SyncClient and SyncServer. All integers are
+ * unsigned LEB128 varints, so small ids and counts take one or two bytes.
+ *
+ *   request   origin  cursor  firstSeq  n  delta*n
+ *   response  acked   cursor  more  delta*      (deltas run to the end of the message)
+ *
+ *   delta     VOTE    pollId option count
+ *             CLOSED  pollId 0|1
+ *             ADD     length poll      (PollStore.writePoll encoding)
+ *             DELETE  pollId
+ *             STATE   pollId length state   (ReplicatedPoll.encode())
+ *
+ * A delta is identified by its dot (origin, seq); the request numbers its
+ * deltas firstSeq, firstSeq + 1, ... The server's log stores accepted
+ * deltas prefixed with their origin; cursor is a byte offset into it and
+ * more is 1 when the response stopped short of the end of the log.
+ */
+final class SyncProtocol {
+
+    static final byte VOTE = 1;
+    static final byte CLOSED = 2;
+    static final byte ADD = 3;
+    static final byte DELETE = 4;
+    static final byte STATE = 5;
+
+    private SyncProtocol() {
+    }
+
+    /** Growable output buffer. */
+    static final class Out {
+        byte[] buf = new byte[256];
+        int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        void varLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void write(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void write(byte[] src, int off, int len) {
+            ensure(len);
+            System.arraycopy(src, off, buf, size, len);
+            size += len;
+        }
+
+        void vote(long pollId, int option, int count) {
+            write(VOTE);
+            varLong(pollId);
+            varLong(option);
+            varLong(count);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensure(int n) {
+            if (size + n > buf.length) buf = Arrays.copyOf(buf, Math.max(size + n, buf.length * 2));
+        }
+    }
+
+    /** Cursor over a received message. */
+    static final class In {
+        final byte[] buf;
+        int pos;
+        final int limit;
+
+        In(byte[] buf, int pos, int limit) {
+            this.buf = buf;
+            this.pos = pos;
+            this.limit = limit;
+        }
+
+        boolean hasMore() {
+            return pos < limit;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= limit) throw new IOException("Truncated sync message");
+            return buf[pos++] & 0xFF;
+        }
+
+        long varLong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        int varInt() throws IOException {
+            long v = varLong();
+            if (v < 0 || v > Integer.MAX_VALUE) throw new IOException("Value out of range: " + v);
+            return (int) v;
+        }
+
+        /** Skips one delta whose type byte has already been read. */
+        void skipDelta(int type) throws IOException {
+            switch (type) {
+                case VOTE:
+                    varLong();
+                    varLong();
+                    varLong();
+                    break;
+                case CLOSED:
+                    varLong();
+                    readByte();
+                    break;
+                case ADD:
+                    int len = varInt();
+                    if (len > limit - pos) throw new IOException("Truncated poll");
+                    pos += len;
+                    break;
+                case DELETE:
+                    varLong();
+                    break;
+                case STATE:
+                    varLong();
+                    int size = varInt();
+                    if (size > limit - pos) throw new IOException("Truncated state");
+                    pos += size;
+                    break;
+                default:
+                    throw new IOException("Unknown delta type " + type);
+            }
+        }
+    }
+}
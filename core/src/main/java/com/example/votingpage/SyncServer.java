@@ -0,0 +1,199 @@
+package com.example.votingpage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stand-in sync backend: an append-only log of deltas from every replica.
+ *
+ * A sync request pushes the client's pending deltas and pulls everything
+ * logged since its cursor, in one round trip. The server keeps a version
+ * vector (highest seq applied per origin), so a retransmitted request is
+ * applied once. When a pull spans a run of votes, increments to the same
+ * option are summed and sent as one delta; votes never cross an ADD,
+ * CLOSED or DELETE, so per-poll order is preserved. A client's own votes
+ * are not echoed back (it counted them locally); its other deltas are, so
+ * everyone applies open/close changes in the same log order.
+ *
+ * In memory only, no log compaction: this is a local test double.
+ */
+public class SyncServer {
+
+    /** Upper bound for one response's delta section; the cursor resumes the rest. */
+    static final int MAX_RESPONSE = 256 * 1024;
+    static final int MAX_ORIGIN = (1 << 20) - 1;
+
+    private byte[] log = new byte[64 * 1024];
+    private int logSize;
+    private long[] acked = new long[16]; // version vector, indexed by origin
+
+    private final SyncProtocol.Out out = new SyncProtocol.Out();
+    private final Map<Long, int[]> votes = new LinkedHashMap<>(); // pollId -> count per option
+
+    public synchronized byte[] handle(byte[] request) throws IOException {
+        SyncProtocol.In in = new SyncProtocol.In(request, 0, request.length);
+        int origin = in.varInt();
+        long cursor = in.varLong();
+        long firstSeq = in.varLong();
+        int n = in.varInt();
+
+        if (origin > MAX_ORIGIN) throw new IOException("Bad origin " + origin);
+        if (origin >= acked.length) acked = Arrays.copyOf(acked, Math.max(origin + 1, acked.length * 2));
+
+        // Validate every delta before logging any, so a bad request changes nothing
+        int deltas = in.pos;
+        for (int i = 0; i < n; i++) in.skipDelta(in.readByte());
+        if (n > 0 && firstSeq <= acked[origin] + 1) {
+            in.pos = deltas;
+            for (int i = 0; i < n; i++) {
+                int start = in.pos;
+                in.skipDelta(in.readByte());
+                if (firstSeq + i > acked[origin]) append(origin, request, start, in.pos - start);
+            }
+            acked[origin] = Math.max(acked[origin], firstSeq + n - 1);
+        }
+        // A gap (firstSeq > acked + 1) is ignored; the client resends from acked + 1
+
+        if (cursor < 0 || cursor > logSize) throw new IOException("Bad cursor " + cursor);
+        out.reset();
+        long next = serve(origin, (int) cursor);
+
+        SyncProtocol.Out response = new SyncProtocol.Out();
+        response.varLong(acked[origin]);
+        response.varLong(next);
+        response.write(next < logSize ? 1 : 0);
+        response.write(out.buf, 0, out.size);
+        return response.toByteArray();
+    }
+
+    /** Log bytes so far; handy for tests and benchmarks. */
+    public synchronized int logSize() {
+        return logSize;
+    }
+
+    private void append(int origin, byte[] src, int off, int len) {
+        if (logSize + 5 + len > log.length) log = Arrays.copyOf(log, Math.max(logSize + 5 + len, log.length * 2));
+        int v = origin;
+        while ((v & ~0x7F) != 0) {
+            log[logSize++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        log[logSize++] = (byte) v;
+        System.arraycopy(src, off, log, logSize, len);
+        logSize += len;
+    }
+
+    /** Copies log records from {@code cursor} into out; returns the cursor to resume from. */
+    private long serve(int requester, int cursor) throws IOException {
+        SyncProtocol.In in = new SyncProtocol.In(log, cursor, logSize);
+        while (in.hasMore() && out.size < MAX_RESPONSE) {
+            int origin = in.varInt();
+            int start = in.pos;
+            int type = in.readByte();
+            if (type == SyncProtocol.VOTE) {
+                long pollId = in.varLong();
+                int option = in.varInt();
+                int count = in.varInt();
+                if (origin != requester) addVote(pollId, option, count);
+            } else {
+                in.skipDelta(type);
+                flushVotes();
+                out.write(log, start, in.pos - start);
+            }
+        }
+        flushVotes();
+        return in.pos;
+    }
+
+    private void addVote(long pollId, int option, int count) {
+        int[] c = votes.get(pollId);
+        if (c == null) votes.put(pollId, c = new int[option + 1]);
+        else if (option >= c.length) votes.put(pollId, c = Arrays.copyOf(c, option + 1));
+        c[option] += count;
+    }
+
+    private void flushVotes() {
+        if (votes.isEmpty()) return;
+        for (Map.Entry<Long, int[]> e : votes.entrySet()) {
+            int[] c = e.getValue();
+            for (int o = 0; o < c.length; o++) {
+                if (c[o] != 0) out.vote(e.getKey(), o, c[o]);
+            }
+        }
+        votes.clear();
+    }
+
+    // ---------------- loopback TCP ----------------
+
+    /**
+     * Serves {@link #handle} on a TCP port; frames are an int length plus the
+     * message. One thread per connection. Port 0 picks a free port.
+     */
+    public Listener listen(InetAddress address, int port) throws IOException {
+        return new Listener(new ServerSocket(port, 50, address));
+    }
+
+    public final class Listener implements Closeable {
+        private final ServerSocket socket;
+
+        private Listener(ServerSocket socket) {
+            this.socket = socket;
+            Thread accept = new Thread(this::acceptLoop, "SyncServer-accept");
+            accept.setDaemon(true);
+            accept.start();
+        }
+
+        public int port() {
+            return socket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket s = socket.accept();
+                    s.setTcpNoDelay(true);
+                    Thread t = new Thread(() -> serveConnection(s), "SyncServer-conn");
+                    t.setDaemon(true);
+                    t.start();
+                } catch (IOException e) {
+                    return; // closed
+                }
+            }
+        }
+
+        private void serveConnection(Socket s) {
+            try (Socket conn = s;
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(conn.getInputStream()));
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(conn.getOutputStream()))) {
+                while (true) {
+                    byte[] request = new byte[in.readInt()];
+                    in.readFully(request);
+                    byte[] response = handle(request);
+                    out.writeInt(response.length);
+                    out.write(response);
+                    out.flush();
+                }
+            } catch (EOFException e) {
+                // Client hung up
+            } catch (IOException e) {
+                // Broken connection; the client retries with the same seqs
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.votingpage;
+
+import java.io.IOException;
+
+/**
+ * One request/response round trip to the sync server. {@code SyncServer::handle}
+ * is the in-process transport; {@link SocketSyncTransport} talks to
+ * {@link SyncServer#listen} over TCP.
+ */
+public interface SyncTransport {
+    byte[] exchange(byte[] request) throws IOException;
+}
@@ -0,0 +1,194 @@
+package com.example.votingpage;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * PN-counter per option, as a state-based CRDT: every replica owns a row of
+ * increments (and, once it retracts a vote, a row of decrements); merge
+ * takes the element-wise max, so replicas converge whatever the order,
+ * repetition or grouping of merges. value(option) is the sum of the
+ * option's increments minus its decrements, kept up to date on every
+ * change, so reads are O(1).
+ *
+ * Rows are plain int[] sorted by replica id. Merging touches only existing
+ * rows and allocates only when a replica or an option is new.
+ *
+ * Not thread-safe; ReplicatedPoll guards it.
+ */
+public final class VoteCounters {
+
+    private int replicas;                    // rows in use
+    private int[] ids = new int[4];          // sorted replica ids
+    private int[][] inc = new int[4][];      // inc[row][option]
+    private int[][] dec = new int[4][];      // null until that replica retracts
+    private int[] incSum = new int[0];
+    private int[] decSum = new int[0];
+
+    // Options changed by the last merge; dirty[] avoids duplicates
+    private int[] changed = new int[16];
+    private int changedCount;
+    private boolean[] dirty = new boolean[0];
+
+    public int value(int option) {
+        return option < incSum.length ? incSum[option] - decSum[option] : 0;
+    }
+
+    public int replicaCount() {
+        return replicas;
+    }
+
+    /** Records {@code n} local votes (n > 0) or retractions (n < 0) by {@code replica}. */
+    public void add(int replica, int option, int n) {
+        int row = row(replica);
+        if (n >= 0) {
+            int[] r = inc[row] = fit(inc[row], option + 1);
+            r[option] += n;
+            fitSums(option + 1);
+            incSum[option] += n;
+        } else {
+            int[] r = dec[row] = fit(dec[row], option + 1);
+            r[option] -= n;
+            fitSums(option + 1);
+            decSum[option] -= n;
+        }
+    }
+
+    /** Merges {@code other} into this; see {@link #changedCount()} for what moved. */
+    public void merge(VoteCounters other) {
+        changedCount = 0;
+        for (int k = 0; k < other.replicas; k++) {
+            int row = row(other.ids[k]);
+            if (other.inc[k] != null) inc[row] = mergeRow(inc[row], other.inc[k], true);
+            if (other.dec[k] != null) dec[row] = mergeRow(dec[row], other.dec[k], false);
+        }
+        clearDirty();
+    }
+
+    /** Options whose value may have changed in the last merge. */
+    public int changedCount() {
+        return changedCount;
+    }
+
+    public int changedOption(int i) {
+        return changed[i];
+    }
+
+    // ---------------- encoding ----------------
+    //
+    //   replicas  (id  incCount (gap value)*  decCount (gap value)*)*
+    //
+    // gap is the distance from the previous non-zero option minus one, so a
+    // dense row costs one byte per index plus the value's varint.
+
+    void encode(SyncProtocol.Out out) {
+        out.varLong(replicas);
+        for (int k = 0; k < replicas; k++) {
+            out.varLong(ids[k]);
+            encodeRow(out, inc[k]);
+            encodeRow(out, dec[k]);
+        }
+    }
+
+    /** Merges an encoded state straight from the buffer, without building a VoteCounters. */
+    void mergeFrom(SyncProtocol.In in) throws IOException {
+        changedCount = 0;
+        int n = in.varInt();
+        for (int k = 0; k < n; k++) {
+            int row = row(in.varInt());
+            inc[row] = mergeEncodedRow(in, inc[row], true);
+            dec[row] = mergeEncodedRow(in, dec[row], false);
+        }
+        clearDirty();
+    }
+
+    private static void encodeRow(SyncProtocol.Out out, int[] row) {
+        int nonZero = 0;
+        if (row != null) for (int v : row) if (v != 0) nonZero++;
+        out.varLong(nonZero);
+        int prev = -1;
+        for (int o = 0; nonZero > 0 && o < row.length; o++) {
+            if (row[o] == 0) continue;
+            out.varLong(o - prev - 1);
+            out.varLong(row[o]);
+            prev = o;
+        }
+    }
+
+    private int[] mergeEncodedRow(SyncProtocol.In in, int[] dst, boolean increments) throws IOException {
+        int n = in.varInt();
+        int o = -1;
+        for (int i = 0; i < n; i++) {
+            int gap = in.varInt();
+            if (gap >= PollStore.MAX_OPTIONS - 1 - o) throw new IOException("Option index past " + PollStore.MAX_OPTIONS);
+            o += gap + 1;
+            int v = in.varInt();
+            dst = fit(dst, o + 1);
+            dst = raise(dst, o, v, increments);
+        }
+        return dst;
+    }
+
+    // ---------------- internals ----------------
+
+    private int[] mergeRow(int[] dst, int[] src, boolean increments) {
+        dst = fit(dst, src.length);
+        for (int o = 0; o < src.length; o++) {
+            if (src[o] > dst[o]) dst = raise(dst, o, src[o], increments);
+        }
+        return dst;
+    }
+
+    private int[] raise(int[] row, int option, int value, boolean increments) {
+        int d = value - row[option];
+        if (d <= 0) return row;
+        row[option] = value;
+        fitSums(option + 1);
+        if (increments) incSum[option] += d;
+        else decSum[option] += d;
+        if (!dirty[option]) {
+            dirty[option] = true;
+            if (changedCount == changed.length) changed = Arrays.copyOf(changed, changedCount * 2);
+            changed[changedCount++] = option;
+        }
+        return row;
+    }
+
+    private void clearDirty() {
+        for (int i = 0; i < changedCount; i++) dirty[changed[i]] = false;
+    }
+
+    /** Row index for {@code replica}, inserting an empty row if needed. */
+    private int row(int replica) {
+        int at = Arrays.binarySearch(ids, 0, replicas, replica);
+        if (at >= 0) return at;
+        at = -at - 1;
+        if (replicas == ids.length) {
+            int cap = replicas * 2;
+            ids = Arrays.copyOf(ids, cap);
+            inc = Arrays.copyOf(inc, cap);
+            dec = Arrays.copyOf(dec, cap);
+        }
+        System.arraycopy(ids, at, ids, at + 1, replicas - at);
+        System.arraycopy(inc, at, inc, at + 1, replicas - at);
+        System.arraycopy(dec, at, dec, at + 1, replicas - at);
+        ids[at] = replica;
+        inc[at] = null;
+        dec[at] = null;
+        replicas++;
+        return at;
+    }
+
+    private static int[] fit(int[] row, int length) {
+        if (row == null) return new int[length];
+        return row.length >= length ? row : Arrays.copyOf(row, length);
+    }
+
+    private void fitSums(int length) {
+        if (incSum.length >= length) return;
+        int cap = Math.max(length, incSum.length * 2);
+        incSum = Arrays.copyOf(incSum, cap);
+        decSum = Arrays.copyOf(decSum, cap);
+        dirty = Arrays.copyOf(dirty, cap);
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.votingpage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Vote pipeline for bursts (kiosk queues, sync replays): any thread submits
+ * into a bounded ring, one worker drains it in batches.
+ *
+ * Each batch is folded into per-(poll, option) deltas before it touches
+ * the model, so a burst of N votes on a few options costs a few
+ * PollStore.add() calls (one journal record each) instead of N. The
+ * listener then hears once per batch with the polls that changed; the UI
+ * side decides how often to redraw.
+ *
+ * When the ring is full, submit() blocks and offer() returns false.
+ */
+public class VoteIngestor implements Closeable {
+
+    /** Called on the worker thread. */
+    public interface Listener {
+        /** {@code changed} is reused after the call returns; copy what you keep. */
+        void onApplied(List<Poll> changed);
+
+        /**
+         * Journaling failed for part of a batch. PollStore writes the journal
+         * before it counts, so those {@code dropped} votes are lost: neither
+         * on disk nor in the poll.
+         */
+        void onFailed(IOException e, int dropped);
+    }
+
+    public static final int MAX_BATCH = 4096;
+
+    private final PollStore store; // null = count in memory only
+    private final Listener listener;
+
+    private static final Metrics.Section APPLY = Metrics.section("ingest.batch");
+    private static final Metrics.Counter VOTES = Metrics.counter("ingest.votes");
+
+    // Ring buffer, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Poll[] ringPolls;
+    private final int[] ringOptions;
+    private int head, count;
+    private boolean closed;
+
+    // Worker-only state, reused across batches
+    private final Poll[] batchPolls;
+    private final int[] batchOptions;
+    private final Map<Poll, int[]> deltas = new IdentityHashMap<>();
+    private final List<Poll> changed = new ArrayList<>();
+    private volatile long applied, dropped;
+
+    private final Thread worker;
+
+    private VoteIngestor(PollStore store, int capacity, Listener listener) {
+        this.store = store;
+        this.listener = listener;
+        ringPolls = new Poll[capacity];
+        ringOptions = new int[capacity];
+        batchPolls = new Poll[Math.min(capacity, MAX_BATCH)];
+        batchOptions = new int[batchPolls.length];
+        worker = new Thread(this::run, "VoteIngestor");
+        worker.setDaemon(true);
+    }
+
+    /** Starts the worker. {@code store} may be null to count in memory only. */
+    public static VoteIngestor start(PollStore store, int capacity, Listener listener) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        VoteIngestor ingestor = new VoteIngestor(store, capacity, listener);
+        ingestor.worker.start();
+        return ingestor;
+    }
+
+    /** Queues one vote, waiting while the ring is full. */
+    public void submit(Poll poll, int option) throws InterruptedException {
+        check(poll, option);
+        lock.lockInterruptibly();
+        try {
+            while (count == ringPolls.length && !closed) notFull.await();
+            enqueue(poll, option);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Queues one vote if there is room; returns false when the ring is full. */
+    public boolean offer(Poll poll, int option) {
+        check(poll, option);
+        lock.lock();
+        try {
+            if (count == ringPolls.length && !closed) return false;
+            enqueue(poll, option);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Votes applied to the model so far. */
+    public long applied() {
+        return applied;
+    }
+
+    /** Votes lost to journal failures so far; see {@link Listener#onFailed}. */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Applies everything already queued, then waits for the worker to stop.
+     * Blocks for as long as the last batches take to journal, so call it off
+     * the main thread and before closing the store.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (worker.isAlive()) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                interrupted = true; // the store must not close under a batch in flight
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private static void check(Poll poll, int option) {
+        if (option < 0 || option >= poll.optionCount()) {
+            throw new IndexOutOfBoundsException("Option " + option + " of " + poll.optionCount());
+        }
+    }
+
+    private void enqueue(Poll poll, int option) {
+        if (closed) throw new IllegalStateException("VoteIngestor is closed");
+        int tail = (head + count) % ringPolls.length;
+        ringPolls[tail] = poll;
+        ringOptions[tail] = option;
+        if (count++ == 0) notEmpty.signal();
+    }
+
+    // ---------------- worker ----------------
+
+    private void run() {
+        while (true) {
+            int n = take();
+            if (n < 0) return;
+            long t = APPLY.begin();
+            try {
+                apply(n);
+            } finally {
+                APPLY.end(t);
+            }
+            VOTES.add(n);
+        }
+    }
+
+    /** Moves up to one batch out of the ring; -1 once closed and empty. */
+    private int take() {
+        lock.lock();
+        try {
+            while (count == 0) {
+                if (closed) return -1;
+                notEmpty.awaitUninterruptibly();
+            }
+            int n = Math.min(count, batchPolls.length);
+            for (int i = 0; i < n; i++) {
+                int at = (head + i) % ringPolls.length;
+                batchPolls[i] = ringPolls[at];
+                batchOptions[i] = ringOptions[at];
+                ringPolls[at] = null;
+            }
+            head = (head + n) % ringPolls.length;
+            count -= n;
+            notFull.signalAll();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(int n) {
+        for (int i = 0; i < n; i++) {
+            Poll p = batchPolls[i];
+            batchPolls[i] = null;
+            int[] d = deltas.get(p);
+            if (d == null) {
+                d = new int[p.optionCount()];
+                deltas.put(p, d);
+                changed.add(p);
+            } else if (batchOptions[i] >= d.length) {
+                d = Arrays.copyOf(d, p.optionCount()); // option added since
+                deltas.put(p, d);
+            }
+            d[batchOptions[i]]++;
+        }
+
+        IOException failure = null;
+        int lost = 0;
+        for (Poll p : changed) {
+            int[] d = deltas.get(p);
+            for (int o = 0; o < d.length; o++) {
+                if (d[o] == 0) continue;
+                if (store == null) {
+                    p.addVotes(o, d[o]);
+                } else {
+                    try {
+                        store.add(p, o, d[o]);
+                    } catch (IOException e) {
+                        failure = e;
+                        lost += d[o];
+                    }
+                }
+            }
+        }
+        applied += n - lost;
+        dropped += lost;
+
+        try {
+            if (failure != null) listener.onFailed(failure, lost);
+            listener.onApplied(changed);
+        } finally {
+            deltas.clear();
+            changed.clear();
+        }
+    }
+}
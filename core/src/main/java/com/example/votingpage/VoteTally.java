@@ -0,0 +1,187 @@
+package com.example.votingpage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free vote counters for one poll.
+ *  - vote() can be called from any number of threads (UI, sync workers, replays)
+ *  - total() and winningIndex() are O(1) reads; a vote costs O(log n)
+ *  - snapshot() gives counts, total and winner taken from one read pass
+ *
+ * The leader is kept in a tournament tree: each internal node holds the
+ * winning option of its subtree, refreshed bottom-up after every change.
+ * Nodes are CAS-updated with a version stamp, and each level is refreshed
+ * twice, so a concurrent voter that loses the race still leaves the node
+ * reflecting its own increment.
+ *
+ * Slots are added while the poll is being built (addSlot/addSlots);
+ * growing is not meant to race with voting. Capacity doubles, so adding n
+ * options one by one costs O(n log n) overall, not a full rebuild each.
+ */
+public class VoteTally {
+
+    // Counters for [0, size); the array is the capacity, as is the tree's leaf count
+    private volatile AtomicIntegerArray counts = new AtomicIntegerArray(1);
+    private volatile int size;
+    private final AtomicInteger total = new AtomicInteger();
+
+    // Tournament tree, 1-based; leaves live at [cap, 2 * cap).
+    // Each entry packs (version << 32) | optionIndex, -1 for empty leaves.
+    // cap is always tree.length() / 2.
+    private volatile AtomicLongArray tree = buildTree(0, 1);
+
+    /** Appends a zeroed counter and returns its index. */
+    public synchronized int addSlot() {
+        return addSlots(1);
+    }
+
+    /** Appends {@code n} zeroed counters; returns the index of the first. */
+    public synchronized int addSlots(int n) {
+        if (n < 0) throw new IllegalArgumentException("n = " + n);
+        int first = size, need = first + n;
+        AtomicLongArray t = tree;
+        int cap = t.length() / 2;
+        if (need > cap) {                       // double and rebuild once
+            while (cap < need) cap <<= 1;
+            AtomicIntegerArray old = counts, grown = new AtomicIntegerArray(cap);
+            for (int i = 0; i < first; i++) grown.set(i, old.get(i));
+            t = buildTree(need, cap);
+            for (int node = cap - 1; node >= 1; node--) {
+                t.set(node, pack(0, better(grown, index(t.get(2 * node)), index(t.get(2 * node + 1)))));
+            }
+            counts = grown;
+            tree = t;
+        } else {                                // free leaves: fill them in and refresh their paths
+            for (int i = first; i < need; i++) t.set(cap + i, pack(0, i));
+            for (int i = first; i < need; i++) propagate(i);
+        }
+        size = need;
+        return first;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Records one vote for option {@code index}; returns that option's new count. */
+    public int vote(int index) {
+        check(index);
+        int v = counts.incrementAndGet(index);
+        total.incrementAndGet();
+        propagate(index);
+        return v;
+    }
+
+    /** Records {@code n} votes at once (bulk imports, replays). */
+    public int add(int index, int n) {
+        check(index);
+        int v = counts.addAndGet(index, n);
+        total.addAndGet(n);
+        propagate(index);
+        return v;
+    }
+
+    /** Overwrites a count (seed data, restore from storage). */
+    public void set(int index, int value) {
+        check(index);
+        int old = counts.getAndSet(index, value);
+        total.addAndGet(value - old);
+        propagate(index);
+    }
+
+    public int get(int index) {
+        check(index);
+        return counts.get(index);
+    }
+
+    public int total() {
+        return total.get();
+    }
+
+    /** Highest count wins; ties go to the lowest index. */
+    public int winningIndex() {
+        int idx = index(tree.get(1));
+        return idx < 0 ? 0 : idx;
+    }
+
+    /** Copies all counters once so total and winner agree with each other. */
+    public Snapshot snapshot() {
+        int n = size;
+        AtomicIntegerArray c = counts; // read after size: never shorter than it
+        int[] copy = new int[n];
+        for (int i = 0; i < copy.length; i++) copy[i] = c.get(i);
+        return new Snapshot(copy);
+    }
+
+    /** Immutable view of the counters at one point in time. */
+    public static class Snapshot {
+        public final int[] counts;
+        public final int total;
+        public final int winner;
+
+        Snapshot(int[] counts) {
+            this.counts = counts;
+            int t = 0, idx = 0, max = -1;
+            for (int i = 0; i < counts.length; i++) {
+                t += counts[i];
+                if (counts[i] > max) {
+                    max = counts[i];
+                    idx = i;
+                }
+            }
+            this.total = t;
+            this.winner = idx;
+        }
+
+        public int votes(int index) {
+            return counts[index];
+        }
+    }
+
+    /** The counters array has spare capacity, so it no longer bounds-checks options for us. */
+    private void check(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("option " + index + " of " + size);
+    }
+
+    // ---------- tournament tree ----------
+    private void propagate(int index) {
+        AtomicIntegerArray c = counts;
+        AtomicLongArray t = tree;
+        for (int node = (t.length() / 2 + index) >> 1; node >= 1; node >>= 1) {
+            if (!refresh(t, c, node)) refresh(t, c, node);
+        }
+    }
+
+    private static boolean refresh(AtomicLongArray t, AtomicIntegerArray c, int node) {
+        long old = t.get(node);
+        int win = better(c, index(t.get(2 * node)), index(t.get(2 * node + 1)));
+        return t.compareAndSet(node, old, pack(version(old) + 1, win));
+    }
+
+    /** Left child always covers lower indices, so it keeps ties. */
+    private static int better(AtomicIntegerArray c, int left, int right) {
+        if (left < 0) return right;
+        if (right < 0) return left;
+        return c.get(right) > c.get(left) ? right : left;
+    }
+
+    private static AtomicLongArray buildTree(int n, int cap) {
+        AtomicLongArray t = new AtomicLongArray(2 * cap);
+        for (int i = 0; i < cap; i++) t.set(cap + i, pack(0, i < n ? i : -1));
+        return t;
+    }
+
+    private static long pack(int version, int index) {
+        return ((long) version << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    private static int version(long node) {
+        return (int) (node >>> 32);
+    }
+
+    private static int index(long node) {
+        return (int) node;
+    }
+}
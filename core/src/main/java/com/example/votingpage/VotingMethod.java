@@ -0,0 +1,23 @@
+package com.example.votingpage;
+
+/**
+ * How a poll turns ballots into a winner. A {@link Poll} without a method
+ * is plain plurality: one choice per ballot, counted in its tally.
+ * Methods also feed the poll's {@link VoteTally} (approvals, first
+ * preferences), so cards and storage keep working on counts unchanged.
+ */
+public interface VotingMethod {
+
+    /**
+     * Records one ballot. {@code choices} are option indices: the options
+     * in order of preference for ranked choice, the approved options for
+     * approval voting. Thread-safe.
+     */
+    void cast(int[] choices);
+
+    /** Ballots cast so far. */
+    int ballots();
+
+    /** The current winner; 0 while there are no ballots, as with {@link VoteTally}. */
+    int winningIndex();
+}
@@ -0,0 +1,167 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Window and eviction rules with a hand-driven loader, plus a simulated
+ * scroll over 1M archived polls with bounded heap. Frame time is in
+ * ArchiveBenchmark.
+ */
+public class ArchivePagerTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    /** Runs queued loads only when asked, so the test controls when pages land. */
+    private static class ManualLoader implements Executor {
+        final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable r) {
+            queue.add(r);
+        }
+
+        void runAll() {
+            while (!queue.isEmpty()) queue.poll().run();
+        }
+    }
+
+    private File archive(int polls) throws Exception {
+        File f = tmp.newFile();
+        PollArchive.Writer w = new PollArchive.Writer();
+        for (int i = 0; i < polls; i++) {
+            Poll p = new Poll(i, "Poll : #" + i);
+            p.addOption("Yes");
+            p.addOption("No " + i);
+            p.tally.set(0, i % 7);
+            p.tally.set(1, i % 5);
+            w.add(p);
+        }
+        w.writeTo(f);
+        return f;
+    }
+
+    @Test
+    public void prefetchesAheadAndEvictsFarPages() throws Exception {
+        try (PollArchive archive = PollArchive.open(archive(1000))) {
+            ManualLoader loader = new ManualLoader();
+            ArchivePager pager = new ArchivePager(archive, 10, 6, 3, loader);
+
+            assertNull(pager.get(0)); // nothing loaded yet; caller falls back to the flyweight
+            assertEquals(4, loader.queue.size()); // page 0 + 3 ahead (no page -1)
+            loader.runAll();
+            PollResults r = pager.get(5);
+            assertEquals("Poll : #5", r.title());
+            assertEquals("No 5", r.optionLabel(1));
+            assertEquals(5 % 7 + 5 % 5, r.totalVotes());
+            assertEquals(35, pager.get(35).id());
+
+            // Scroll down: the window follows, memory stays at maxPages
+            for (int i = 0; i < 1000; i += 10) {
+                pager.get(i);
+                loader.runAll();
+                assertTrue(pager.loadedPages() <= 6);
+            }
+            assertEquals(990, pager.get(990).id());
+
+            // Scroll back up: prefetch flips direction
+            pager.get(500);
+            loader.runAll();
+            pager.get(495);
+            loader.runAll();
+            assertEquals(460, pager.get(460).id()); // 3 pages behind 495's page, now "ahead"
+            assertTrue(pager.loadedPages() <= 6);
+        }
+    }
+
+    @Test
+    public void dropsLoadsTheListScrolledAwayFrom() throws Exception {
+        try (PollArchive archive = PollArchive.open(archive(1000))) {
+            ManualLoader loader = new ManualLoader();
+            ArchivePager pager = new ArchivePager(archive, 10, 4, 2, loader);
+            pager.get(0);
+            pager.get(900); // fling before anything loaded
+            loader.runAll();
+            assertNull(pager.get(0)); // its queued load was dropped, not decoded
+            assertEquals(900, pager.get(900).id());
+        }
+    }
+
+    @Test
+    public void scrollsMillionPollsWithBoundedHeap() throws Exception {
+        final int polls = 1_000_000;
+        File f = tmp.newFile();
+        PollArchive.Writer w = new PollArchive.Writer();
+        Poll template = new Poll(0, "");
+        for (int i = 0; i < 4; i++) template.addOption("Option " + i);
+        for (int i = 0; i < polls; i++) {
+            template.question = "Poll : archived question #" + i;
+            template.tally.set(i % 4, i % 100);
+            w.add(new Renamed(template, i));
+        }
+        w.writeTo(f);
+        w = null;
+
+        MemoryMXBean mem = ManagementFactory.getMemoryMXBean();
+        ExecutorService loader = Executors.newSingleThreadExecutor();
+        try (PollArchive archive = PollArchive.open(f)) {
+            ArchivePager pager = new ArchivePager(archive, 64, 16, 4, loader);
+            PollArchive.Row fallback = archive.newRow();
+            System.gc();
+            long baseline = mem.getHeapMemoryUsage().getUsed();
+
+            // A fling binding 16 rows per frame through the whole archive, falling back
+            // to a direct row read whenever the page hasn't loaded yet.
+            final int rowsPerFrame = 16;
+            for (int frame = 0; frame < polls / rowsPerFrame; frame++) {
+                for (int k = 0; k < rowsPerFrame; k++) {
+                    int i = frame * rowsPerFrame + k;
+                    PollResults r = pager.get(i);
+                    if (r == null) r = fallback.moveTo(i);
+                    assertEquals(i, r.id());
+                }
+                if (frame % 256 == 0) assertTrue(pager.loadedPages() <= 16);
+            }
+            System.gc();
+            long retained = mem.getHeapMemoryUsage().getUsed() - baseline;
+            assertTrue("retained " + retained, retained < 16 * 1024 * 1024);
+        } finally {
+            loader.shutdownNow();
+            loader.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Gives the reused template a per-row id without allocating a Poll per row. */
+    private static class Renamed implements PollResults {
+        private final Poll p;
+        private final long id;
+
+        Renamed(Poll p, long id) {
+            this.p = p;
+            this.id = id;
+        }
+
+        @Override public long id() { return id; }
+        @Override public String title() { return p.title(); }
+        @Override public int optionCount() { return p.optionCount(); }
+        @Override public String optionLabel(int index) { return p.optionLabel(index); }
+        @Override public int votesFor(int index) { return p.votesFor(index); }
+        @Override public int totalVotes() { return p.totalVotes(); }
+        @Override public int winningIndex() { return p.winningIndex(); }
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Round trips through both formats, import into a store, cancellation,
+ * malformed input, and bounded allocation over files far larger than the
+ * buffer. Everything runs against temp files; throughput is measured by
+ * BallotIOBenchmark.
+ */
+public class BallotIOTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static List<Poll> samplePolls() {
+        Poll food = new Poll(101, "Poll : Favorite Food, \"really\"?");
+        food.description = "Line one\nline two, with comma";
+        food.link = "https://example.com/menu?a=1,b=2";
+        food.addOption("Burger");
+        food.addOption("Cr\u00e8me br\u00fbl\u00e9e");
+        food.addOption("");
+        food.tally.set(0, 30);
+        food.tally.set(1, 15);
+        food.closed = true;
+
+        Poll ranked = new Poll(102, "Poll : Board seat");
+        for (String s : new String[] {"Ana", "Bo", "Cy"}) ranked.addOption(s);
+        ranked.setMethod(new RankedChoiceVoting(ranked));
+        ranked.cast(0, 1, 2);
+        ranked.cast(1, 2);
+        ranked.cast(2, 1, 0);
+        ranked.cast(1);
+
+        Poll approval = new Poll(103, "# not a comment");
+        approval.addOption("Mon");
+        approval.addOption("Tue");
+        approval.setMethod(new ApprovalVoting(approval));
+        approval.cast(0, 1);
+        approval.cast(1);
+        return Arrays.asList(food, ranked, approval);
+    }
+
+    @Test
+    public void roundTripsBothFormats() throws IOException {
+        List<Poll> polls = samplePolls();
+        for (BallotIO.Format format : BallotIO.Format.values()) {
+            File f = new File(tmp.getRoot(), "polls." + format);
+            try (BallotIO.Writer w = BallotIO.Writer.open(f, format)) {
+                BallotIO.export(w, polls, null);
+                w.commit();
+            }
+            PollImporter importer = new PollImporter(Collections.emptyList(), null);
+            long records = BallotIO.read(f, format, importer, null);
+            assertEquals(format + "", 3 + 2 + 4 + 2, records);
+
+            List<Poll> back = importer.added();
+            assertEquals(3, back.size());
+            for (int i = 0; i < polls.size(); i++) {
+                Poll a = polls.get(i), b = back.get(i);
+                assertTrue(a.id != b.id); // new polls get local ids
+                assertEquals(a.question, b.question);
+                assertEquals(a.description, b.description);
+                assertEquals(a.link, b.link);
+                assertEquals(a.closed, b.closed);
+                assertEquals(a.optionCount(), b.optionCount());
+                for (int o = 0; o < a.optionCount(); o++) assertEquals(a.optionLabel(o), b.optionLabel(o));
+                assertArrayEquals(format + " " + a.question, a.tally.snapshot().counts, b.tally.snapshot().counts);
+                assertEquals(a.winningIndex(), b.winningIndex());
+            }
+            assertNull(back.get(1).description);
+            assertTrue(back.get(1).method() instanceof RankedChoiceVoting);
+            assertEquals(4, back.get(1).method().ballots());
+            assertTrue(back.get(2).method() instanceof ApprovalVoting);
+            assertEquals(4, importer.ballots());
+        }
+    }
+
+    @Test
+    public void importsIntoStoreAndAddsToExistingPolls() throws IOException {
+        Poll mine = new Poll("Poll : Existing");
+        mine.addOption("Yes");
+        mine.addOption("No");
+        Poll other = new Poll("Poll : Other"); // its id may be one the file uses for something else
+        other.addOption("Yes");
+        other.addOption("No");
+        File f = new File(tmp.getRoot(), "box.csv");
+        write(f, "poll,70,closed,plurality,Poll : Existing,,,Yes,No\n"
+                + "ballot,70,0\nballot,70,1\r\nballot,70,1,0\n\n# paper box 2\nvotes,70,1,10\n"
+                + "poll," + other.id + ",open,plurality,New one,,,A,B\nballot," + other.id + ",1");
+
+        File dir = tmp.newFolder("store");
+        PollStore store = PollStore.open(dir);
+        try {
+            store.addPoll(mine);
+            PollImporter importer = new PollImporter(Arrays.asList(mine, other), store);
+            BallotIO.read(f, BallotIO.Format.CSV, importer, null);
+            assertEquals(1, importer.added().size());
+            assertEquals(12, mine.votesFor(1));
+            assertEquals(0, other.totalVotes());
+        } finally {
+            store.close();
+        }
+        PollStore reopened = PollStore.open(dir);
+        try {
+            assertEquals(1, reopened.polls().get(0).votesFor(1)); // newest first
+            assertEquals(13, reopened.polls().get(1).totalVotes());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void cancelsWithoutSideEffects() throws IOException {
+        Poll mine = new Poll(9, "Poll : Big");
+        mine.addOption("A");
+        mine.addOption("B");
+        File f = new File(tmp.getRoot(), "big.bin");
+        try (BallotIO.Writer w = BallotIO.Writer.open(f, BallotIO.Format.BINARY)) {
+            w.poll(mine);
+            int[] ballot = new int[1];
+            for (int i = 0; i < 2_000_000; i++) {
+                ballot[0] = i & 1;
+                w.ballot(9, ballot, 1);
+            }
+            w.commit();
+        }
+        List<Long> seen = new ArrayList<>();
+        PollImporter importer = new PollImporter(Collections.singletonList(mine), null);
+        try {
+            BallotIO.read(f, BallotIO.Format.BINARY, importer, (done, total) -> {
+                seen.add(done);
+                return done < total / 2;
+            });
+            throw new AssertionError("not cancelled");
+        } catch (CancellationException expected) {
+            assertEquals(0, mine.totalVotes()); // counts are only applied at the end
+            assertTrue(seen.size() > 1);
+            assertTrue(seen.get(seen.size() - 1) < f.length());
+        }
+
+        File out = new File(tmp.getRoot(), "export.csv");
+        try (BallotIO.Writer w = BallotIO.Writer.open(out, BallotIO.Format.CSV)) {
+            BallotIO.export(w, samplePolls(), (done, total) -> done < 2);
+            throw new AssertionError("not cancelled");
+        } catch (CancellationException expected) {
+            assertFalse(out.exists());
+            assertFalse(new File(out.getPath() + ".part").exists());
+        }
+    }
+
+    @Test
+    public void rejectsMalformedInput() throws IOException {
+        File f = new File(tmp.getRoot(), "bad.csv");
+        write(f, "poll,1,open,plurality,Q,,,A\nballot,1,x\n");
+        Poll dummy = new Poll(1, "Q");
+        dummy.addOption("A");
+        try {
+            BallotIO.read(f, BallotIO.Format.CSV, new PollImporter(Collections.singletonList(dummy), null), null);
+            throw new AssertionError("accepted a bad number");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 2:"));
+        }
+
+        File bin = new File(tmp.getRoot(), "cut.bin");
+        try (BallotIO.Writer w = BallotIO.Writer.open(bin, BallotIO.Format.BINARY)) {
+            w.poll(dummy);
+            w.commit();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(bin, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        try {
+            BallotIO.read(bin, BallotIO.Format.BINARY, new PollImporter(Collections.emptyList(), null), null);
+            throw new AssertionError("accepted a truncated file");
+        } catch (EOFException expected) {
+            // cut inside the poll record
+        }
+
+        write(f, "ballot,1,0\n"); // poll 1 is only an id on this install
+        try {
+            BallotIO.read(f, BallotIO.Format.CSV, new PollImporter(Collections.singletonList(dummy), null), null);
+            throw new AssertionError("matched a poll by its local id");
+        } catch (IOException e) {
+            assertEquals(0, dummy.totalVotes());
+        }
+    }
+
+    @Test
+    public void rejectsOutOfRangeCounts() throws IOException {
+        String poll = "poll,1,open,plurality,Q,,,A,B\n";
+        String[] csv = {
+                poll + "votes,1,0,3000000000\n",               // past Integer.MAX_VALUE
+                poll + "ballot,1,4294967296\n",                // would truncate to option 0
+                poll + "votes,1,0,2147483647\nvotes,1,0,1\n", // sums past Integer.MAX_VALUE
+                poll + "votes,1,-1,1\n",
+                "poll,1,open,ranked,Q,,,A,B\nballot,1,0,0\n",  // ranked twice
+        };
+        File f = new File(tmp.getRoot(), "range.csv");
+        for (String text : csv) {
+            write(f, text);
+            PollImporter importer = new PollImporter(Collections.emptyList(), null);
+            try {
+                BallotIO.read(f, BallotIO.Format.CSV, importer, null);
+                throw new AssertionError("accepted " + text);
+            } catch (IOException expected) {
+                for (Poll p : importer.added()) assertEquals(text, 0, p.totalVotes());
+            }
+        }
+
+        byte[] header = {'B', 'A', 'L', 'T', 1, 1, 0, 0, 0, 0, 0, 0, 0, 1, 0, 1, 'Q'}; // poll 1, "Q"
+        byte[][] binary = {
+                {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07},          // 2^31 - 1 options
+                {1, 1, 'A', 2, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F}, // votes -1
+        };
+        File bin = new File(tmp.getRoot(), "range.bin");
+        for (byte[] tail : binary) {
+            try (FileOutputStream out = new FileOutputStream(bin)) {
+                out.write(header);
+                out.write(tail);
+            }
+            try {
+                BallotIO.read(bin, BallotIO.Format.BINARY, new PollImporter(Collections.emptyList(), null), null);
+                throw new AssertionError("accepted " + Arrays.toString(tail));
+            } catch (EOFException e) {
+                throw new AssertionError("read past a bad count", e);
+            } catch (IOException expected) {
+                // rejected before allocating or counting
+            }
+        }
+    }
+
+    @Test
+    public void streamsLargeFilesInConstantMemory() throws IOException {
+        final int ballots = 1_000_000, options = 40;
+        Poll poll = new Poll(424242, "Poll : Paper election");
+        for (int o = 0; o < options; o++) poll.addOption("Candidate " + o);
+
+        for (BallotIO.Format format : BallotIO.Format.values()) {
+            File f = new File(tmp.getRoot(), "election." + format);
+            int[] ballot = new int[3];
+            try (BallotIO.Writer w = BallotIO.Writer.open(f, format)) {
+                w.poll(poll);
+                for (int i = 0; i < ballots; i++) {
+                    ballot[0] = i % options;
+                    ballot[1] = (i * 7 + 1) % options;
+                    int n = ballot[0] == ballot[1] ? 1 : 2;
+                    w.ballot(poll.id, ballot, n);
+                }
+                w.commit();
+            }
+
+            long[] counted = new long[2];
+            BallotIO.Sink counter = new BallotIO.Sink() {
+                @Override
+                public void poll(long id, Poll p) {
+                    counted[0]++;
+                }
+
+                @Override
+                public void votes(long pollId, int option, int count) {
+                }
+
+                @Override
+                public void ballot(long pollId, int[] choices, int n) {
+                    counted[1] += choices[0];
+                }
+            };
+            long allocated = -1;
+            for (int round = 0; round < 2; round++) { // the first run loads classes
+                long a0 = allocatedBytes();
+                BallotIO.read(f, format, counter, null);
+                allocated = allocatedBytes() - a0;
+            }
+            assertEquals(2, counted[0]); // one poll record per read
+
+            PollImporter importer = new PollImporter(Collections.emptyList(), null);
+            BallotIO.read(f, format, importer, null);
+            Poll back = importer.added().get(0);
+
+            assertEquals(ballots, back.totalVotes());
+            assertEquals(ballots / options, back.votesFor(options - 1));
+            if (allocated >= 0) assertTrue(format + " allocated " + allocated, allocated < 1 << 20);
+            assertTrue(f.delete());
+        }
+    }
+
+    private static void write(File f, String s) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(f)) {
+            out.write(s.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /** This thread's allocated bytes, or -1 where the JVM does not say (only HotSpot does). */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
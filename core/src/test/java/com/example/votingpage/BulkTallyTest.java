@@ -0,0 +1,121 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel counts against one-by-one voting, journaled imports (ranked
+ * boxes as a unit) and recounts. Throughput is BulkTallyBenchmark's job.
+ */
+public class BulkTallyTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static Poll poll(int options) {
+        Poll p = new Poll("Poll : Imported");
+        for (int i = 0; i < options; i++) p.addOption("Choice " + i);
+        return p;
+    }
+
+    private static int[] box(int ballots, int options, long seed) {
+        Random rnd = new Random(seed);
+        int[] box = new int[ballots];
+        for (int i = 0; i < ballots; i++) box[i] = rnd.nextInt(options); // uniform: the lead is close
+        return box;
+    }
+
+    @Test
+    public void matchesOneByOneVoting() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int options : new int[] {1, 2, 7, 50}) {
+                int[] box = box(1_000_003, options, options);
+                Poll oneByOne = poll(options);
+                for (int b : box) oneByOne.vote(b);
+                Poll bulk = poll(options);
+                bulk.vote(0); // imports add to what is already there
+                oneByOne.vote(0);
+                BulkTally.importBallots(bulk, null, box, 0, box.length, pool);
+
+                assertArrayEquals(oneByOne.tally.snapshot().counts, bulk.tally.snapshot().counts);
+                assertEquals(oneByOne.totalVotes(), bulk.totalVotes());
+                assertEquals(oneByOne.winningIndex(), bulk.winningIndex());
+                assertArrayEquals(BulkTally.countSequential(box, 10, 500_000, options),
+                        BulkTally.count(box, 10, 500_000, options, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void importsThroughStoreAndRecounts() throws IOException {
+        Poll p = poll(3);
+        int[] box = {0, 1, 1, 2, 1, 0, 1};
+        PollStore store = PollStore.open(tmp.getRoot());
+        try {
+            store.addPoll(p);
+            BulkTally.importBallots(p, store, box, 0, box.length, ForkJoinPool.commonPool());
+        } finally {
+            store.close();
+        }
+        PollStore reopened = PollStore.open(tmp.getRoot());
+        try {
+            Poll back = reopened.polls().get(0);
+            assertEquals(7, back.totalVotes());
+            assertEquals(4, back.votesFor(1));
+            BulkTally.recount(back, reopened, new int[] {2, 2, 0}, ForkJoinPool.commonPool());
+        } finally {
+            reopened.close();
+        }
+        reopened = PollStore.open(tmp.getRoot());
+        try {
+            Poll back = reopened.polls().get(0);
+            assertArrayEquals(new int[] {1, 0, 2}, back.tally.snapshot().counts); // not added to the import
+            assertEquals(2, back.winningIndex());
+        } finally {
+            reopened.close();
+        }
+
+        BulkTally.recount(p, null, new int[] {2, 2, 0}, ForkJoinPool.commonPool());
+        assertArrayEquals(new int[] {1, 0, 2}, p.tally.snapshot().counts);
+
+        try {
+            BulkTally.importBallots(p, null, new int[] {1, 3}, 0, 2, ForkJoinPool.commonPool());
+            throw new AssertionError("accepted option 3");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(3, p.totalVotes()); // nothing from the bad box landed
+        }
+    }
+
+    @Test
+    public void rankedBoxIsCheckedThenJournaledWhole() throws IOException {
+        Poll p = poll(3);
+        p.setMethod(new RankedChoiceVoting(p));
+        try (PollStore store = PollStore.open(tmp.getRoot())) {
+            store.addPoll(p);
+            try {
+                BulkTally.importBallots(p, store, new int[] {0, 1, 7, 2}, 0, 4, ForkJoinPool.commonPool());
+                throw new AssertionError("accepted option 7");
+            } catch (IllegalArgumentException expected) {
+                assertEquals(0, p.method().ballots()); // the good ballots before it were not cast either
+            }
+            BulkTally.importBallots(p, store, new int[] {0, 1, 1, 2, 1}, 0, 5, ForkJoinPool.commonPool());
+        }
+        try (PollStore store = PollStore.open(tmp.getRoot())) {
+            Poll back = store.polls().get(0);
+            assertEquals(5, back.method().ballots());
+            assertEquals(3, back.votesFor(1));
+            assertEquals(1, back.winningIndex());
+        }
+    }
+}
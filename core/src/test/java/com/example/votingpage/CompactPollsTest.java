@@ -0,0 +1,131 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Round trips between Poll and the struct-of-arrays store, votes racing
+ * with appends, and the compact store retaining under half of Poll's
+ * bytes per poll at 3, 10 and 50 options.
+ */
+public class CompactPollsTest {
+
+    private static Object retained; // keeps the measured polls reachable
+
+    private static Poll poll(int i, int options) {
+        Poll p = new Poll(i + 1, "Poll : Synthetic #" + i);
+        if (i % 2 == 0) p.description = "Generated for the memory test.";
+        for (int o = 0; o < options; o++) {
+            p.addOption("Choice " + o); // a fresh String per poll, as when read from disk
+            p.tally.set(o, (i * 7 + o * 13) % 50);
+        }
+        return p;
+    }
+
+    @Test
+    public void rowsMirrorPolls() {
+        CompactPolls store = new CompactPolls(2);
+        Poll food = new Poll(7, "Poll : Favorite Food?");
+        food.link = "https://example.com/menu";
+        food.addOption("Burger");
+        food.addOption("Hotdog");
+        food.addOption("Sandwich");
+        food.tally.set(0, 30);
+        food.tally.set(1, 15);
+        food.tally.set(2, 5);
+        food.closed = true;
+        int row = store.add(food);
+        for (int i = 0; i < 10; i++) store.add(poll(i, 2 + i % 4)); // forces column growth
+
+        PollResults v = store.view(row);
+        assertEquals(7, v.id());
+        assertEquals("Poll : Favorite Food?", v.title());
+        assertEquals("Hotdog", v.optionLabel(1));
+        assertEquals(50, v.totalVotes());
+        assertEquals(food.winningIndex(), v.winningIndex());
+        assertTrue(store.closed(row));
+        assertEquals(CompactPolls.NO_SELECTION, store.selected(row));
+
+        store.vote(row, 2);
+        store.setSelected(row, 1);
+        Poll back = store.toPoll(row);
+        assertEquals("https://example.com/menu", back.link);
+        assertEquals(6, back.votesFor(2));
+        assertEquals(1, back.selectedIndex);
+        assertTrue(back.closed);
+        assertEquals(5, food.votesFor(2)); // the original is untouched
+
+        store.add(99, "Tie", null, null, new String[] {"Burger", "Yes"});
+        int tie = store.size() - 1;
+        store.add(tie, 0, 3);
+        store.add(tie, 1, 3);
+        assertEquals(0, store.winningIndex(tie));            // ties go to the lowest index
+        assertEquals(3 + 5 + 1, store.labelCount());          // Burger/Hotdog/Sandwich, Choice 0..4, Yes
+        assertFalse(store.closed(tie));
+    }
+
+    @Test
+    public void votesRaceWithAppends() throws Exception {
+        CompactPolls store = new CompactPolls(1);
+        store.add(1, "Hot", null, null, new String[] {"A", "B"});
+        final int threads = 4, votes = 200_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] voters = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            voters[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < votes; i++) store.vote(0, i & 1);
+            });
+            voters[t].start();
+        }
+        start.countDown();
+        for (int i = 0; i < 50_000; i++) { // grows every column while votes land
+            store.add(i + 2, "Poll " + i, null, null, new String[] {"A", "B", "C"});
+        }
+        for (Thread t : voters) t.join();
+        assertEquals(threads * votes, store.totalVotes(0));
+        assertEquals(threads * votes / 2, store.votes(0, 1));
+    }
+
+    @Test
+    public void bytesPerPoll() {
+        final int n = 20_000;
+        MemoryMXBean mem = ManagementFactory.getMemoryMXBean();
+        for (int options : new int[] {3, 10, 50}) {
+            long base = usedHeap(mem);
+            Poll[] polls = new Poll[n];
+            for (int i = 0; i < n; i++) polls[i] = poll(i, options);
+            retained = polls;
+            double pollBytes = (double) (usedHeap(mem) - base) / n;
+
+            retained = null;
+            polls = null;
+
+            base = usedHeap(mem);
+            CompactPolls store = new CompactPolls(n);
+            for (int i = 0; i < n; i++) store.add(poll(i, options));
+            store.trimToSize();
+            retained = store;
+            double compactBytes = (double) (usedHeap(mem) - base) / n;
+            retained = null;
+
+            assertTrue(options + " options: " + compactBytes + " vs " + pollBytes, compactBytes < pollBytes / 2);
+        }
+    }
+
+    private static long usedHeap(MemoryMXBean mem) {
+        for (int i = 0; i < 3; i++) System.gc();
+        return mem.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Property tests for VoteCounters/LwwFlag/ReplicatedPoll: for many random
+ * seeds, random local ops and random partial merges (direct and through
+ * the encoding) must end in identical replicas once everyone has merged
+ * with everyone, with no vote lost or counted twice. Plus the join laws
+ * (commutative, associative, idempotent) on random counter states, a
+ * stored replica resuming after a restart, and option indexes from the
+ * wire capped before they size an array.
+ */
+public class CrdtTest {
+
+    private static final int SEEDS = 300;
+    private static final int OPTIONS = 6;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void replicasConvergeWithoutLosingVotes() throws IOException {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random rnd = new Random(seed);
+            int n = 2 + rnd.nextInt(6);
+            ReplicatedPoll[] replicas = new ReplicatedPoll[n];
+            for (int r = 0; r < n; r++) replicas[r] = new ReplicatedPoll(emptyPoll(), r + 1);
+
+            int[] expected = new int[OPTIONS];
+            long winTs = 0;
+            int winReplica = 0;
+            boolean winValue = false;
+
+            for (int step = 0, steps = 20 + rnd.nextInt(200); step < steps; step++) {
+                ReplicatedPoll a = replicas[rnd.nextInt(n)];
+                int op = rnd.nextInt(10);
+                if (op < 5) {
+                    int o = rnd.nextInt(OPTIONS);
+                    a.vote(o);
+                    expected[o]++;
+                } else if (op == 5) {
+                    int o = rnd.nextInt(OPTIONS);
+                    int before = a.poll.votesFor(o);
+                    a.retract(o);
+                    expected[o] -= before - a.poll.votesFor(o);
+                } else if (op == 6) {
+                    boolean v = rnd.nextBoolean();
+                    int r = indexOf(replicas, a) + 1;
+                    a.setClosed(v, rnd.nextInt(50)); // coarse clock: ties and clock skew happen
+                    long ts = closedTimestamp(a);
+                    if (ts > winTs || (ts == winTs && r > winReplica)) {
+                        winTs = ts;
+                        winReplica = r;
+                        winValue = v;
+                    }
+                } else if (op < 9) {
+                    a.merge(replicas[rnd.nextInt(n)]);
+                } else {
+                    a.mergeFrom(replicas[rnd.nextInt(n)].encode());
+                }
+            }
+
+            // Anti-entropy: two rounds of everyone-with-everyone in random order
+            for (int round = 0; round < 2; round++) {
+                for (int k = 0; k < n * n; k++) {
+                    replicas[rnd.nextInt(n)].merge(replicas[rnd.nextInt(n)]);
+                }
+                for (ReplicatedPoll a : replicas) for (ReplicatedPoll b : replicas) a.merge(b);
+            }
+
+            for (ReplicatedPoll r : replicas) {
+                assertArrayEquals("seed " + seed, expected, counts(r.poll));
+                assertEquals("seed " + seed, winValue, r.poll.closed);
+                assertArrayEquals("seed " + seed, replicas[0].encode(), r.encode());
+            }
+        }
+    }
+
+    @Test
+    public void storedReplicaResumesWithoutCountingAgain() throws Exception {
+        File dir = tmp.newFolder();
+        ReplicatedPoll peer = new ReplicatedPoll(emptyPoll(), 2);
+        peer.vote(1);
+        peer.vote(1);
+
+        PollStore store = PollStore.open(dir);
+        Poll p = emptyPoll();
+        store.addPoll(p);
+        ReplicatedPoll r = new ReplicatedPoll(p, 1, store);
+        r.vote(0);
+        r.merge(peer);
+        r.setClosed(true, 10);
+        byte[] state = r.encode();
+        store.close();
+
+        store = PollStore.open(dir);
+        Poll q = store.polls().get(0);
+        assertArrayEquals(new int[] {1, 2, 0, 0, 0, 0}, counts(q));
+        assertTrue(q.closed);
+        r = new ReplicatedPoll(q, 1, store);
+        assertArrayEquals(state, r.encode());
+        r.merge(peer); // already in
+        peer.vote(1);
+        r.merge(peer);
+        assertArrayEquals(new int[] {1, 3, 0, 0, 0, 0}, counts(q));
+        store.compactAsync().get();
+        store.close();
+
+        store = PollStore.open(dir);
+        q = store.polls().get(0);
+        r = new ReplicatedPoll(q, 1, store);
+        r.merge(peer);
+        assertArrayEquals(new int[] {1, 3, 0, 0, 0, 0}, counts(q));
+        assertEquals(2, r.replicaCount());
+        store.close();
+    }
+
+    @Test
+    public void joinLaws() throws IOException {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random rnd = new Random(seed);
+            VoteCounters a = randomState(rnd), b = randomState(rnd), c = randomState(rnd);
+
+            // commutative
+            assertArrayEquals(encode(join(a, b)), encode(join(b, a)));
+            // associative
+            assertArrayEquals(encode(join(join(a, b), c)), encode(join(a, join(b, c))));
+            // idempotent
+            assertArrayEquals(encode(a), encode(join(a, a)));
+            // merging from the encoding is the same as merging the object
+            VoteCounters viaBytes = join(a, new VoteCounters());
+            byte[] bBytes = encode(b);
+            viaBytes.mergeFrom(new SyncProtocol.In(bBytes, 0, bBytes.length));
+            assertArrayEquals(encode(join(a, b)), encode(viaBytes));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOptionIndexPastLimit() throws IOException {
+        SyncProtocol.Out out = new SyncProtocol.Out();
+        out.varLong(1);                           // one replica
+        out.varLong(7);                           // its id
+        out.varLong(1);                           // one increment
+        out.varLong(PollStore.MAX_OPTIONS);       // gap to option MAX_OPTIONS
+        out.varLong(1);
+        out.varLong(0);                           // no decrements
+        byte[] hostile = out.toByteArray();
+        new VoteCounters().mergeFrom(new SyncProtocol.In(hostile, 0, hostile.length));
+    }
+
+    @Test
+    public void changedOptionsAreReported() {
+        VoteCounters a = new VoteCounters(), b = new VoteCounters();
+        a.add(1, 0, 3);
+        b.add(1, 0, 3);
+        b.add(2, 4, 1);
+        b.add(2, 4, 1);
+        a.merge(b);
+        assertEquals(1, a.changedCount());
+        assertEquals(4, a.changedOption(0));
+        assertEquals(2, a.value(4));
+        a.merge(b);
+        assertEquals(0, a.changedCount());
+    }
+
+    private static Poll emptyPoll() {
+        Poll p = new Poll("Poll : Offline");
+        for (int i = 0; i < OPTIONS; i++) p.addOption("Option " + i);
+        return p;
+    }
+
+    private static VoteCounters randomState(Random rnd) {
+        VoteCounters v = new VoteCounters();
+        for (int i = 0, n = rnd.nextInt(30); i < n; i++) {
+            int replica = rnd.nextInt(8), option = rnd.nextInt(OPTIONS * 2);
+            v.add(replica, option, rnd.nextInt(4) == 0 ? -1 - rnd.nextInt(3) : 1 + rnd.nextInt(5));
+        }
+        return v;
+    }
+
+    private static VoteCounters join(VoteCounters x, VoteCounters y) {
+        VoteCounters r = new VoteCounters();
+        r.merge(x);
+        r.merge(y);
+        return r;
+    }
+
+    private static byte[] encode(VoteCounters v) {
+        SyncProtocol.Out out = new SyncProtocol.Out();
+        v.encode(out);
+        return out.toByteArray();
+    }
+
+    private static int[] counts(Poll p) {
+        int[] c = new int[p.optionCount()];
+        for (int i = 0; i < c.length; i++) c[i] = p.votesFor(i);
+        return c;
+    }
+
+    private static int indexOf(ReplicatedPoll[] rs, ReplicatedPoll r) {
+        for (int i = 0; i < rs.length; i++) if (rs[i] == r) return i;
+        throw new AssertionError();
+    }
+
+    /** The register's timestamp, read back through the encoding (counters, then ts). */
+    private static long closedTimestamp(ReplicatedPoll r) throws IOException {
+        byte[] state = r.encode();
+        SyncProtocol.In in = new SyncProtocol.In(state, 0, state.length);
+        new VoteCounters().mergeFrom(in);
+        return in.varLong();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Histogram accuracy against exact percentiles, section bookkeeping with a
+ * fake allocation counter and tracer, JSON export, and sections recording
+ * nothing while metrics are off. MetricsBenchmark measures what a section
+ * costs.
+ */
+public class MetricsTest {
+
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.setTracer(null);
+        Metrics.setAllocationCounter(null);
+        Metrics.reset();
+    }
+
+    @Test
+    public void histogramPercentilesWithinThreePercent() {
+        Random rnd = new Random(19);
+        LatencyHistogram h = new LatencyHistogram();
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(8 + 2 * rnd.nextGaussian()); // ~3 us median, long tail
+            h.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double p : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long approx = h.percentile(p);
+            assertTrue(p + ": " + approx + " vs " + exact, approx >= exact && approx <= exact * 1.04 + 1);
+        }
+        assertEquals(values[values.length - 1], h.max());
+        assertEquals(values.length, h.count());
+
+        for (long v : new long[] {0, 1, 31, 32, 33, 63, 64, 1000, 1L << 40, Long.MAX_VALUE}) {
+            int i = LatencyHistogram.index(v);
+            assertTrue(v + "", LatencyHistogram.lowest(i) <= v && v <= LatencyHistogram.highest(i));
+        }
+    }
+
+    @Test
+    public void sectionsRecordLatencyAllocationsAndTrace() {
+        Metrics.Section outer = Metrics.section("test.outer");
+        Metrics.Section inner = Metrics.section("test.inner");
+        Metrics.Counter votes = Metrics.counter("test.votes");
+        long[] allocated = {0};
+        List<String> trace = new ArrayList<>();
+
+        // Disabled: nothing is recorded
+        outer.end(outer.begin());
+        votes.increment();
+        assertEquals(0, outer.latency().count());
+        assertEquals(0, votes.get());
+
+        Metrics.setEnabled(true);
+        Metrics.setAllocationCounter(() -> allocated[0]);
+        Metrics.setTracer(new Metrics.Tracer() {
+            @Override
+            public void begin(String name) {
+                trace.add("+" + name);
+            }
+
+            @Override
+            public void end() {
+                trace.add("-");
+            }
+        });
+        long t = outer.begin();
+        allocated[0] += 3;
+        long u = inner.begin();
+        allocated[0] += 5;
+        inner.end(u);
+        outer.end(t);
+        votes.add(2);
+
+        assertEquals(1, outer.latency().count());
+        assertEquals(8, outer.allocations().max());
+        assertEquals(5, inner.allocations().max());
+        assertEquals(Arrays.asList("+test.outer", "+test.inner", "-", "-"), trace);
+        assertEquals(2, votes.get());
+
+        Metrics.gauge("test.gauge", () -> 42);
+        Metrics.histogram("test.span").record(7);
+        String json = Metrics.toJson();
+        assertTrue(json, json.contains("\"test.votes\":2"));
+        assertTrue(json, json.contains("\"test.gauge\":42"));
+        assertTrue(json, json.contains("\"test.inner\":{\"latencyNs\":{\"count\":1,"));
+        assertTrue(json, json.contains("\"allocations\":{\"count\":1,\"mean\":5.0,"));
+        assertTrue(json, json.contains("\"histograms\":{\"test.span\":{\"count\":1,\"mean\":7.0,"));
+
+        // A recreated owner registers first; the old one's cleanup must leave it
+        LongSupplier old = () -> 1, current = () -> 2;
+        Metrics.gauge("test.owned", old);
+        Metrics.gauge("test.owned", current);
+        Metrics.removeGauge("test.owned", old);
+        assertTrue(Metrics.toJson().contains("\"test.owned\":2"));
+        Metrics.removeGauge("test.owned", current);
+        assertFalse(Metrics.toJson().contains("test.owned"));
+    }
+
+    @Test
+    public void sectionsOffRecordNothing() {
+        Metrics.Section s = Metrics.section("test.off");
+        Metrics.setEnabled(false);
+        long t = s.begin();
+        Metrics.setEnabled(true); // switched on mid-section: the open one is still dropped
+        s.end(t);
+        assertEquals(0, t);
+        assertEquals(0, s.latency().count());
+
+        s.end(s.begin());
+        assertEquals(1, s.latency().count());
+    }
+}
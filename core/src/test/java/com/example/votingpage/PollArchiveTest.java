@@ -0,0 +1,96 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+/**
+ * Host-side tests for the mapped columnar archive, up to 1M polls. Open
+ * time is in ArchiveBenchmark.
+ */
+public class PollArchiveTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void roundTripsClosedPolls() throws Exception {
+        Poll food = new Poll("Poll : Favorite Food?");
+        food.addOption("Burger");
+        food.addOption("Hotdog");
+        food.addOption("S\u00e1ndwich"); // non-ASCII survives UTF-8
+        food.tally.set(0, 30);
+        food.tally.set(1, 15);
+        food.tally.set(2, 5);
+        Poll tie = new Poll("Poll : Tie");
+        tie.addOption("A");
+        tie.addOption("B");
+
+        File f = tmp.newFile();
+        new PollArchive.Writer().add(food).add(tie).writeTo(f);
+
+        try (PollArchive archive = PollArchive.open(f)) {
+            assertEquals(2, archive.size());
+            PollArchive.Row row = archive.newRow().moveTo(0);
+            assertEquals(food.id, row.id());
+            assertEquals("Poll : Favorite Food?", row.title());
+            assertEquals(3, row.optionCount());
+            assertEquals("S\u00e1ndwich", row.optionLabel(2));
+            assertEquals(15, row.votesFor(1));
+            assertEquals(50, row.totalVotes());
+            assertEquals(0, row.winningIndex());
+
+            row.moveTo(1);
+            assertEquals("B", row.optionLabel(1));
+            assertEquals(0, row.totalVotes());
+            assertEquals(0, row.winningIndex());
+        }
+    }
+
+    @Test
+    public void opensMillionPollArchive() throws Exception {
+        final int polls = 1_000_000;
+        File f = tmp.newFile();
+        PollArchive.Writer w = new PollArchive.Writer();
+        Synthetic s = new Synthetic();
+        for (int i = 0; i < polls; i++) w.add(s.at(i));
+        w.writeTo(f);
+        w = null;
+
+        try (PollArchive archive = PollArchive.open(f)) {
+            assertEquals(polls, archive.size());
+
+            PollArchive.Row row = archive.newRow().moveTo(polls - 1);
+            assertEquals("Poll : #" + (polls - 1), row.title());
+            assertEquals(s.at(polls - 1).votesFor(2), row.votesFor(2));
+            row.moveTo(0);
+            assertEquals("Poll : #0", row.title());
+        }
+    }
+
+    /** Allocation-light stand-in so building the archive doesn't need 1M Polls. */
+    private static class Synthetic implements PollResults {
+        private int i;
+
+        Synthetic at(int i) {
+            this.i = i;
+            return this;
+        }
+
+        @Override public long id() { return i; }
+        @Override public String title() { return "Poll : #" + i; }
+        @Override public int optionCount() { return 3; }
+        @Override public String optionLabel(int index) { return "Option " + index; }
+        @Override public int votesFor(int index) { return (i * 31 + index * 7) % 100; }
+        @Override public int totalVotes() { return votesFor(0) + votesFor(1) + votesFor(2); }
+        @Override public int winningIndex() {
+            int w = 0;
+            for (int k = 1; k < 3; k++) if (votesFor(k) > votesFor(w)) w = k;
+            return w;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Prefix / token / fuzzy matching and incremental updates against a
+ * linear scan. PollSearchBenchmark measures build time and query latency.
+ */
+public class PollSearchIndexTest {
+
+    private static Poll poll(String question, String description, String... options) {
+        Poll p = new Poll(question);
+        p.description = description;
+        for (String o : options) p.addOption(o);
+        return p;
+    }
+
+    @Test
+    public void matchesTokensPrefixesAndTypos() {
+        Poll anime = poll("Poll : Favorite Anime?", "Pick one", "Naruto", "One Piece", "Bleach");
+        Poll food = poll("Poll : Favorite Food?", null, "Burger", "Hotdog", "S\u00e1ndwich");
+        Poll lunch = poll("Lunch spot", "Friday team lunch", "Caf\u00e9", "Deli");
+        PollSearchIndex index = new PollSearchIndex();
+        index.add(anime);
+        index.add(food);
+        index.add(lunch);
+
+        assertMatches(index.search("favorite"), anime, food);
+        assertMatches(index.search("fav"), anime, food);                // last token is a prefix
+        assertMatches(index.search("favorite anime"), anime);                // AND
+        assertMatches(index.search("favorite food"), food);
+        assertMatches(index.search("favorite burg"), food);                 // option label
+        assertMatches(index.search("team"), lunch);                      // description
+        assertMatches(index.search("sandwich"), food);                   // accents folded
+        assertMatches(index.search("CAFE"), lunch);
+        assertMatches(index.search("favourite"), anime, food);           // insertion
+        assertMatches(index.search("narto"), anime);                     // deletion
+        assertMatches(index.search("bleech"), anime);                    // substitution
+        assertMatches(index.search("hotdgo"), food);                     // swap
+        assertMatches(index.search("dela"), lunch);                      // 4-char term, substitution
+        assertMatches(index.search("deil"), lunch);                      // 4-char term, swap
+        assertMatches(index.search("one pi"), anime);
+        assertMatches(index.search("on pi"));                            // non-last token: whole word
+        assertMatches(index.search("xyzzy"));
+        assertMatches(index.search("  "), anime, food, lunch);
+
+        index.remove(food);
+        assertMatches(index.search("fav"), anime);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void withinOneEdit() {
+        assertTrue(PollSearchIndex.withinOneEdit("poll", "poll"));
+        assertTrue(PollSearchIndex.withinOneEdit("poll", "polls"));
+        assertTrue(PollSearchIndex.withinOneEdit("polls", "pols"));
+        assertTrue(PollSearchIndex.withinOneEdit("poll", "pell"));
+        assertTrue(PollSearchIndex.withinOneEdit("poll", "opll"));
+        assertFalse(PollSearchIndex.withinOneEdit("axc", "abx"));
+        assertFalse(PollSearchIndex.withinOneEdit("poll", "pl"));
+        assertFalse(PollSearchIndex.withinOneEdit("abcd", "badc"));
+    }
+
+    @Test
+    public void incrementalUpdatesMatchLinearScan() {
+        Random rnd = new Random(16);
+        String[] words = vocabulary(rnd, 300);
+        PollSearchIndex index = new PollSearchIndex();
+        List<Poll> live = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            if (!live.isEmpty() && rnd.nextInt(3) == 0) {
+                Poll gone = live.remove(rnd.nextInt(live.size())); // enough removes to trigger rebuilds
+                index.remove(gone);
+            } else {
+                Poll p = randomPoll(rnd, words);
+                live.add(p);
+                index.add(p);
+            }
+            if (step % 50 != 0) continue;
+            String q = words[rnd.nextInt(words.length)];
+            if (rnd.nextBoolean()) q = q.substring(0, 1 + rnd.nextInt(q.length())); // prefix
+            PollSearchIndex.Result r = index.search(q);
+            int expected = 0;
+            for (Poll p : live) {
+                boolean hit = anyTermStartsWith(p, q);
+                if (hit) expected++;
+                if (hit) assertTrue(q, r.contains(p)); // fuzzy may add hits, never lose one
+            }
+            assertTrue(r.size() >= expected);
+        }
+        assertEquals(live.size(), index.size());
+    }
+
+    private static void assertMatches(PollSearchIndex.Result r, Poll... expected) {
+        assertEquals(expected.length, r.size());
+        for (Poll p : expected) assertTrue(p.question, r.contains(p));
+    }
+
+    private static boolean anyTermStartsWith(Poll p, String prefix) {
+        List<String> terms = new ArrayList<>();
+        PollSearchIndex.tokenize(p.question, terms);
+        PollSearchIndex.tokenize(p.description, terms);
+        for (int i = 0; i < p.optionCount(); i++) PollSearchIndex.tokenize(p.optionLabel(i), terms);
+        for (String t : terms) if (t.startsWith(prefix)) return true;
+        return false;
+    }
+
+    private static String[] vocabulary(Random rnd, int n) {
+        String consonants = "bcdfghjklmnprstvwz", vowels = "aeiou";
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder w = new StringBuilder();
+            int syllables = 1 + rnd.nextInt(4);
+            for (int s = 0; s < syllables; s++) {
+                w.append(consonants.charAt(rnd.nextInt(consonants.length())));
+                w.append(vowels.charAt(rnd.nextInt(vowels.length())));
+            }
+            words[i] = w.toString();
+        }
+        return words;
+    }
+
+    private static Poll randomPoll(Random rnd, String[] words) {
+        Poll p = new Poll("Poll : " + phrase(rnd, words, 2 + rnd.nextInt(4)) + "?");
+        if (rnd.nextBoolean()) p.description = phrase(rnd, words, 3 + rnd.nextInt(8));
+        int options = 2 + rnd.nextInt(4);
+        for (int o = 0; o < options; o++) p.addOption(phrase(rnd, words, 1 + rnd.nextInt(2)));
+        return p;
+    }
+
+    private static String phrase(Random rnd, String[] words, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(words[(int) Math.min(words.length - 1, Math.abs(rnd.nextGaussian()) * words.length / 3)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Host-side tests for PollStore: recovery, compaction, torn journal tails,
+ * and refusing files from a newer build.
+ * PollStoreBenchmark measures journal throughput and cold loads.
+ */
+public class PollStoreTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static Poll poll(String q, String... labels) {
+        Poll p = new Poll(q);
+        for (String l : labels) p.addOption(l);
+        return p;
+    }
+
+    @Test
+    public void votesSurviveReopen() throws Exception {
+        File dir = tmp.newFolder();
+        Poll food = poll("Poll : Favorite Food?", "Burger", "Hotdog");
+        food.description = "Team lunch choice.";
+        Poll anime = poll("Poll : Favorite Anime?", "Naruto", "One Piece");
+
+        try (PollStore store = PollStore.open(dir)) {
+            store.addPoll(food);
+            store.addPoll(anime);
+            store.vote(food, 1);
+            store.vote(food, 1);
+            store.vote(anime, 0);
+            store.setClosed(food, true);
+        }
+
+        try (PollStore store = PollStore.open(dir)) {
+            List<Poll> polls = store.polls();
+            assertEquals(2, polls.size());
+            Poll a = polls.get(0), f = polls.get(1); // newest first
+            assertEquals(anime.id, a.id);
+            assertEquals("Team lunch choice.", f.description);
+            assertNull(f.link);
+            assertTrue(f.closed);
+            assertFalse(a.closed);
+            assertEquals(2, f.votesFor(1));
+            assertEquals(1, f.winningIndex());
+            assertEquals(1, a.totalVotes());
+        }
+    }
+
+    @Test
+    public void compactionReplaysOnlyTheTail() throws Exception {
+        File dir = tmp.newFolder();
+        Poll p = poll("Poll : Compact", "A", "B", "C");
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            store.addPoll(p);
+            for (int i = 0; i < 100; i++) store.vote(p, i % 3);
+            store.compactAsync().get();
+            store.vote(p, 2);
+            Poll gone = poll("Poll : Gone", "X", "Y");
+            store.addPoll(gone);
+            store.delete(gone);
+        }
+
+        assertTrue(new File(dir, PollStore.SNAPSHOT).exists());
+        assertFalse(new File(dir, "journal-0.log").exists());
+
+        try (PollStore store = PollStore.open(dir)) {
+            assertEquals(1, store.size());
+            Poll r = store.polls().get(0);
+            assertEquals(101, r.totalVotes());
+            assertEquals(34, r.votesFor(2));
+            assertEquals(0, r.winningIndex()); // 34 / 33 / 34 -> lowest index
+        }
+    }
+
+    @Test
+    public void tornTailIsDropped() throws Exception {
+        File dir = tmp.newFolder();
+        Poll p = poll("Poll : Torn", "A", "B");
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            store.addPoll(p);
+            store.vote(p, 0);
+            store.vote(p, 1);
+        }
+        File journal = new File(dir, "journal-0.log");
+        try (RandomAccessFile raf = new RandomAccessFile(journal, "rw")) {
+            raf.setLength(raf.length() - 3); // crash mid-record
+        }
+
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            Poll r = store.polls().get(0);
+            assertEquals(1, r.totalVotes());
+            store.vote(r, 1);
+        }
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            assertEquals(2, store.polls().get(0).totalVotes());
+        }
+    }
+
+    @Test
+    public void newerFormatsFailTheOpen() throws Exception {
+        File dir = tmp.newFolder();
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            store.addPoll(poll("Poll : Future", "A", "B"));
+            store.compactAsync().get();
+        }
+        File snap = new File(dir, PollStore.SNAPSHOT);
+        assertOpenFails(dir, snap, 7, 0x60);      // low byte of the version: 3 -> 99
+        assertOpenFails(dir, snap, 24, 1 << 6);   // first poll's flags, after the header and its id
+
+        // An intact record of a type this build doesn't know
+        byte[] frame = {42, 0, 0, 0, 1, 7, 0, 0, 0, 0};
+        CRC32 crc = new CRC32();
+        crc.update(frame, 0, 6);
+        int c = (int) crc.getValue();
+        for (int i = 0; i < 4; i++) frame[6 + i] = (byte) (c >>> (24 - 8 * i));
+        try (RandomAccessFile raf = new RandomAccessFile(new File(dir, "journal-1.log"), "rw")) {
+            raf.seek(raf.length());
+            raf.write(frame);
+        }
+        try {
+            PollStore.open(dir, 0, 0).close();
+            throw new AssertionError("unknown record was skipped");
+        } catch (IOException expected) {
+            // refused, not misread
+        }
+    }
+
+    /** Sets {@code bits} in the snapshot byte at {@code offset}; opening must fail, then the byte is put back. */
+    private static void assertOpenFails(File dir, File snap, int offset, int bits) throws IOException {
+        int saved;
+        try (RandomAccessFile raf = new RandomAccessFile(snap, "rw")) {
+            raf.seek(offset);
+            saved = raf.read();
+            raf.seek(offset);
+            raf.write(saved | bits);
+        }
+        try {
+            PollStore.open(dir, 0, 0).close();
+            throw new AssertionError("opened with byte " + offset + " changed");
+        } catch (IOException expected) {
+            // refused, not misread
+        } finally {
+            try (RandomAccessFile raf = new RandomAccessFile(snap, "rw")) {
+                raf.seek(offset);
+                raf.write(saved);
+            }
+        }
+    }
+
+    @Test
+    public void stringsPast64KbSurviveJournalAndSnapshot() throws Exception {
+        File dir = tmp.newFolder();
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 70_000) sb.append("\u00e9t\u00e9 ");
+        String big = sb.toString();
+        Poll p = poll("Poll : " + big, "A", big);
+        p.description = big;
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            store.addPoll(p);
+        }
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            Poll r = store.polls().get(0);
+            assertEquals(p.question, r.question);
+            assertEquals(big, r.optionLabel(1));
+            store.compactAsync().get();
+        }
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            Poll r = store.polls().get(0);
+            assertEquals(big, r.description);
+            assertEquals(big, r.optionLabel(1));
+        }
+    }
+
+    @Test
+    public void votingMethodsAndBallotsSurviveReopen() throws Exception {
+        File dir = tmp.newFolder();
+        Poll ranked = poll("Poll : Ranked", "A", "B", "C");
+        ranked.setMethod(new RankedChoiceVoting(ranked));
+        for (int i = 0; i < 4; i++) ranked.cast(0, 1, 2);
+        Poll approval = poll("Poll : Approval", "X", "Y");
+        approval.setMethod(new ApprovalVoting(approval));
+        approval.cast(0, 1);
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            store.addPoll(ranked);
+            store.addPoll(approval);
+            for (int i = 0; i < 3; i++) store.cast(ranked, 1, 2);
+            for (int i = 0; i < 2; i++) store.cast(ranked, 2, 1); // 0 leads, but 1 wins the runoff
+            store.cast(approval, 1);
+            store.vote(approval, 1);
+        }
+        for (int round = 0; round < 2; round++) {
+            try (PollStore store = PollStore.open(dir, 0, 0)) {
+                Poll r = store.polls().get(1), a = store.polls().get(0);
+                assertTrue(r.method() instanceof RankedChoiceVoting);
+                assertEquals(9, r.method().ballots());
+                assertEquals(4, r.votesFor(0));
+                assertEquals(1, r.winningIndex());
+                assertTrue(a.method() instanceof ApprovalVoting);
+                assertEquals(3, a.method().ballots());
+                assertEquals(3, a.votesFor(1));
+                store.compactAsync().get(); // the second round reads the snapshot
+            }
+        }
+    }
+
+    @Test
+    public void failedWritesChangeNothing() throws Exception {
+        File dir = tmp.newFolder();
+        Poll p = poll("Poll : Disk full", "A", "B");
+        PollStore store = PollStore.open(dir, 0, 0);
+        store.addPoll(p);
+        store.close(); // the journal channel is gone; the next drain fails
+
+        int counted = 0;
+        try {
+            for (int i = 0; i < 100_000; i++) {
+                store.vote(p, 1);
+                counted++;
+            }
+            throw new AssertionError("journal writes never failed");
+        } catch (IOException expected) {
+            assertEquals(counted, p.votesFor(1)); // the failed vote was not counted
+        }
+        try {
+            store.delete(p);
+            throw new AssertionError("delete did not fail");
+        } catch (IOException expected) {
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    public void manyPollsSurviveCompactionAndColdLoad() throws Exception {
+        File dir = tmp.newFolder();
+        final int pollCount = 20_000;
+        final int votes = 200_000;
+
+        try (PollStore store = PollStore.open(dir, 50, 0)) {
+            Poll[] polls = new Poll[pollCount];
+            for (int i = 0; i < pollCount; i++) {
+                polls[i] = poll("Poll : #" + i, "Yes", "No", "Maybe");
+                store.addPoll(polls[i]);
+            }
+            for (int i = 0; i < votes; i++) store.vote(polls[i % pollCount], i % 3);
+            store.compactAsync().get();
+            store.vote(polls[0], 2); // lands in the new journal
+        }
+
+        try (PollStore store = PollStore.open(dir, 0, 0)) {
+            List<Poll> polls = store.polls();
+            assertEquals(pollCount, polls.size());
+            Poll first = polls.get(pollCount - 1); // newest first
+            assertEquals("Poll : #0", first.question);
+            assertEquals(votes / pollCount + 1, first.totalVotes());
+            assertEquals(votes / pollCount, polls.get(0).totalVotes());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Instant-runoff against a plain reference count, incremental updates
+ * against full recounts, approval ballots, plain votes counted as ballots
+ * on every path, and 200k ballots ranking 50 options counted both ways.
+ * RankedChoiceBenchmark times the counts.
+ */
+public class RankedChoiceVotingTest {
+
+    private static Poll poll(int options) {
+        Poll p = new Poll("Poll : Ranked");
+        for (int i = 0; i < options; i++) p.addOption("Choice " + i);
+        return p;
+    }
+
+    @Test
+    public void runoffOverturnsPlurality() {
+        Poll p = poll(3); // 0 leads on first preferences, but 1 and 2 voters prefer each other
+        RankedChoiceVoting irv = new RankedChoiceVoting(p);
+        p.setMethod(irv);
+        for (int i = 0; i < 8; i++) p.cast(0, 1, 2);
+        for (int i = 0; i < 7; i++) p.cast(1, 2, 0);
+        for (int i = 0; i < 5; i++) p.cast(2, 1);
+
+        assertEquals(0, p.tally.winningIndex()); // plurality would pick 0
+        assertEquals(1, p.winningIndex());
+        assertEquals(2, irv.rounds());
+        assertEquals(2, irv.eliminated(0));
+        assertEquals(12, irv.votes(1, 1));
+        assertEquals(20, p.totalVotes());           // the tally keeps first preferences
+        assertEquals(8, p.votesFor(0));
+
+        p.cast(0); // exhausted after 0: no change in who is eliminated
+        assertEquals(1, p.winningIndex());
+        for (int i = 0; i < 4; i++) p.cast(0);      // 0 now holds a majority in round 0
+        assertEquals(0, p.winningIndex());
+        assertEquals(1, irv.rounds());
+    }
+
+    @Test
+    public void incrementalMatchesReference() {
+        Random rnd = new Random(22);
+        for (int trial = 0; trial < 40; trial++) {
+            int options = 2 + rnd.nextInt(8);
+            Poll p = poll(options);
+            RankedChoiceVoting irv = new RankedChoiceVoting(p);
+            List<int[]> cast = new ArrayList<>();
+            for (int batch = 0; batch < 60; batch++) {
+                for (int k = rnd.nextInt(5); k >= 0; k--) {
+                    int[] ballot = randomBallot(rnd, options, true);
+                    irv.cast(ballot);
+                    cast.add(ballot);
+                }
+                assertEquals("trial " + trial + " batch " + batch, reference(cast, options), irv.winningIndex());
+            }
+            int incremental = irv.winningIndex();
+            assertEquals(incremental, irv.recount());
+        }
+    }
+
+    @Test
+    public void approvalCountsEachApprovedOptionOnce() {
+        Poll p = poll(4);
+        ApprovalVoting approval = new ApprovalVoting(p);
+        p.setMethod(approval);
+        p.cast(0, 2);
+        p.cast(2, 3, 2); // repeated approval counts once
+        p.cast();        // abstains
+        p.cast(1, 2);
+        assertEquals(4, approval.ballots());
+        assertEquals(3, p.votesFor(2));
+        assertEquals(2, p.winningIndex());
+        try {
+            p.cast(1, 9);
+            throw new AssertionError("accepted option 9");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(1, p.votesFor(1)); // nothing from the rejected ballot landed
+        }
+    }
+
+    @Test
+    public void everyVotePathCastsBallots() throws Exception {
+        Poll p = poll(3);
+        RankedChoiceVoting irv = new RankedChoiceVoting(p);
+        p.setMethod(irv);
+        p.vote(1);
+        p.addVotes(2, 3);
+        try (VoteIngestor ingestor = VoteIngestor.start(null, 16, new VoteIngestor.Listener() {
+            @Override
+            public void onApplied(List<Poll> changed) {
+            }
+
+            @Override
+            public void onFailed(IOException e, int dropped) {
+            }
+        })) {
+            ingestor.submit(p, 0);
+            ingestor.submit(p, 0);
+        }
+        ReplicatedPoll replicated = new ReplicatedPoll(p, 1);
+        ReplicatedPoll peer = new ReplicatedPoll(poll(3), 2);
+        peer.vote(1);
+        replicated.merge(peer);
+        replicated.vote(1);
+
+        assertEquals(8, irv.ballots());
+        assertEquals(8, p.totalVotes());
+        assertEquals(3, p.votesFor(1));
+        try {
+            replicated.retract(1);
+            throw new AssertionError("took back a ranked ballot");
+        } catch (IllegalStateException expected) {
+            assertEquals(8, irv.ballots());
+        }
+    }
+
+    @Test
+    public void manyBallotsOfFiftyOptionsRunToTheLastTwo() {
+        final int options = 50, ballots = 200_000;
+        Poll p = poll(options);
+        RankedChoiceVoting irv = new RankedChoiceVoting(p);
+        Random rnd = new Random(50);
+        for (int b = 0; b < ballots; b++) irv.cast(randomBallot(rnd, options, false));
+
+        int winner = irv.recount();
+        assertEquals(options - 1, irv.rounds()); // uniform full rankings: no majority until two remain
+        assertTrue(winner >= 0 && winner < options);
+
+        for (int i = 0; i < 1000; i++) irv.cast(randomBallot(rnd, options, false));
+        int incremental = irv.winningIndex();
+        assertEquals(irv.recount(), incremental);
+    }
+
+    private static int[] randomBallot(Random rnd, int options, boolean partial) {
+        int[] perm = new int[options];
+        for (int i = 0; i < options; i++) perm[i] = i;
+        for (int i = options - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = perm[i];
+            perm[i] = perm[j];
+            perm[j] = t;
+        }
+        int len = partial ? 1 + rnd.nextInt(options) : options;
+        int[] ballot = new int[len];
+        System.arraycopy(perm, 0, ballot, 0, len);
+        return ballot;
+    }
+
+    /** Textbook instant-runoff with the same tie rules: fewest votes go, the higher index first. */
+    private static int reference(List<int[]> ballots, int options) {
+        boolean[] out = new boolean[options];
+        while (true) {
+            int[] votes = new int[options];
+            int active = 0;
+            for (int[] b : ballots) {
+                for (int c : b) {
+                    if (!out[c]) {
+                        votes[c]++;
+                        active++;
+                        break;
+                    }
+                }
+            }
+            int leader = -1, loser = -1, running = 0;
+            for (int c = 0; c < options; c++) {
+                if (out[c]) continue;
+                running++;
+                if (leader < 0 || votes[c] > votes[leader]) leader = c;
+                if (loser < 0 || votes[c] <= votes[loser]) loser = c;
+            }
+            if (running == 1 || active == 0 || 2 * votes[leader] > active) return leader;
+            out[loser] = true;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * SyncClient/SyncServer convergence, shared (CRDT) polls, idempotent
+ * retransmit, truncated frames, the loopback TCP path and 1k replicas
+ * converging over it.
+ */
+public class SyncTest {
+
+    private static Poll newPoll(SyncClient c, String q, String... labels) throws IOException {
+        Poll p = new Poll(c.newPollId(), q);
+        for (String l : labels) p.addOption(l);
+        c.addPoll(p);
+        return p;
+    }
+
+    @Test
+    public void replicasConverge() throws IOException {
+        SyncServer server = new SyncServer();
+        SyncClient a = new SyncClient(1, server::handle);
+        SyncClient b = new SyncClient(2, server::handle);
+        SyncClient c = new SyncClient(3, server::handle);
+
+        Poll food = newPoll(a, "Poll : Favorite Food?", "Burger", "Hotdog", "Sandwich");
+        a.vote(food, 0);
+        a.sync();
+        b.sync();
+        c.sync();
+
+        b.vote(b.poll(food.id), 1);
+        b.vote(b.poll(food.id), 1);
+        c.vote(c.poll(food.id), 2);
+        c.setClosed(c.poll(food.id), true);
+        b.sync();
+        c.sync();
+        a.sync();
+        b.sync();
+
+        for (SyncClient r : new SyncClient[] {a, b, c}) {
+            Poll p = r.poll(food.id);
+            assertEquals(1, p.votesFor(0));
+            assertEquals(2, p.votesFor(1));
+            assertEquals(1, p.votesFor(2));
+            assertTrue(p.closed);
+        }
+
+        a.delete(food);
+        a.sync();
+        b.sync();
+        assertNull(b.poll(food.id));
+    }
+
+    @Test
+    public void sharedPollsAddUpOfflineVotesOnce() throws IOException {
+        SyncServer server = new SyncServer();
+        SyncClient a = new SyncClient(1, server::handle);
+        SyncClient b = new SyncClient(2, server::handle);
+
+        Poll food = newPoll(a, "Poll : Favorite Food?", "Burger", "Hotdog", "Sandwich");
+        a.share(new ReplicatedPoll(food, 1));
+        a.vote(food, 0);
+        a.sync();
+        b.sync();
+        assertEquals(1, b.poll(food.id).votesFor(0));
+
+        // Both offline, then both sync, twice over
+        a.vote(food, 1);
+        b.vote(b.poll(food.id), 1);
+        b.vote(b.poll(food.id), 2);
+        b.setClosed(b.poll(food.id), true);
+        for (int i = 0; i < 2; i++) {
+            b.sync();
+            a.sync();
+            b.sync();
+        }
+
+        for (SyncClient r : new SyncClient[] {a, b}) {
+            Poll p = r.poll(food.id);
+            assertEquals(1, p.votesFor(0));
+            assertEquals(2, p.votesFor(1));
+            assertEquals(1, p.votesFor(2));
+            assertTrue(p.closed);
+        }
+        assertTrue(Arrays.equals(a.replicated(food.id).encode(), b.replicated(food.id).encode()));
+    }
+
+    @Test
+    public void lostResponseIsNotCountedTwice() throws IOException {
+        SyncServer server = new SyncServer();
+        boolean[] drop = {false};
+        SyncClient a = new SyncClient(1, req -> {
+            byte[] res = server.handle(req);
+            if (drop[0]) {
+                drop[0] = false;
+                throw new IOException("connection reset"); // server applied it, client never heard
+            }
+            return res;
+        });
+        SyncClient b = new SyncClient(2, server::handle);
+
+        Poll p = newPoll(a, "Poll : Retry", "Yes", "No");
+        a.sync();
+        a.vote(p, 0);
+        drop[0] = true;
+        try {
+            a.sync();
+        } catch (IOException expected) {
+            // retried below
+        }
+        a.vote(p, 1);
+        a.sync();
+        b.sync();
+
+        assertEquals(1, b.poll(p.id).votesFor(0));
+        assertEquals(1, b.poll(p.id).votesFor(1));
+    }
+
+    @Test
+    public void loopbackTcp() throws IOException {
+        SyncServer server = new SyncServer();
+        try (SyncServer.Listener listener = server.listen(InetAddress.getLoopbackAddress(), 0);
+             SocketSyncTransport t = new SocketSyncTransport(
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), listener.port()), 5000)) {
+            SyncClient a = new SyncClient(1, t);
+            SyncClient b = new SyncClient(2, t);
+            Poll p = newPoll(a, "Poll : Loopback", "A", "B");
+            for (int i = 0; i < 100; i++) a.vote(p, i % 2);
+            a.sync();
+            b.sync();
+            assertEquals(50, b.poll(p.id).votesFor(0));
+            assertEquals(100, b.poll(p.id).totalVotes());
+        }
+    }
+
+    private static final int CLIENTS = 1_000;
+    private static final int POLLS = 8;
+    private static final int CONNECTIONS = 16;
+
+    @Test
+    public void truncatedAddIsRejected() throws IOException {
+        ByteArrayOutputStream poll = new ByteArrayOutputStream();
+        PollStore.writePoll(new DataOutputStream(poll), new Poll(42, "Poll : Cut short"));
+        SyncProtocol.Out res = new SyncProtocol.Out();
+        res.varLong(0); // acked
+        res.varLong(1); // cursor
+        res.varLong(0); // no more
+        res.varLong(SyncProtocol.ADD);
+        res.varLong(poll.size() + 16); // claims bytes past the end of the frame
+        res.write(poll.toByteArray(), 0, poll.size());
+        byte[] frame = res.toByteArray();
+
+        SyncClient c = new SyncClient(1, request -> frame);
+        try {
+            c.sync();
+            throw new AssertionError("truncated ADD was applied");
+        } catch (IOException expected) {
+            assertNull(c.poll(42));
+        }
+    }
+
+    /**
+     * 1k replicas over loopback TCP (sharing 16 connections, like a
+     * gateway): one creates the polls, every replica votes once per round
+     * and syncs, and all end with the same counts. SyncBenchmark times
+     * this at 10k replicas.
+     */
+    @Test
+    public void thousandClientsConverge() throws IOException {
+        SyncServer server = new SyncServer();
+        InetAddress lo = InetAddress.getLoopbackAddress();
+        try (SyncServer.Listener listener = server.listen(lo, 0)) {
+            SocketSyncTransport[] conns = new SocketSyncTransport[CONNECTIONS];
+            for (int i = 0; i < CONNECTIONS; i++) {
+                conns[i] = new SocketSyncTransport(new InetSocketAddress(lo, listener.port()), 10_000);
+            }
+            SyncClient[] clients = new SyncClient[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) clients[i] = new SyncClient(i + 1, conns[i % CONNECTIONS]);
+
+            long[] pollIds = new long[POLLS];
+            for (int i = 0; i < POLLS; i++) {
+                pollIds[i] = newPoll(clients[0], "Poll : Load " + i, "A", "B", "C", "D").id;
+            }
+            clients[0].sync();
+            for (SyncClient c : clients) c.sync(); // everyone learns the polls
+            int logBefore = server.logSize();
+
+            Random rnd = new Random(1);
+            int rounds = 3;
+            for (int r = 0; r < rounds; r++) {
+                for (SyncClient c : clients) {
+                    c.vote(c.poll(pollIds[rnd.nextInt(POLLS)]), rnd.nextInt(4));
+                    c.sync();
+                }
+                for (SyncClient c : clients) c.sync(); // second pass: everyone sees every vote
+            }
+            long votes = (long) rounds * CLIENTS;
+
+            int[] expected = totals(clients[0], pollIds);
+            for (SyncClient c : clients) assertTrue(Arrays.equals(expected, totals(c, pollIds)));
+            assertEquals(votes, Arrays.stream(expected).sum());
+            assertTrue("log bytes per vote", server.logSize() - logBefore < 16 * votes);
+
+            for (SocketSyncTransport t : conns) t.close();
+        }
+    }
+
+    private static int[] totals(SyncClient c, long[] pollIds) {
+        int[] t = new int[pollIds.length * 4];
+        for (int i = 0; i < pollIds.length; i++) {
+            for (int o = 0; o < 4; o++) t[i * 4 + o] = c.poll(pollIds[i]).votesFor(o);
+        }
+        return t;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Host-side tests for VoteIngestor: nothing lost across producers or a
+ * reopen, bounded queue behavior. Throughput is in VoteIngestorBenchmark.
+ */
+public class VoteIngestorTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static final int PRODUCERS = 4;
+    private static final int VOTES_PER_PRODUCER = 250_000;
+
+    private static Poll poll(int options) {
+        Poll p = new Poll("Poll : Ingest");
+        for (int i = 0; i < options; i++) p.addOption("Option " + i);
+        return p;
+    }
+
+    /** Counts batches; nothing else, like a UI that only marks polls dirty. */
+    private static class CountingListener implements VoteIngestor.Listener {
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public void onApplied(List<Poll> changed) {
+            batches.incrementAndGet();
+        }
+
+        @Override
+        public void onFailed(IOException e, int dropped) {
+            failures.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void inMemoryBurstFromManyProducers() throws Exception {
+        Poll[] polls = {poll(2), poll(5), poll(10)};
+        CountingListener listener = new CountingListener();
+        VoteIngestor ingestor = VoteIngestor.start(null, 8192, listener);
+
+        burst(ingestor, polls);
+        ingestor.close();
+
+        assertCounts(polls);
+        assertEquals((long) PRODUCERS * VOTES_PER_PRODUCER, ingestor.applied());
+        assertTrue("batches should coalesce votes", listener.batches.get() < PRODUCERS * VOTES_PER_PRODUCER / 10);
+    }
+
+    @Test
+    public void journaledBurstSurvivesReopen() throws Exception {
+        File dir = tmp.newFolder();
+        Poll[] polls = {poll(2), poll(5), poll(10)};
+        CountingListener listener = new CountingListener();
+        try (PollStore store = PollStore.open(dir)) {
+            for (Poll p : polls) store.addPoll(p);
+            VoteIngestor ingestor = VoteIngestor.start(store, 8192, listener);
+            burst(ingestor, polls);
+            ingestor.close();
+            assertEquals(0, ingestor.dropped());
+        }
+        assertEquals(0, listener.failures.get());
+
+        try (PollStore reopened = PollStore.open(dir)) {
+            List<Poll> restored = reopened.polls();
+            Collections.reverse(restored); // newest first -> creation order
+            assertCounts(restored.toArray(new Poll[0]));
+        }
+    }
+
+    @Test
+    public void offerFailsWhenFull() throws Exception {
+        Poll p = poll(2);
+        CountDownLatch inListener = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        VoteIngestor ingestor = VoteIngestor.start(null, 4, new CountingListener() {
+            @Override
+            public void onApplied(List<Poll> changed) {
+                inListener.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        assertTrue(ingestor.offer(p, 0));
+        inListener.await(); // worker is now stuck with the first batch
+        for (int i = 0; i < 4; i++) assertTrue(ingestor.offer(p, 1));
+        assertFalse(ingestor.offer(p, 1));
+
+        release.countDown();
+        ingestor.close();
+        assertEquals(1, p.votesFor(0));
+        assertEquals(4, p.votesFor(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsUnknownOption() {
+        VoteIngestor ingestor = VoteIngestor.start(null, 16, new CountingListener());
+        try {
+            ingestor.offer(poll(2), 2);
+        } finally {
+            ingestor.close();
+        }
+    }
+
+    /** Producer t votes round-robin over every poll's options. */
+    private static void burst(VoteIngestor ingestor, Poll[] polls) throws InterruptedException {
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int t = 0; t < PRODUCERS; t++) {
+            producers[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < VOTES_PER_PRODUCER; i++) {
+                        Poll p = polls[i % polls.length];
+                        ingestor.submit(p, i % p.optionCount());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread t : producers) t.join();
+        while (ingestor.applied() + ingestor.dropped() < (long) PRODUCERS * VOTES_PER_PRODUCER) Thread.sleep(1);
+    }
+
+    private static void assertCounts(Poll[] polls) {
+        int[][] expected = new int[polls.length][];
+        for (int i = 0; i < polls.length; i++) expected[i] = new int[polls[i].optionCount()];
+        for (int i = 0; i < VOTES_PER_PRODUCER; i++) {
+            int which = i % polls.length;
+            expected[which][i % polls[which].optionCount()] += PRODUCERS;
+        }
+        for (int i = 0; i < polls.length; i++) {
+            for (int o = 0; o < expected[i].length; o++) {
+                assertEquals(expected[i][o], polls[i].votesFor(o));
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.votingpage;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Host-side tests for VoteTally, including a multi-threaded stress run
+ * that checks no votes are lost.
+ */
+public class VoteTallyTest {
+
+    @Test
+    public void tiesGoToLowestIndex() {
+        Poll p = new Poll("Poll : Tie?");
+        p.addOption("A");
+        p.addOption("B");
+        p.addOption("C");
+        p.tally.set(1, 4);
+        p.tally.set(2, 4);
+        assertEquals(1, p.winningIndex());
+        assertEquals(8, p.totalVotes());
+
+        VoteTally.Snapshot snap = p.tally.snapshot();
+        assertEquals(1, snap.winner);
+        assertEquals(8, snap.total);
+    }
+
+    @Test
+    public void emptyPollHasNoVotes() {
+        Poll p = new Poll("Poll : Empty");
+        assertEquals(0, p.totalVotes());
+        assertEquals(0, p.winningIndex());
+    }
+
+    @Test
+    public void leaderMatchesFullScan() {
+        Random rnd = new Random(42);
+        for (int n : new int[] {1, 2, 3, 7, 64, 300}) {
+            Poll p = new Poll("Poll : Ranked");
+            for (int i = 0; i < n; i++) p.addOption("Option " + i);
+            for (int step = 0; step < 5_000; step++) {
+                int idx = rnd.nextInt(n);
+                if (step % 50 == 0) p.tally.set(idx, rnd.nextInt(20));
+                else p.vote(idx);
+
+                VoteTally.Snapshot snap = p.tally.snapshot();
+                assertEquals(snap.winner, p.winningIndex());
+                assertEquals(snap.total, p.totalVotes());
+            }
+        }
+    }
+
+    @Test
+    public void addingOptionsKeepsCounts() {
+        Poll p = new Poll("Poll : Grow");
+        p.addOption("A");
+        p.vote(0);
+        p.addOption("B");
+        p.vote(1);
+        p.vote(1);
+        p.addOption("C");
+        assertEquals(1, p.votesFor(0));
+        assertEquals(2, p.votesFor(1));
+        assertEquals(1, p.winningIndex());
+        assertEquals(3, p.totalVotes());
+    }
+
+    @Test
+    public void growsInPlaceAndInBulk() {
+        Poll p = new Poll("Poll : Many options");
+        for (int i = 0; i < 1000; i++) {
+            p.addOption("Option " + i);
+            if (i % 3 == 0) p.vote(i);
+            if (i == 700) p.tally.set(500, 2);
+        }
+        assertEquals(1000, p.tally.size());
+        assertEquals(500, p.winningIndex());
+        assertEquals(334 + 2, p.totalVotes()); // every third option, plus the 2 set on option 500
+
+        assertEquals(1000, p.addOptions("X", "Y", "Z"));
+        p.tally.add(1002, 5);
+        assertEquals(1003, p.optionCount());
+        assertEquals("Z", p.optionLabel(1002));
+        assertEquals(1002, p.winningIndex());
+        assertEquals(1003, p.tally.snapshot().counts.length);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsOptionsPastTheEnd() {
+        Poll p = new Poll("Poll : Spare capacity");
+        p.addOptions("A", "B", "C"); // capacity 4
+        p.vote(3);
+    }
+
+    @Test
+    public void concurrentVotesAreNotLost() throws Exception {
+        final int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        final int perThread = 1_000_000;
+        final int options = 5;
+
+        Poll p = new Poll("Poll : Stress");
+        for (int i = 0; i < options; i++) p.addOption("Option " + i);
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) p.vote((i + seed) % options);
+            });
+            workers[t].start();
+        }
+
+        start.countDown();
+        for (Thread w : workers) w.join();
+
+        long expected = (long) threads * perThread;
+        assertEquals(expected, p.totalVotes());
+        long sum = 0;
+        for (int i = 0; i < options; i++) sum += p.votesFor(i);
+        assertEquals(expected, sum);
+        assertEquals(p.tally.snapshot().winner, p.winningIndex());
+    }
+}